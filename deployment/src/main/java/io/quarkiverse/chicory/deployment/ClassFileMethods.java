@@ -0,0 +1,139 @@
+package io.quarkiverse.chicory.deployment;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the bytecode size of each method of a class file, i.e. the length of its {@code Code} attribute, which the JVM
+ * compares to {@code -XX:HugeMethodLimit} to decide whether a method can be JIT compiled.
+ */
+final class ClassFileMethods {
+    // the methods generated for Wasm functions are named after the function index
+    private static final Pattern FUNCTION_METHOD = Pattern.compile("func_(\\d+)");
+
+    private ClassFileMethods() {
+    }
+
+    static List<MethodSize> read(final byte[] classFile) throws IOException {
+        final DataInputStream input = new DataInputStream(new ByteArrayInputStream(classFile));
+        if (input.readInt() != 0xCAFEBABE) {
+            throw new IOException("Not a class file");
+        }
+        // minor and major versions
+        input.skipBytes(4);
+        final int constantPoolCount = input.readUnsignedShort();
+        final String[] utf8 = new String[constantPoolCount];
+        for (int i = 1; i < constantPoolCount; i++) {
+            final int tag = input.readUnsignedByte();
+            switch (tag) {
+                case 1:
+                    utf8[i] = input.readUTF();
+                    break;
+                case 7:
+                case 8:
+                case 16:
+                case 19:
+                case 20:
+                    input.skipBytes(2);
+                    break;
+                case 15:
+                    input.skipBytes(3);
+                    break;
+                case 3:
+                case 4:
+                case 9:
+                case 10:
+                case 11:
+                case 12:
+                case 17:
+                case 18:
+                    input.skipBytes(4);
+                    break;
+                case 5:
+                case 6:
+                    // long and double entries take two slots
+                    input.skipBytes(8);
+                    i++;
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+        // access flags, this class, super class
+        input.skipBytes(6);
+        input.skipBytes(2 * input.readUnsignedShort());
+        final int fieldCount = input.readUnsignedShort();
+        for (int i = 0; i < fieldCount; i++) {
+            input.skipBytes(6);
+            skipAttributes(input);
+        }
+        final int methodCount = input.readUnsignedShort();
+        final List<MethodSize> result = new ArrayList<>(methodCount);
+        for (int i = 0; i < methodCount; i++) {
+            input.skipBytes(2);
+            final String name = utf8[input.readUnsignedShort()];
+            input.skipBytes(2);
+            int codeLength = 0;
+            final int attributeCount = input.readUnsignedShort();
+            for (int j = 0; j < attributeCount; j++) {
+                final String attributeName = utf8[input.readUnsignedShort()];
+                final int attributeLength = input.readInt();
+                if ("Code".equals(attributeName)) {
+                    // max stack and max locals
+                    input.skipBytes(4);
+                    codeLength = input.readInt();
+                    input.skipBytes(attributeLength - 8);
+                } else {
+                    input.skipBytes(attributeLength);
+                }
+            }
+            result.add(new MethodSize(name, codeLength));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the index of the Wasm function a generated method implements.
+     *
+     * @param methodName The name of the generated method
+     * @return The function index, or {@code null} if the method doesn't implement a Wasm function
+     */
+    static Integer functionIndex(final String methodName) {
+        final Matcher matcher = FUNCTION_METHOD.matcher(methodName);
+        return matcher.matches() ? Integer.valueOf(matcher.group(1)) : null;
+    }
+
+    private static void skipAttributes(final DataInputStream input) throws IOException {
+        final int attributeCount = input.readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            input.skipBytes(2);
+            input.skipBytes(input.readInt());
+        }
+    }
+
+    /**
+     * The bytecode size of a method.
+     */
+    static final class MethodSize {
+        private final String name;
+        private final int codeLength;
+
+        private MethodSize(final String name, final int codeLength) {
+            this.name = name;
+            this.codeLength = codeLength;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        int getCodeLength() {
+            return codeLength;
+        }
+    }
+}
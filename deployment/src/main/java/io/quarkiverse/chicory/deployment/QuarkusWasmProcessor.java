@@ -1,32 +1,58 @@
 package io.quarkiverse.chicory.deployment;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.RequestScoped;
 
 import org.eclipse.microprofile.config.ConfigProvider;
 import org.jboss.logging.Logger;
 
 import com.dylibso.chicory.build.time.compiler.Config;
 import com.dylibso.chicory.build.time.compiler.Generator;
+import com.dylibso.chicory.wasm.Parser;
+import com.dylibso.chicory.wasm.WasmModule;
+import com.dylibso.chicory.wasm.types.ExternalType;
+import com.dylibso.chicory.wasm.types.Import;
 
 import io.quarkiverse.chicory.deployment.items.GeneratedWasmCodeBuildItem;
 import io.quarkiverse.chicory.deployment.items.WasmContextRegistrationCompleted;
+import io.quarkiverse.chicory.deployment.items.WasmHostFunctionBuildItem;
+import io.quarkiverse.chicory.deployment.items.WasmLinkedImportBuildItem;
 import io.quarkiverse.chicory.runtime.WasmQuarkusConfig;
 import io.quarkiverse.chicory.runtime.WasmQuarkusUtils;
+import io.quarkiverse.chicory.runtime.health.WasmWarmupReadinessCheck;
+import io.quarkiverse.chicory.runtime.metrics.WasmPoolMeterBinder;
+import io.quarkiverse.chicory.runtime.wasm.HugeFunctionStrategy;
+import io.quarkiverse.chicory.runtime.wasm.InstanceScope;
+import io.quarkiverse.chicory.runtime.wasm.WasmInstance;
+import io.quarkiverse.chicory.runtime.wasm.WasmModuleKey;
 import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
 import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContextRecorder;
+import io.quarkus.arc.deployment.AdditionalBeanBuildItem;
 import io.quarkus.arc.deployment.SyntheticBeanBuildItem;
+import io.quarkus.arc.deployment.SyntheticBeansRuntimeInitBuildItem;
+import io.quarkus.arc.processor.DotNames;
+import io.quarkus.deployment.Capabilities;
+import io.quarkus.deployment.Capability;
 import io.quarkus.deployment.IsDevelopment;
 import io.quarkus.deployment.annotations.BuildProducer;
 import io.quarkus.deployment.annotations.BuildStep;
@@ -38,17 +64,30 @@ import io.quarkus.deployment.builditem.FeatureBuildItem;
 import io.quarkus.deployment.builditem.GeneratedClassBuildItem;
 import io.quarkus.deployment.builditem.GeneratedResourceBuildItem;
 import io.quarkus.deployment.builditem.HotDeploymentWatchedFileBuildItem;
+import io.quarkus.deployment.builditem.LiveReloadBuildItem;
+import io.quarkus.deployment.builditem.ShutdownContextBuildItem;
 import io.quarkus.deployment.builditem.nativeimage.NativeImageResourceBuildItem;
 import io.quarkus.deployment.builditem.nativeimage.NativeImageResourcePatternsBuildItem;
 import io.quarkus.deployment.builditem.nativeimage.ReflectiveClassBuildItem;
 import io.quarkus.deployment.pkg.builditem.OutputTargetBuildItem;
+import io.quarkus.deployment.recording.RecorderContext;
+import io.quarkus.runtime.RuntimeValue;
+import io.quarkus.smallrye.health.deployment.spi.HealthBuildItem;
 
 /**
  * The Quarkus Chicory deployment processor provides the following features:
  * <ul>
  * <li>Produce a collection of injectable named beans, each representing a configured Wasm module</li>
+ * <li>Produce a collection of injectable named beans, each providing a ready-to-use instance of a configured Wasm
+ * module</li>
  * <li>Replace the Chicory Maven plugin functionality to generate bytecode, Wasm meta files and raw Java sources</li>
  * <li>Watch statically configured Wasm module files to trigger a rebuild in <i>dev mode</i></li>
+ * <li>Warm up the configured Wasm modules at startup, and gate readiness until warm-up completes</li>
+ * <li>Expose the admission metrics of the instance pools, when Micrometer is present</li>
+ * <li>Bind the functions imported by the configured Wasm modules to {@code @WasmImport} bean methods, see
+ * {@link WasmImportProcessor}</li>
+ * <li>Link the functions imported by a configured Wasm module to the ones exported by other configured Wasm modules,
+ * see {@link WasmLinkProcessor}</li>
  * </ul>
  * <p>
  * The first build step creates a collection of application scoped named beans, each representing a statically
@@ -81,34 +120,169 @@ class QuarkusWasmProcessor {
      * @param recorder The {@link WasmQuarkusContextRecorder} instance that provides the logic to create the runtime
      *        instances of the required beans
      * @param config The application configuration, storing all the configured modules.
+     * @param hostFunctions The imported functions implemented by {@code @WasmImport} methods, which are bound to the
+     *        context of the importing Wasm module
+     * @param linkedImports The imported functions implemented by other configured Wasm modules, which are bound to the
+     *        context of the importing Wasm module
+     * @param shutdownContext The shutdown context, which closes the {@link WasmQuarkusContext} instances when the
+     *        application stops
+     * @param recorderContext The recorder context, which creates the generated host function factories without
+     *        reflection
      */
     @BuildStep
     @Record(ExecutionTime.RUNTIME_INIT)
     @Produce(WasmContextRegistrationCompleted.class)
     void registerWasmContextBeans(BuildProducer<SyntheticBeanBuildItem> syntheticBeans, WasmQuarkusContextRecorder recorder,
-            WasmQuarkusConfig config, OutputTargetBuildItem outputTarget) {
+            WasmQuarkusConfig config, OutputTargetBuildItem outputTarget, List<WasmHostFunctionBuildItem> hostFunctions,
+            List<WasmLinkedImportBuildItem> linkedImports, ShutdownContextBuildItem shutdownContext,
+            RecorderContext recorderContext) {
         // Produce synthetic WasmQuarkusContext beans for related Wasm modules
         for (Map.Entry<String, WasmQuarkusConfig.ModuleConfig> moduleConfigEntry : config.modules().entrySet()) {
             final String key = moduleConfigEntry.getKey();
             final Optional<String> packageType = ConfigProvider.getConfig().getOptionalValue("quarkus.package.type",
                     String.class);
             final boolean isNativePackageType = packageType.isPresent() && packageType.get().equals("native");
+            final RuntimeValue<?> context = recorder.createContext(key, config, isNativePackageType,
+                    outputTarget.getOutputDirectory().getParent().toString(), shutdownContext);
+            for (WasmHostFunctionBuildItem hostFunction : hostFunctions) {
+                if (hostFunction.getModuleKey().equals(key)) {
+                    recorder.addHostFunction(context, hostFunction.getImportModule(), hostFunction.getImportName(),
+                            hostFunction.getParams(), hostFunction.getResults(),
+                            recorderContext.newInstance(hostFunction.getHandleFactoryClassName()));
+                }
+            }
+            for (WasmLinkedImportBuildItem linkedImport : linkedImports) {
+                if (linkedImport.getModuleKey().equals(key)) {
+                    recorder.addLinkedImport(context, linkedImport.getImportModule(), linkedImport.getImportName(),
+                            linkedImport.getProviderKey());
+                }
+            }
             syntheticBeans.produce(
                     SyntheticBeanBuildItem.configure(WasmQuarkusContext.class)
                             .scope(ApplicationScoped.class)
-                            .runtimeValue(recorder.createContext(key, config, isNativePackageType,
-                                    outputTarget.getOutputDirectory().getParent().toString()))
+                            .runtimeValue(context)
                             .setRuntimeInit()
                             .named(key)
                             .done());
         }
     }
 
+    /**
+     * Creates a collection of {@link WasmInstance} beans qualified by {@link WasmModuleKey}, for each statically
+     * configured Wasm module, with the scope configured via {@code quarkus.chicory.modules.<module-key>.instance.scope}.
+     *
+     * @param syntheticBeans The {@link BuildProducer} instance that creates the synthetic beans
+     * @param recorder The {@link WasmQuarkusContextRecorder} instance that provides the logic to create the runtime
+     *        instances of the required beans
+     * @param config The application configuration, storing all the configured modules.
+     */
+    @BuildStep
+    @Record(ExecutionTime.RUNTIME_INIT)
+    void registerWasmInstanceBeans(BuildProducer<SyntheticBeanBuildItem> syntheticBeans,
+            WasmQuarkusContextRecorder recorder, WasmQuarkusConfig config) {
+        for (Map.Entry<String, WasmQuarkusConfig.ModuleConfig> moduleConfigEntry : config.modules().entrySet()) {
+            final String key = moduleConfigEntry.getKey();
+            final WasmQuarkusConfig.ModuleConfig moduleConfig = moduleConfigEntry.getValue();
+            if (moduleConfig.wasmFile().isEmpty() && moduleConfig.wasmResource().isEmpty()) {
+                LOG.debug("No payload is configured for Wasm module " + key + ", no WasmInstance bean is produced");
+                continue;
+            }
+            final InstanceScope scope = moduleConfig.instance().scope();
+            syntheticBeans.produce(
+                    SyntheticBeanBuildItem.configure(WasmInstance.class)
+                            .scope(scope == InstanceScope.Request ? RequestScoped.class : ApplicationScoped.class)
+                            .supplier(recorder.createInstanceBean(key, config))
+                            .destroyer(WasmInstance.Destroyer.class)
+                            .setRuntimeInit()
+                            // the WasmQuarkusContext bean is already named after the key
+                            .addQualifier().annotation(WasmModuleKey.class).addValue("value", key).done()
+                            .done());
+        }
+    }
+
+    /**
+     * Starts the configured warm-up of each Wasm module once the synthetic {@link WasmQuarkusContext} beans are
+     * available.
+     *
+     * @param recorder The {@link WasmQuarkusContextRecorder} instance that starts the warm-up at runtime
+     * @param config The application configuration, storing all the configured modules.
+     */
+    @BuildStep
+    @Record(ExecutionTime.RUNTIME_INIT)
+    @Consume(SyntheticBeansRuntimeInitBuildItem.class)
+    void startWarmup(WasmQuarkusContextRecorder recorder, WasmQuarkusConfig config) {
+        for (Map.Entry<String, WasmQuarkusConfig.ModuleConfig> moduleConfigEntry : config.modules().entrySet()) {
+            if (moduleConfigEntry.getValue().warmup().export().isPresent()) {
+                LOG.info("Wasm module " + moduleConfigEntry.getKey() + " will be warmed up at startup");
+                recorder.startWarmup(moduleConfigEntry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Registers a readiness health check that reports the application as ready only after all configured Wasm
+     * modules have been warmed up, when the SmallRye Health extension is present.
+     *
+     * @param capabilities The capabilities of the application
+     * @return A {@link HealthBuildItem} referencing the {@link WasmWarmupReadinessCheck}, or {@code null} if
+     *         SmallRye Health is not present
+     */
+    @BuildStep
+    HealthBuildItem addWarmupReadinessCheck(Capabilities capabilities) {
+        if (!capabilities.isPresent(Capability.SMALLRYE_HEALTH)) {
+            return null;
+        }
+        return new HealthBuildItem(WasmWarmupReadinessCheck.class.getName(), true);
+    }
+
+    /**
+     * Registers a Micrometer {@code MeterBinder} that exposes the admission metrics of the instance pools, when the
+     * Micrometer extension is present.
+     *
+     * @param capabilities The capabilities of the application
+     * @return An {@link AdditionalBeanBuildItem} referencing the {@link WasmPoolMeterBinder}, or {@code null} if
+     *         Micrometer is not present
+     */
+    @BuildStep
+    AdditionalBeanBuildItem addPoolMetrics(Capabilities capabilities) {
+        if (!capabilities.isPresent(Capability.MICROMETER)) {
+            return null;
+        }
+        return AdditionalBeanBuildItem.builder()
+                .addBeanClass(WasmPoolMeterBinder.class)
+                .setDefaultScope(DotNames.SINGLETON)
+                .setUnremovable()
+                .build();
+    }
+
+    /**
+     * Registers the classpath resources copied into the in-memory WASI filesystem of each module, so that they're
+     * available in native mode.
+     *
+     * @param config The application configuration, storing all the configured modules.
+     * @return A collection of {@link NativeImageResourceBuildItem} items, one per configured resource
+     */
+    @BuildStep
+    List<NativeImageResourceBuildItem> registerWasiFilesystemResources(WasmQuarkusConfig config) {
+        final List<NativeImageResourceBuildItem> result = new ArrayList<>();
+        for (WasmQuarkusConfig.ModuleConfig moduleConfig : config.modules().values()) {
+            if (!moduleConfig.wasi().enabled()) {
+                continue;
+            }
+            for (String resource : moduleConfig.wasi().filesystem().resources().orElse(List.of())) {
+                result.add(new NativeImageResourceBuildItem(resource.startsWith("/") ? resource.substring(1) : resource));
+            }
+        }
+        return result;
+    }
+
     /**
      * Use the Chicory build time compiler {@link Generator} to generate bytecode from configured {@code Wasm} modules.
      *
      * @param config The application configuration, storing all the configured modules.
      * @param outputTarget The build output target providing the directory where generated files will be written.
+     * @param liveReload The live reload state, keeping the code generated for each module across dev mode restarts,
+     *        so that only the modules whose payload or compiler configuration changed are generated again.
      * @param nativeImageResourcePatternsBuildItemBuildProducer The producer for registering native image resource patterns.
      * @return A collection of {@link GeneratedWasmCodeBuildItem} items, each of them storing the name of the
      *         generated Wasm module, a list of paths referencing the generated {@code .class} files,
@@ -119,11 +293,16 @@ class QuarkusWasmProcessor {
     @BuildStep
     @Consume(WasmContextRegistrationCompleted.class)
     public List<GeneratedWasmCodeBuildItem> generate(WasmQuarkusConfig config,
-            OutputTargetBuildItem outputTarget,
+            OutputTargetBuildItem outputTarget, LiveReloadBuildItem liveReload,
             BuildProducer<NativeImageResourcePatternsBuildItem> nativeImageResourcePatternsBuildItemBuildProducer)
             throws IOException {
 
         final List<GeneratedWasmCodeBuildItem> result = new ArrayList<>();
+        GeneratedModules generatedModules = liveReload.getContextObject(GeneratedModules.class);
+        if (generatedModules == null) {
+            generatedModules = new GeneratedModules();
+            liveReload.setContextObject(GeneratedModules.class, generatedModules);
+        }
 
         final Path targetDirectory = outputTarget.getOutputDirectory();
         final Path classesDir = targetDirectory.resolve("classes");
@@ -133,77 +312,102 @@ class QuarkusWasmProcessor {
             final String key = entry.getKey();
             final WasmQuarkusConfig.ModuleConfig moduleConfig = entry.getValue();
             final String name = moduleConfig.name();
-            Path wasmFile = null;
-            if (moduleConfig.wasmFile().isPresent()) {
-                wasmFile = moduleConfig.wasmFileAbsolutePath(targetDirectory.getParent());
-            } else if (moduleConfig.wasmResource().isPresent()) {
-                wasmFile = WasmQuarkusUtils.getWasmPathFromResource(moduleConfig.wasmResource().get());
-            } else {
-                LOG.info(
-                        "Neither a resource name nor a file path is defined. Skipping code generation for Wasm module " + key);
-            }
+            final Path wasmFile = resolveWasmFile(key, moduleConfig, targetDirectory.getParent());
             // generate when a Wasm file exists
             if (wasmFile != null) {
+                final Set<String> implicitExports = moduleConfig.compiler().exports().isPresent()
+                        ? implicitExports(key, config, targetDirectory.getParent())
+                        : Set.of();
+                final String fingerprint = fingerprint(wasmFile, config, moduleConfig, implicitExports);
+                final GeneratedWasmCodeBuildItem previous = generatedModules.get(key, fingerprint);
+                if (previous != null) {
+                    LOG.info("Wasm module " + key
+                            + " is unchanged, reusing the previously generated bytecode and resources");
+                    result.add(previous);
+                    continue;
+                }
+                final long generationStart = System.nanoTime();
                 final Optional<List<Integer>> interpretedFunctionsConfig = moduleConfig.compiler().interpretedFunctions();
+                final Set<Integer> interpretedFunctions = new HashSet<>(interpretedFunctionsConfig.orElse(List.of()));
+                // functions unreachable from the exports used by the application aren't worth compiling
+                final Set<Integer> unreachableFunctions = moduleConfig.compiler().exports().isPresent()
+                        ? WasmReachability.unreachableFunctions(key, Parser.parse(wasmFile),
+                                moduleConfig.compiler().exports().get(), implicitExports)
+                        : Set.of();
+                if (!unreachableFunctions.isEmpty()) {
+                    LOG.info(unreachableFunctions.size() + " functions of Wasm module " + key
+                            + " are unreachable from " + moduleConfig.compiler().exports().get()
+                            + ", and will be left to the interpreter");
+                    interpretedFunctions.addAll(unreachableFunctions);
+                }
 
                 LOG.info("Generating bytecode and resources into " + classesDir.toFile().getAbsolutePath() + " for "
                         + key + " from "
                         + wasmFile);
-                final Config generatorConfig = Config.builder()
-                        .withWasmFile(wasmFile)
-                        .withName(name)
-                        .withTargetClassFolder(classesDir)
-                        .withTargetWasmFolder(classesDir)
-                        .withTargetSourceFolder(generatedSourcesDir)
-                        .withInterpreterFallback(moduleConfig.compiler().interpreterFallback())
-                        .withInterpretedFunctions(
-                                interpretedFunctionsConfig.isPresent() ? new HashSet<>(interpretedFunctionsConfig.get())
-                                        : Set.of())
-                        .build();
-                final Generator generator = new Generator(generatorConfig);
-                final Set<Integer> finalInterpretedFunctions = generator.generateResources();
-                generator.generateMetaWasm(finalInterpretedFunctions);
-                generator.generateSources();
+                final Set<Integer> hugeFunctions = new TreeSet<>();
+                Set<Integer> finalInterpretedFunctions;
+                while (true) {
+                    final Config generatorConfig = Config.builder()
+                            .withWasmFile(wasmFile)
+                            .withName(name)
+                            .withTargetClassFolder(classesDir)
+                            .withTargetWasmFolder(classesDir)
+                            .withTargetSourceFolder(generatedSourcesDir)
+                            .withInterpreterFallback(moduleConfig.compiler().interpreterFallback())
+                            .withInterpretedFunctions(interpretedFunctions)
+                            .build();
+                    final Generator generator = new Generator(generatorConfig);
+                    finalInterpretedFunctions = generator.generateResources();
+                    // functions the JVM would never JIT compile are left to the interpreter, by generating again
+                    if (moduleConfig.compiler().hugeFunctions() == HugeFunctionStrategy.Interpret
+                            && hugeFunctions.isEmpty()) {
+                        final List<Path> classes = findGeneratedClasses(classesDir, name);
+                        hugeFunctions.addAll(findHugeFunctions(classes, config.report().hugeMethodLimit()));
+                        if (!hugeFunctions.isEmpty()) {
+                            LOG.info("Functions " + hugeFunctions + " of Wasm module " + key
+                                    + " exceed the huge method limit, and will be left to the interpreter");
+                            interpretedFunctions.addAll(hugeFunctions);
+                            for (Path classFile : classes) {
+                                Files.delete(classFile);
+                            }
+                            continue;
+                        }
+                    }
+                    generator.generateMetaWasm(finalInterpretedFunctions);
+                    generator.generateSources();
+                    break;
+                }
+                final long generationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - generationStart);
 
                 // Track the generated *.class and .meta Wasm files
-                final List<Path> generatedClasses = new ArrayList<>();
-                Path generatedMetaWasm = null;
-                Path generatedJava = null;
                 // N .class files
-                LOG.debug("Tracking the generated .class files in " + classesDir.toAbsolutePath());
-                try (Stream<Path> pathStream = Files.walk(classesDir.toAbsolutePath())) {
-                    ArrayList<Path> files = pathStream
-                            .filter(p -> p.toString().contains("/" + WasmQuarkusUtils.getWasmModuleClassName(name))
-                                    && p.toString().endsWith(".class"))
-                            .collect(Collectors.toCollection(ArrayList::new));
-                    for (Path file : files) {
-                        LOG.debug("Tracking the generated .class file: " + file);
-                        generatedClasses.add(file);
-                    }
-                }
+                final List<Path> generatedClasses = findGeneratedClasses(classesDir, name);
                 // 1 .meta Wasm file
-                LOG.debug("Tracking the generated .meta file in " + classesDir.toFile().getAbsolutePath());
-                try (Stream<Path> pathStream = Files.walk(classesDir.toAbsolutePath())) {
-                    generatedMetaWasm = pathStream
-                            .filter(p -> p.toString().endsWith(".meta"))
-                            .findFirst()
-                            .orElseThrow(() -> new IllegalStateException(".meta Wasm file not found"));
-                    LOG.debug("Tracking the generated .meta file: " + generatedMetaWasm);
+                final Path generatedMetaWasm = findGeneratedFile(classesDir, name, ".meta");
+                if (moduleConfig.compiler().stripCustomSections()) {
+                    final byte[] metaWasm = Files.readAllBytes(generatedMetaWasm);
+                    final Set<String> keptSections = new HashSet<>(
+                            moduleConfig.compiler().keepCustomSections().orElse(List.of()));
+                    // the profiler maps function indexes to names
+                    if (moduleConfig.profiler().enabled()) {
+                        keptSections.add("name");
+                    }
+                    final byte[] strippedMetaWasm = WasmCustomSections.strip(metaWasm, keptSections);
+                    Files.write(generatedMetaWasm, strippedMetaWasm);
+                    LOG.info("Stripped the custom sections of the .meta file of " + key + ", from " + metaWasm.length
+                            + " to " + strippedMetaWasm.length + " bytes");
                 }
                 // 1 .java source file
-                LOG.debug("Tracking the generated .java file in " + generatedSourcesDir.toFile().getAbsolutePath());
-                try (Stream<Path> pathStream = Files.walk(generatedSourcesDir.toAbsolutePath())) {
-                    generatedJava = pathStream
-                            .filter(p -> p.toString().endsWith(".java"))
-                            .findFirst()
-                            .orElseThrow(() -> new IllegalStateException(".java Wasm file not found"));
-                    LOG.debug("Tracking the generated .java file: " + generatedJava);
-                }
-                result.add(new GeneratedWasmCodeBuildItem(name, generatedClasses, generatedMetaWasm, generatedJava));
+                final Path generatedJava = findGeneratedFile(generatedSourcesDir, name, ".java");
+                final GeneratedWasmCodeBuildItem generated = new GeneratedWasmCodeBuildItem(name, generatedClasses,
+                        generatedMetaWasm, generatedJava, finalInterpretedFunctions, unreachableFunctions, hugeFunctions,
+                        generationMillis);
+                generatedModules.put(key, fingerprint, generated);
+                result.add(generated);
             }
         }
-        // register *.wasm files for Native mode (although they are not be used...)
-        if (config.modules().entrySet().stream().anyMatch(m -> m.getValue().wasmFile().isPresent())) {
+        // the raw payloads aren't used at runtime in native mode, unless the application loads them itself
+        if (config.nativeImage().includeWasmPayloads()) {
             nativeImageResourcePatternsBuildItemBuildProducer.produce(NativeImageResourcePatternsBuildItem.builder()
                     .includeGlobs("**/*.wasm")
                     .build());
@@ -213,7 +417,7 @@ class QuarkusWasmProcessor {
 
     /**
      * A build step that consumes the build items generated by
-     * {@link #generate(WasmQuarkusConfig, OutputTargetBuildItem, BuildProducer)}
+     * {@link #generate(WasmQuarkusConfig, OutputTargetBuildItem, LiveReloadBuildItem, BuildProducer)}
      * to collect a list of {@link GeneratedClassBuildItem} referencing the generated {@code .class} files.
      *
      * @param generatedWasmCodeBuildItems The list of {@link GeneratedWasmCodeBuildItem} items that will be used
@@ -253,7 +457,7 @@ class QuarkusWasmProcessor {
 
     /**
      * A build step that consumes the build items generated by
-     * {@link #generate(WasmQuarkusConfig, OutputTargetBuildItem, BuildProducer)}
+     * {@link #generate(WasmQuarkusConfig, OutputTargetBuildItem, LiveReloadBuildItem, BuildProducer)}
      * to collect a list of {@link GeneratedResourceBuildItem} referencing the generated {@code .meta} files.
      *
      * @param generatedWasmCodeBuildItems The list of {@link GeneratedWasmCodeBuildItem} items that will be used
@@ -284,7 +488,7 @@ class QuarkusWasmProcessor {
 
     /**
      * A build step that consumes the build items generated by
-     * {@link #generate(WasmQuarkusConfig, OutputTargetBuildItem, BuildProducer)}
+     * {@link #generate(WasmQuarkusConfig, OutputTargetBuildItem, LiveReloadBuildItem, BuildProducer)}
      * to collect a list of {@link GeneratedResourceBuildItem} referencing the generated {@code .java} files.
      *
      * @param generatedWasmCodeBuildItems The list of {@link GeneratedWasmCodeBuildItem} items that will be used
@@ -309,7 +513,183 @@ class QuarkusWasmProcessor {
     }
 
     /**
-     * Only in dev mode, the configured Wasm modules that define a filesystem path are added to the watched resources.
+     * Resolves the payload of a statically configured Wasm module.
+     *
+     * @param key The key of the Wasm module
+     * @param moduleConfig The configuration of the Wasm module
+     * @param projectBaseDir The base directory for resolving relative file paths
+     * @return The {@link Path} of the Wasm payload, or {@code null} if neither a file nor a resource is configured
+     */
+    static Path resolveWasmFile(final String key, final WasmQuarkusConfig.ModuleConfig moduleConfig,
+            final Path projectBaseDir) {
+        if (moduleConfig.wasmFile().isPresent()) {
+            return moduleConfig.wasmFileAbsolutePath(projectBaseDir);
+        } else if (moduleConfig.wasmResource().isPresent()) {
+            return WasmQuarkusUtils.getWasmPathFromResource(moduleConfig.wasmResource().get());
+        }
+        LOG.info("Neither a resource name nor a file path is defined. Skipping code generation for Wasm module " + key);
+        return null;
+    }
+
+    /**
+     * Returns the {@code .class} files generated for a Wasm module, i.e. the module class, its {@code Machine} class
+     * and the function groups of the latter, and their nested classes, in the package directory of the module. Other
+     * classes, e.g. those of another module whose simple name starts with the same prefix, are never matched, since
+     * the files returned here might be deleted to generate the module again.
+     */
+    private static List<Path> findGeneratedClasses(final Path classesDir, final String name) throws IOException {
+        final Path packageDir = classesDir.toAbsolutePath().resolve(WasmQuarkusUtils.getWasmModuleClassPath(name));
+        LOG.debug("Tracking the generated .class files in " + packageDir);
+        if (!Files.isDirectory(packageDir)) {
+            return new ArrayList<>();
+        }
+        final Pattern generatedClass = Pattern.compile(Pattern.quote(WasmQuarkusUtils.getWasmModuleClassName(name))
+                + "(Machine(FuncGroup_\\d+)?)?(\\$.*)?\\.class");
+        try (Stream<Path> pathStream = Files.list(packageDir)) {
+            ArrayList<Path> files = pathStream
+                    .filter(p -> generatedClass.matcher(p.getFileName().toString()).matches())
+                    .collect(Collectors.toCollection(ArrayList::new));
+            for (Path file : files) {
+                LOG.debug("Tracking the generated .class file: " + file);
+            }
+            return files;
+        }
+    }
+
+    /**
+     * Returns the file generated for a Wasm module in the given directory, whose path is derived from the module name
+     * rather than looked up, so that the files of other modules generated into the same directory are never picked.
+     */
+    private static Path findGeneratedFile(final Path directory, final String name, final String extension) {
+        final Path file = directory.toAbsolutePath()
+                .resolve(WasmQuarkusUtils.getWasmModuleClassPath(name))
+                .resolve(WasmQuarkusUtils.getWasmModuleClassName(name) + extension);
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalStateException(extension + " file of Wasm module " + name + " not found at " + file);
+        }
+        LOG.debug("Tracking the generated " + extension + " file: " + file);
+        return file;
+    }
+
+    /**
+     * Returns the indexes of the functions whose generated method exceeds the given bytecode size.
+     */
+    private static Set<Integer> findHugeFunctions(final List<Path> classes, final int hugeMethodLimit)
+            throws IOException {
+        final Set<Integer> result = new TreeSet<>();
+        for (Path classFile : classes) {
+            for (ClassFileMethods.MethodSize method : ClassFileMethods.read(Files.readAllBytes(classFile))) {
+                if (method.getCodeLength() > hugeMethodLimit) {
+                    final Integer function = ClassFileMethods.functionIndex(method.getName());
+                    if (function != null) {
+                        result.add(function);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the exports of a Wasm module that the extension itself calls, whatever its {@code compiler.exports}
+     * lists: the warmup export, the ABI allocation exports, the batch and stream exports of the configured exports,
+     * {@code _start} when it's run, and the functions imported from the module by the modules linked to it.
+     */
+    private static Set<String> implicitExports(final String key, final WasmQuarkusConfig config,
+            final Path projectBaseDir) {
+        final WasmQuarkusConfig.ModuleConfig moduleConfig = config.modules().get(key);
+        final Set<String> result = new TreeSet<>();
+        moduleConfig.warmup().export().ifPresent(result::add);
+        result.add(moduleConfig.abi().alloc());
+        result.add(moduleConfig.abi().free());
+        for (Map.Entry<String, WasmQuarkusConfig.ModuleConfig.ExportConfig> export : moduleConfig.exports().entrySet()) {
+            final String exportName = export.getKey();
+            final WasmQuarkusConfig.ModuleConfig.ExportConfig.StreamConfig stream = export.getValue().stream();
+            result.add(exportName);
+            export.getValue().batchExport().ifPresent(result::add);
+            result.add(stream.init().orElse(exportName + "_init"));
+            result.add(stream.update().orElse(exportName + "_update"));
+            result.add(stream.finish().orElse(exportName + "_finish"));
+        }
+        if (moduleConfig.wasi().enabled() && moduleConfig.wasi().runStart()) {
+            result.add("_start");
+        }
+        for (Map.Entry<String, WasmQuarkusConfig.ModuleConfig> consumer : config.modules().entrySet()) {
+            final Map<String, String> imports = consumer.getValue().imports();
+            if (!imports.containsValue(key)) {
+                continue;
+            }
+            final Path consumerWasmFile = resolveWasmFile(consumer.getKey(), consumer.getValue(), projectBaseDir);
+            if (consumerWasmFile == null) {
+                continue;
+            }
+            final WasmModule consumerModule = Parser.parse(consumerWasmFile);
+            for (int i = 0; i < consumerModule.importSection().importCount(); i++) {
+                final Import wasmImport = consumerModule.importSection().getImport(i);
+                if (wasmImport.importType() == ExternalType.FUNCTION && key.equals(imports.get(wasmImport.module()))) {
+                    result.add(wasmImport.name());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the fingerprint of the code generated for a Wasm module, i.e. a hash of the payload and of the
+     * configuration affecting the generation.
+     */
+    private static String fingerprint(final Path wasmFile, final WasmQuarkusConfig config,
+            final WasmQuarkusConfig.ModuleConfig moduleConfig, final Set<String> implicitExports) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(Files.readAllBytes(wasmFile));
+        digest.update((moduleConfig.name() + "|" + moduleConfig.compiler().interpreterFallback() + "|"
+                + moduleConfig.compiler().interpretedFunctions().orElse(List.of()) + "|"
+                + moduleConfig.compiler().exports().orElse(List.of()) + "|"
+                + implicitExports + "|"
+                + moduleConfig.compiler().hugeFunctions() + "|"
+                + config.report().hugeMethodLimit() + "|"
+                + moduleConfig.compiler().stripCustomSections() + "|"
+                + moduleConfig.compiler().keepCustomSections().orElse(List.of()) + "|"
+                + moduleConfig.profiler().enabled())
+                .getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * The code generated for each Wasm module by a previous build, which is kept across dev mode restarts.
+     */
+    private static final class GeneratedModules {
+        private final Map<String, String> fingerprints = new HashMap<>();
+        private final Map<String, GeneratedWasmCodeBuildItem> generated = new HashMap<>();
+
+        private GeneratedWasmCodeBuildItem get(final String key, final String fingerprint) {
+            final GeneratedWasmCodeBuildItem previous = generated.get(key);
+            if (previous == null || !fingerprint.equals(fingerprints.get(key))) {
+                return null;
+            }
+            // the generated files could have been cleaned in the meantime
+            if (!Files.exists(previous.getMetaWasm()) || !Files.exists(previous.getJavaSources())
+                    || !previous.getClasses().stream().allMatch(Files::exists)) {
+                return null;
+            }
+            return previous;
+        }
+
+        private void put(final String key, final String fingerprint, final GeneratedWasmCodeBuildItem item) {
+            fingerprints.put(key, fingerprint);
+            generated.put(key, item);
+        }
+    }
+
+    /**
+     * Only in dev mode, the configured Wasm modules are added to the watched resources, either by filesystem path or
+     * by resource name. Since the generated code is reused for the modules that haven't changed, a change only pays for
+     * generating the changed module.
      *
      * @param wasmQuarkusConfig The application configuration, storing all the configured modules.
      * @param outputTarget The build output target providing the base directory for resolving file paths.
@@ -329,6 +709,12 @@ class QuarkusWasmProcessor {
                 wasmFile = moduleConfig.wasmFileAbsolutePath(outputTarget.getOutputDirectory().getParent());
                 LOG.info("Adding " + wasmFile + " to the collection of watched resources (dev mode)");
                 result.add(new HotDeploymentWatchedFileBuildItem(wasmFile.toAbsolutePath().toString()));
+            } else if (moduleConfig.wasmResource().isPresent()) {
+                // watched resources are resolved against the application resource directories
+                final String wasmResource = moduleConfig.wasmResource().get();
+                LOG.info("Adding resource " + wasmResource + " to the collection of watched resources (dev mode)");
+                result.add(new HotDeploymentWatchedFileBuildItem(
+                        wasmResource.startsWith("/") ? wasmResource.substring(1) : wasmResource));
             }
         }
         return result;
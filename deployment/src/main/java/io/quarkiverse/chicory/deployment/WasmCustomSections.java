@@ -0,0 +1,72 @@
+package io.quarkiverse.chicory.deployment;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Strips the custom sections of a Wasm binary, e.g. the {@code name} section and DWARF debug information, which aren't
+ * needed to execute it. The other sections are copied as is.
+ */
+final class WasmCustomSections {
+    private static final int HEADER_SIZE = 8;
+    private static final int CUSTOM_SECTION_ID = 0;
+
+    private WasmCustomSections() {
+    }
+
+    /**
+     * Returns a copy of the given Wasm binary without its custom sections, except the ones to keep.
+     *
+     * @param wasm The Wasm binary
+     * @param keep The names of the custom sections to keep
+     * @return The stripped Wasm binary
+     */
+    static byte[] strip(final byte[] wasm, final Set<String> keep) {
+        if (wasm.length < HEADER_SIZE || wasm[0] != 0 || wasm[1] != 'a' || wasm[2] != 's' || wasm[3] != 'm') {
+            throw new IllegalArgumentException("Not a Wasm binary");
+        }
+        final ByteArrayOutputStream result = new ByteArrayOutputStream(wasm.length);
+        result.write(wasm, 0, HEADER_SIZE);
+        int offset = HEADER_SIZE;
+        while (offset < wasm.length) {
+            final int sectionStart = offset;
+            final int id = wasm[offset++] & 0xFF;
+            final long[] size = readUnsignedLeb128(wasm, offset);
+            offset = (int) size[1];
+            final int payloadEnd = offset + (int) size[0];
+            if (payloadEnd > wasm.length) {
+                throw new IllegalArgumentException("Truncated Wasm section " + id + " at offset " + sectionStart);
+            }
+            boolean copy = true;
+            if (id == CUSTOM_SECTION_ID) {
+                final long[] nameLength = readUnsignedLeb128(wasm, offset);
+                final String name = new String(wasm, (int) nameLength[1], (int) nameLength[0], StandardCharsets.UTF_8);
+                copy = keep.contains(name);
+            }
+            if (copy) {
+                result.write(wasm, sectionStart, payloadEnd - sectionStart);
+            }
+            offset = payloadEnd;
+        }
+        return result.toByteArray();
+    }
+
+    /**
+     * Reads an unsigned LEB128 integer.
+     *
+     * @return The value, and the offset following it
+     */
+    private static long[] readUnsignedLeb128(final byte[] bytes, final int start) {
+        long value = 0;
+        int shift = 0;
+        int offset = start;
+        byte b;
+        do {
+            b = bytes[offset++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return new long[] { value, offset };
+    }
+}
@@ -0,0 +1,64 @@
+package io.quarkiverse.chicory.deployment;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import io.quarkiverse.chicory.deployment.items.GeneratedWasmCodeBuildItem;
+import io.quarkiverse.chicory.runtime.WasmQuarkusConfig;
+import io.quarkiverse.chicory.runtime.devui.WasmDevUIJsonRPCService;
+import io.quarkus.deployment.IsDevelopment;
+import io.quarkus.deployment.annotations.BuildStep;
+import io.quarkus.devui.spi.JsonRPCProvidersBuildItem;
+import io.quarkus.devui.spi.page.CardPageBuildItem;
+import io.quarkus.devui.spi.page.Page;
+
+/**
+ * The Quarkus Chicory deployment processor that adds a Dev UI card, showing the execution mode and the performance
+ * statistics of each configured Wasm module, along with the functions that the build time compiler left to the
+ * interpreter, and allowing to switch the execution mode live.
+ */
+class WasmDevUIProcessor {
+
+    /**
+     * Creates the Dev UI card, whose build time data is the list of functions left to the interpreter by each module.
+     *
+     * @param config The application configuration, storing all the configured modules.
+     * @param generatedWasmCodeBuildItems The code generated for each module
+     * @return The {@link CardPageBuildItem} of the extension
+     */
+    @BuildStep(onlyIf = IsDevelopment.class)
+    CardPageBuildItem createCard(WasmQuarkusConfig config, List<GeneratedWasmCodeBuildItem> generatedWasmCodeBuildItems) {
+        final Map<String, List<Integer>> interpretedFunctions = new LinkedHashMap<>();
+        for (Map.Entry<String, WasmQuarkusConfig.ModuleConfig> moduleConfigEntry : config.modules().entrySet()) {
+            final String name = moduleConfigEntry.getValue().name();
+            for (GeneratedWasmCodeBuildItem generated : generatedWasmCodeBuildItems) {
+                if (generated.getName().equals(name)) {
+                    interpretedFunctions.put(moduleConfigEntry.getKey(),
+                            new ArrayList<>(new TreeSet<>(generated.getInterpretedFunctions())));
+                }
+            }
+        }
+
+        final CardPageBuildItem card = new CardPageBuildItem();
+        card.addBuildTimeData("interpretedFunctions", interpretedFunctions);
+        card.addPage(Page.webComponentPageBuilder()
+                .title("Wasm Modules")
+                .icon("font-awesome-solid:microchip")
+                .componentLink("qwc-chicory-modules.js")
+                .staticLabel(String.valueOf(config.modules().size())));
+        return card;
+    }
+
+    /**
+     * Registers the JSON-RPC service the Dev UI card gets the statistics from.
+     *
+     * @return The {@link JsonRPCProvidersBuildItem} referencing the {@link WasmDevUIJsonRPCService}
+     */
+    @BuildStep(onlyIf = IsDevelopment.class)
+    JsonRPCProvidersBuildItem createJsonRPCService() {
+        return new JsonRPCProvidersBuildItem(WasmDevUIJsonRPCService.class);
+    }
+}
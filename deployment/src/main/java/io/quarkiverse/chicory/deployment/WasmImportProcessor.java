@@ -0,0 +1,292 @@
+package io.quarkiverse.chicory.deployment;
+
+import java.lang.reflect.Modifier;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.AnnotationTarget;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.MethodInfo;
+import org.jboss.jandex.Type;
+import org.jboss.logging.Logger;
+
+import com.dylibso.chicory.runtime.Instance;
+import com.dylibso.chicory.runtime.WasmFunctionHandle;
+import com.dylibso.chicory.wasm.Parser;
+import com.dylibso.chicory.wasm.WasmModule;
+import com.dylibso.chicory.wasm.types.ExternalType;
+import com.dylibso.chicory.wasm.types.FunctionImport;
+import com.dylibso.chicory.wasm.types.FunctionType;
+import com.dylibso.chicory.wasm.types.Import;
+import com.dylibso.chicory.wasm.types.ValType;
+
+import io.quarkiverse.chicory.deployment.items.WasmHostFunctionBuildItem;
+import io.quarkiverse.chicory.runtime.WasmQuarkusConfig;
+import io.quarkiverse.chicory.runtime.wasm.WasmImport;
+import io.quarkiverse.chicory.runtime.wasm.WasmImportBeans;
+import io.quarkiverse.chicory.runtime.wasm.WasmValues;
+import io.quarkus.arc.deployment.AdditionalBeanBuildItem;
+import io.quarkus.deployment.GeneratedClassGizmoAdaptor;
+import io.quarkus.deployment.annotations.BuildProducer;
+import io.quarkus.deployment.annotations.BuildStep;
+import io.quarkus.deployment.builditem.CombinedIndexBuildItem;
+import io.quarkus.deployment.builditem.GeneratedClassBuildItem;
+import io.quarkus.deployment.pkg.builditem.OutputTargetBuildItem;
+import io.quarkus.gizmo.ClassCreator;
+import io.quarkus.gizmo.FieldDescriptor;
+import io.quarkus.gizmo.MethodCreator;
+import io.quarkus.gizmo.MethodDescriptor;
+import io.quarkus.gizmo.ResultHandle;
+
+/**
+ * The Quarkus Chicory deployment processor that binds {@link WasmImport} annotated CDI bean methods to the functions
+ * imported by the configured Wasm modules.
+ * <p>
+ * Annotated methods are discovered through Jandex, and their signatures are validated against the import section of
+ * each statically configured Wasm module, so that a mismatch fails the build rather than the instantiation at runtime.
+ * For each method, a {@link WasmFunctionHandle} implementation is generated, which converts the Wasm values and calls
+ * the method directly, without reflection, along with a {@link Supplier} of this handle, which the recorder
+ * instantiates directly too.
+ * </p>
+ */
+class WasmImportProcessor {
+
+    private static final Logger LOG = Logger.getLogger(WasmImportProcessor.class);
+    private static final DotName WASM_IMPORT = DotName.createSimple(WasmImport.class.getName());
+    private static final DotName INSTANCE = DotName.createSimple(Instance.class.getName());
+    private static final String HANDLE_SUFFIX = "_WasmImportHandle_";
+    private static final String FACTORY_SUFFIX = "_Factory";
+
+    /**
+     * Discovers the {@link WasmImport} annotated methods, validates them against the configured Wasm modules, and
+     * generates the related {@link WasmFunctionHandle} classes.
+     *
+     * @param combinedIndex The index of the application classes
+     * @param config The application configuration, storing all the configured modules.
+     * @param outputTarget The build output target providing the base directory for resolving file paths.
+     * @param generatedClasses The producer of the generated {@link WasmFunctionHandle} classes
+     * @param additionalBeans The producer that makes the declaring classes unremovable beans
+     * @param hostFunctions The producer of the bindings between imported functions and generated classes
+     */
+    @BuildStep
+    void generateHostFunctions(CombinedIndexBuildItem combinedIndex,
+            WasmQuarkusConfig config,
+            OutputTargetBuildItem outputTarget,
+            BuildProducer<GeneratedClassBuildItem> generatedClasses,
+            BuildProducer<AdditionalBeanBuildItem> additionalBeans,
+            BuildProducer<WasmHostFunctionBuildItem> hostFunctions) {
+
+        final Map<String, MethodInfo> methods = new HashMap<>();
+        for (AnnotationInstance annotation : combinedIndex.getIndex().getAnnotations(WASM_IMPORT)) {
+            if (annotation.target().kind() != AnnotationTarget.Kind.METHOD) {
+                continue;
+            }
+            final MethodInfo method = annotation.target().asMethod();
+            final String importKey = annotation.value("module").asString() + "." + annotation.value("name").asString();
+            final MethodInfo duplicate = methods.put(importKey, method);
+            if (duplicate != null) {
+                throw new IllegalStateException("@WasmImport " + importKey + " is implemented by both "
+                        + duplicate.declaringClass().name() + "#" + duplicate.name() + " and "
+                        + method.declaringClass().name() + "#" + method.name());
+            }
+        }
+        if (methods.isEmpty()) {
+            return;
+        }
+
+        // generate the glue code once per method, whatever the number of modules importing it
+        final Map<String, String> handleFactoryClassNames = new HashMap<>();
+        for (Map.Entry<String, MethodInfo> entry : methods.entrySet()) {
+            final MethodInfo method = entry.getValue();
+            validateMethod(entry.getKey(), method);
+            final String handleClassName = method.declaringClass().name().toString() + HANDLE_SUFFIX
+                    + entry.getKey().replaceAll("[^A-Za-z0-9]", "_");
+            generateHandle(handleClassName, method, generatedClasses);
+            generateHandleFactory(handleClassName + FACTORY_SUFFIX, handleClassName, generatedClasses);
+            handleFactoryClassNames.put(entry.getKey(), handleClassName + FACTORY_SUFFIX);
+            if (!Modifier.isStatic(method.flags())) {
+                additionalBeans.produce(AdditionalBeanBuildItem.unremovableOf(method.declaringClass().name().toString()));
+            }
+        }
+
+        for (Map.Entry<String, WasmQuarkusConfig.ModuleConfig> moduleConfigEntry : config.modules().entrySet()) {
+            final String key = moduleConfigEntry.getKey();
+            final Path wasmFile = QuarkusWasmProcessor.resolveWasmFile(key, moduleConfigEntry.getValue(),
+                    outputTarget.getOutputDirectory().getParent());
+            if (wasmFile == null) {
+                continue;
+            }
+            final WasmModule wasmModule = Parser.parse(wasmFile);
+            for (int i = 0; i < wasmModule.importSection().importCount(); i++) {
+                final Import wasmImport = wasmModule.importSection().getImport(i);
+                final String importKey = wasmImport.module() + "." + wasmImport.name();
+                final MethodInfo method = methods.get(importKey);
+                if (method == null || wasmImport.importType() != ExternalType.FUNCTION
+                        || moduleConfigEntry.getValue().imports().containsKey(wasmImport.module())) {
+                    continue;
+                }
+                final FunctionType expected = wasmModule.typeSection()
+                        .getType(((FunctionImport) wasmImport).typeIndex());
+                final List<String> params = wasmParams(method);
+                final List<String> results = wasmResults(method);
+                if (!toNames(expected.params()).equals(params) || !toNames(expected.returns()).equals(results)) {
+                    throw new IllegalStateException("Wasm module " + key + " imports " + importKey + " as "
+                            + toNames(expected.params()) + " -> " + toNames(expected.returns()) + ", but @WasmImport "
+                            + method.declaringClass().name() + "#" + method.name() + " is " + params + " -> " + results);
+                }
+                LOG.info("Binding " + importKey + " imported by Wasm module " + key + " to "
+                        + method.declaringClass().name() + "#" + method.name());
+                hostFunctions.produce(new WasmHostFunctionBuildItem(key, wasmImport.module(), wasmImport.name(), params,
+                        results, handleFactoryClassNames.get(importKey)));
+            }
+        }
+    }
+
+    private static void validateMethod(final String importKey, final MethodInfo method) {
+        if (Modifier.isPrivate(method.flags())) {
+            throw new IllegalStateException("@WasmImport " + importKey + " method " + method.declaringClass().name() + "#"
+                    + method.name() + " must not be private");
+        }
+        if (Modifier.isInterface(method.declaringClass().flags())) {
+            throw new IllegalStateException("@WasmImport " + importKey + " method " + method.declaringClass().name() + "#"
+                    + method.name() + " must be declared by a class");
+        }
+        // fails on unsupported types
+        wasmParams(method);
+        wasmResults(method);
+    }
+
+    private static void generateHandle(final String handleClassName, final MethodInfo method,
+            final BuildProducer<GeneratedClassBuildItem> generatedClasses) {
+        final boolean isStatic = Modifier.isStatic(method.flags());
+        final String beanClassName = method.declaringClass().name().toString();
+        try (ClassCreator creator = ClassCreator.builder()
+                .classOutput(new GeneratedClassGizmoAdaptor(generatedClasses, true))
+                .className(handleClassName)
+                .interfaces(WasmFunctionHandle.class)
+                .build()) {
+
+            final FieldDescriptor beanField = FieldDescriptor.of(handleClassName, "bean", beanClassName);
+            if (!isStatic) {
+                creator.getFieldCreator(beanField).setModifiers(Modifier.PRIVATE | Modifier.FINAL);
+            }
+
+            // the bean is resolved once, when the host function is created, whatever the qualifiers it declares
+            final MethodCreator constructor = creator.getMethodCreator("<init>", void.class);
+            constructor.invokeSpecialMethod(MethodDescriptor.ofConstructor(Object.class), constructor.getThis());
+            if (!isStatic) {
+                final ResultHandle bean = constructor.invokeStaticMethod(
+                        MethodDescriptor.ofMethod(WasmImportBeans.class, "lookup", Object.class, Class.class),
+                        constructor.loadClass(beanClassName));
+                constructor.writeInstanceField(beanField, constructor.getThis(),
+                        constructor.checkCast(bean, beanClassName));
+            }
+            constructor.returnValue(null);
+
+            final MethodCreator apply = creator.getMethodCreator("apply", long[].class, Instance.class, long[].class);
+            final ResultHandle args = apply.getMethodParam(1);
+            final List<ResultHandle> callArgs = new ArrayList<>();
+            int wasmArg = 0;
+            for (Type parameter : method.parameterTypes()) {
+                if (parameter.name().equals(INSTANCE)) {
+                    callArgs.add(apply.getMethodParam(0));
+                    continue;
+                }
+                final String conversion = "to" + Character.toUpperCase(parameter.name().toString().charAt(0))
+                        + parameter.name().toString().substring(1);
+                callArgs.add(apply.invokeStaticMethod(
+                        MethodDescriptor.ofMethod(WasmValues.class, conversion, parameter.name().toString(), long.class),
+                        apply.readArrayValue(args, wasmArg++)));
+            }
+            final ResultHandle[] callArgsArray = callArgs.toArray(new ResultHandle[0]);
+            final ResultHandle result = isStatic
+                    ? apply.invokeStaticMethod(MethodDescriptor.of(method), callArgsArray)
+                    : apply.invokeVirtualMethod(MethodDescriptor.of(method),
+                            apply.readInstanceField(beanField, apply.getThis()), callArgsArray);
+            if (method.returnType().kind() == Type.Kind.VOID) {
+                apply.returnValue(apply.invokeStaticMethod(
+                        MethodDescriptor.ofMethod(WasmValues.class, "empty", long[].class)));
+            } else {
+                apply.returnValue(apply.invokeStaticMethod(
+                        MethodDescriptor.ofMethod(WasmValues.class, "of", long[].class,
+                                method.returnType().name().toString()),
+                        result));
+            }
+        }
+    }
+
+    private static void generateHandleFactory(final String factoryClassName, final String handleClassName,
+            final BuildProducer<GeneratedClassBuildItem> generatedClasses) {
+        try (ClassCreator creator = ClassCreator.builder()
+                .classOutput(new GeneratedClassGizmoAdaptor(generatedClasses, true))
+                .className(factoryClassName)
+                .interfaces(Supplier.class)
+                .build()) {
+            // a handle per instance, as a dependent bean is resolved for each handle
+            final MethodCreator get = creator.getMethodCreator("get", Object.class);
+            get.returnValue(get.newInstance(MethodDescriptor.ofConstructor(handleClassName)));
+        }
+    }
+
+    private static List<String> wasmParams(final MethodInfo method) {
+        final List<String> params = new ArrayList<>();
+        for (int i = 0; i < method.parametersCount(); i++) {
+            final Type parameter = method.parameterType(i);
+            if (i == 0 && parameter.name().equals(INSTANCE)) {
+                continue;
+            }
+            params.add(wasmType(method, parameter));
+        }
+        return params;
+    }
+
+    private static List<String> wasmResults(final MethodInfo method) {
+        if (method.returnType().kind() == Type.Kind.VOID) {
+            return List.of();
+        }
+        return List.of(wasmType(method, method.returnType()));
+    }
+
+    private static String wasmType(final MethodInfo method, final Type type) {
+        if (type.kind() == Type.Kind.PRIMITIVE) {
+            switch (type.asPrimitiveType().primitive()) {
+                case INT:
+                    return "i32";
+                case LONG:
+                    return "i64";
+                case FLOAT:
+                    return "f32";
+                case DOUBLE:
+                    return "f64";
+                default:
+                    break;
+            }
+        }
+        throw new IllegalStateException("Unsupported type " + type + " in @WasmImport method "
+                + method.declaringClass().name() + "#" + method.name()
+                + ", only int, long, float and double are supported");
+    }
+
+    private static List<String> toNames(final List<ValType> types) {
+        final List<String> names = new ArrayList<>();
+        for (ValType type : types) {
+            if (type.equals(ValType.I32)) {
+                names.add("i32");
+            } else if (type.equals(ValType.I64)) {
+                names.add("i64");
+            } else if (type.equals(ValType.F32)) {
+                names.add("f32");
+            } else if (type.equals(ValType.F64)) {
+                names.add("f64");
+            } else {
+                names.add(type.toString());
+            }
+        }
+        return names;
+    }
+}
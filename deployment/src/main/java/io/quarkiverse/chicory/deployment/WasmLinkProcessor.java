@@ -0,0 +1,155 @@
+package io.quarkiverse.chicory.deployment;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.logging.Logger;
+
+import com.dylibso.chicory.wasm.Parser;
+import com.dylibso.chicory.wasm.WasmModule;
+import com.dylibso.chicory.wasm.types.Export;
+import com.dylibso.chicory.wasm.types.ExternalType;
+import com.dylibso.chicory.wasm.types.FunctionImport;
+import com.dylibso.chicory.wasm.types.FunctionType;
+import com.dylibso.chicory.wasm.types.Import;
+
+import io.quarkiverse.chicory.deployment.items.WasmLinkedImportBuildItem;
+import io.quarkiverse.chicory.runtime.WasmQuarkusConfig;
+import io.quarkus.deployment.annotations.BuildProducer;
+import io.quarkus.deployment.annotations.BuildStep;
+import io.quarkus.deployment.pkg.builditem.OutputTargetBuildItem;
+
+/**
+ * The Quarkus Chicory deployment processor that links the functions imported by a configured Wasm module to the
+ * functions exported by other configured Wasm modules, as declared via
+ * {@code quarkus.chicory.modules.<module-key>.imports.<import-module>=<other-module-key>}.
+ * <p>
+ * Links are resolved at build time: the exporting module must be statically configured, it must export a function
+ * with the imported name and signature, and modules must not import from each other cyclically, otherwise the build
+ * fails. At runtime each imported function is bound to the resolved export of a dedicated instance of the exporting
+ * module, so that cross-module calls don't go through a generic host function lookup.
+ * </p>
+ */
+class WasmLinkProcessor {
+
+    private static final Logger LOG = Logger.getLogger(WasmLinkProcessor.class);
+
+    /**
+     * Resolves and validates the configured links between Wasm modules.
+     *
+     * @param config The application configuration, storing all the configured modules.
+     * @param outputTarget The build output target providing the base directory for resolving file paths.
+     * @param linkedImports The producer of the links between imported and exported functions
+     */
+    @BuildStep
+    void linkModules(WasmQuarkusConfig config, OutputTargetBuildItem outputTarget,
+            BuildProducer<WasmLinkedImportBuildItem> linkedImports) {
+        if (config.modules().values().stream().allMatch(m -> m.imports().isEmpty())) {
+            return;
+        }
+        checkCycles(config);
+
+        final Path projectBaseDir = outputTarget.getOutputDirectory().getParent();
+        final Map<String, WasmModule> parsedModules = new HashMap<>();
+        for (Map.Entry<String, WasmQuarkusConfig.ModuleConfig> moduleConfigEntry : config.modules().entrySet()) {
+            final String key = moduleConfigEntry.getKey();
+            final Map<String, String> imports = moduleConfigEntry.getValue().imports();
+            if (imports.isEmpty()) {
+                continue;
+            }
+            final WasmModule wasmModule = parse(key, config, projectBaseDir, parsedModules);
+            for (int i = 0; i < wasmModule.importSection().importCount(); i++) {
+                final Import wasmImport = wasmModule.importSection().getImport(i);
+                final String providerKey = imports.get(wasmImport.module());
+                if (providerKey == null) {
+                    continue;
+                }
+                if (wasmImport.importType() != ExternalType.FUNCTION) {
+                    throw new IllegalStateException("Wasm module " + key + " imports " + wasmImport.importType() + " "
+                            + wasmImport.module() + "." + wasmImport.name() + " from Wasm module " + providerKey
+                            + ", but only functions can be linked");
+                }
+                final FunctionType expected = wasmModule.typeSection()
+                        .getType(((FunctionImport) wasmImport).typeIndex());
+                final FunctionType actual = exportedFunctionType(
+                        parse(providerKey, config, projectBaseDir, parsedModules), wasmImport.name());
+                if (actual == null) {
+                    throw new IllegalStateException("Wasm module " + key + " imports " + wasmImport.module() + "."
+                            + wasmImport.name() + ", but Wasm module " + providerKey + " doesn't export a function named "
+                            + wasmImport.name());
+                }
+                if (!actual.equals(expected)) {
+                    throw new IllegalStateException("Wasm module " + key + " imports " + wasmImport.module() + "."
+                            + wasmImport.name() + " as " + expected + ", but Wasm module " + providerKey
+                            + " exports it as " + actual);
+                }
+                LOG.info("Linking " + wasmImport.module() + "." + wasmImport.name() + " imported by Wasm module " + key
+                        + " to the function exported by Wasm module " + providerKey);
+                linkedImports.produce(
+                        new WasmLinkedImportBuildItem(key, wasmImport.module(), wasmImport.name(), providerKey));
+            }
+        }
+    }
+
+    private static void checkCycles(final WasmQuarkusConfig config) {
+        for (String key : config.modules().keySet()) {
+            final Deque<String> pending = new ArrayDeque<>(config.modules().get(key).imports().values());
+            final Set<String> visited = new HashSet<>();
+            while (!pending.isEmpty()) {
+                final String providerKey = pending.pop();
+                if (providerKey.equals(key)) {
+                    throw new IllegalStateException("Wasm module " + key + " transitively imports functions from itself");
+                }
+                final WasmQuarkusConfig.ModuleConfig providerConfig = config.modules().get(providerKey);
+                if (providerConfig == null) {
+                    throw new IllegalStateException("Wasm module " + key + " links to Wasm module " + providerKey
+                            + ", which is not configured");
+                }
+                if (visited.add(providerKey)) {
+                    pending.addAll(providerConfig.imports().values());
+                }
+            }
+        }
+    }
+
+    private static WasmModule parse(final String key, final WasmQuarkusConfig config, final Path projectBaseDir,
+            final Map<String, WasmModule> parsedModules) {
+        return parsedModules.computeIfAbsent(key, k -> {
+            final Path wasmFile = QuarkusWasmProcessor.resolveWasmFile(k, config.modules().get(k), projectBaseDir);
+            if (wasmFile == null) {
+                throw new IllegalStateException("Wasm module " + k + " is linked, but no payload is configured for it");
+            }
+            return Parser.parse(wasmFile);
+        });
+    }
+
+    private static FunctionType exportedFunctionType(final WasmModule wasmModule, final String name) {
+        for (int i = 0; i < wasmModule.exportSection().exportCount(); i++) {
+            final Export export = wasmModule.exportSection().getExport(i);
+            if (export.exportType() != ExternalType.FUNCTION || !export.name().equals(name)) {
+                continue;
+            }
+            // the function index space starts with the imported functions
+            final List<FunctionImport> importedFunctions = new ArrayList<>();
+            for (int j = 0; j < wasmModule.importSection().importCount(); j++) {
+                final Import wasmImport = wasmModule.importSection().getImport(j);
+                if (wasmImport.importType() == ExternalType.FUNCTION) {
+                    importedFunctions.add((FunctionImport) wasmImport);
+                }
+            }
+            final int index = (int) export.index();
+            final int typeIndex = index < importedFunctions.size()
+                    ? importedFunctions.get(index).typeIndex()
+                    : wasmModule.functionSection().getFunctionType(index - importedFunctions.size());
+            return wasmModule.typeSection().getType(typeIndex);
+        }
+        return null;
+    }
+}
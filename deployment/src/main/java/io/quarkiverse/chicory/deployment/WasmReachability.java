@@ -0,0 +1,123 @@
+package io.quarkiverse.chicory.deployment;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.dylibso.chicory.wasm.WasmModule;
+import com.dylibso.chicory.wasm.types.Element;
+import com.dylibso.chicory.wasm.types.Export;
+import com.dylibso.chicory.wasm.types.ExternalType;
+import com.dylibso.chicory.wasm.types.Instruction;
+import com.dylibso.chicory.wasm.types.OpCode;
+
+/**
+ * Computes the functions of a Wasm module that cannot be reached from a set of exported functions.
+ * <p>
+ * The roots are the listed exports, the exports called by the extension itself, the start function, and every function
+ * referenced by an element segment or a global initializer, since such functions can be called indirectly through a
+ * table; the call graph is then walked through the direct calls and function references of each reachable function
+ * body.
+ * </p>
+ */
+final class WasmReachability {
+
+    private WasmReachability() {
+    }
+
+    /**
+     * Returns the indexes of the functions defined by the module, in the function index space (i.e. imported
+     * functions first), that cannot be reached from the given exports.
+     *
+     * @param key The key of the Wasm module
+     * @param wasmModule The parsed Wasm module
+     * @param exports The exports used by the application, each of which must be exported by the module
+     * @param implicitExports The exports called by the extension itself, which are skipped when the module doesn't
+     *        export them
+     */
+    static Set<Integer> unreachableFunctions(final String key, final WasmModule wasmModule, final List<String> exports,
+            final Set<String> implicitExports) {
+        int importedFunctions = 0;
+        for (int i = 0; i < wasmModule.importSection().importCount(); i++) {
+            if (wasmModule.importSection().getImport(i).importType() == ExternalType.FUNCTION) {
+                importedFunctions++;
+            }
+        }
+        final int functionCount = importedFunctions + wasmModule.functionSection().functionCount();
+        final BitSet reachable = new BitSet(functionCount);
+        final Deque<Integer> pending = new ArrayDeque<>();
+
+        for (String exportName : exports) {
+            final Export export = findFunctionExport(wasmModule, exportName);
+            if (export == null) {
+                throw new IllegalStateException("Wasm module " + key + " doesn't export a function named " + exportName
+                        + ", as listed in quarkus.chicory.modules." + key + ".compiler.exports");
+            }
+            mark((int) export.index(), reachable, pending);
+        }
+        for (String exportName : implicitExports) {
+            final Export export = findFunctionExport(wasmModule, exportName);
+            if (export != null) {
+                mark((int) export.index(), reachable, pending);
+            }
+        }
+        wasmModule.startSection().ifPresent(start -> mark((int) start.startIndex(), reachable, pending));
+        for (int i = 0; i < wasmModule.elementSection().elementCount(); i++) {
+            final Element element = wasmModule.elementSection().getElement(i);
+            for (List<Instruction> initializer : element.initializers()) {
+                markReferences(initializer, reachable, pending);
+            }
+        }
+        for (int i = 0; i < wasmModule.globalSection().globalCount(); i++) {
+            markReferences(wasmModule.globalSection().getGlobal(i).initInstructions(), reachable, pending);
+        }
+
+        while (!pending.isEmpty()) {
+            final int function = pending.pop();
+            // imported functions have no body
+            if (function < importedFunctions) {
+                continue;
+            }
+            markReferences(wasmModule.codeSection().getFunctionBody(function - importedFunctions).instructions(),
+                    reachable, pending);
+        }
+
+        final Set<Integer> result = new TreeSet<>();
+        for (int function = importedFunctions; function < functionCount; function++) {
+            if (!reachable.get(function)) {
+                result.add(function);
+            }
+        }
+        return result;
+    }
+
+    private static Export findFunctionExport(final WasmModule wasmModule, final String name) {
+        for (int i = 0; i < wasmModule.exportSection().exportCount(); i++) {
+            final Export export = wasmModule.exportSection().getExport(i);
+            if (export.exportType() == ExternalType.FUNCTION && export.name().equals(name)) {
+                return export;
+            }
+        }
+        return null;
+    }
+
+    private static void markReferences(final List<? extends Instruction> instructions, final BitSet reachable,
+            final Deque<Integer> pending) {
+        for (Instruction instruction : instructions) {
+            final OpCode opcode = instruction.opcode();
+            if (opcode == OpCode.CALL || opcode == OpCode.RETURN_CALL || opcode == OpCode.REF_FUNC) {
+                mark((int) instruction.operand(0), reachable, pending);
+            }
+        }
+    }
+
+    private static void mark(final int function, final BitSet reachable, final Deque<Integer> pending) {
+        if (!reachable.get(function)) {
+            reachable.set(function);
+            pending.push(function);
+        }
+    }
+}
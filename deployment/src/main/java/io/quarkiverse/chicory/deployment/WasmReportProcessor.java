@@ -0,0 +1,243 @@
+package io.quarkiverse.chicory.deployment;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.jboss.logging.Logger;
+
+import io.quarkiverse.chicory.deployment.items.GeneratedWasmCodeBuildItem;
+import io.quarkiverse.chicory.runtime.WasmQuarkusConfig;
+import io.quarkiverse.chicory.runtime.wasm.BudgetAction;
+import io.quarkus.deployment.annotations.BuildStep;
+import io.quarkus.deployment.annotations.Produce;
+import io.quarkus.deployment.builditem.ServiceStartBuildItem;
+import io.quarkus.deployment.pkg.builditem.OutputTargetBuildItem;
+
+/**
+ * The Quarkus Chicory deployment processor that writes the compilation report of the configured Wasm modules, and
+ * checks the generated code against the budgets configured via
+ * {@code quarkus.chicory.modules.<module-key>.compiler.budget}.
+ * <p>
+ * The report lists, for each module, the generation time, the number and size of the generated classes, the functions
+ * left to the interpreter, either configured, unreachable from the exports used by the application, or because the
+ * compiler fell back to the interpreter or because their generated method was too large, and the generated methods
+ * whose bytecode exceeds the huge method limit, which the JVM never JIT compiles. It's written as
+ * {@code chicory-report.json} and {@code chicory-report.html} in the build output directory, by every build, including
+ * the dev and test mode ones, so that budgets are checked as early as possible.
+ * </p>
+ */
+class WasmReportProcessor {
+
+    private static final Logger LOG = Logger.getLogger(WasmReportProcessor.class);
+
+    /**
+     * Writes the compilation report, and checks the budgets. The step runs whenever the application starts, rather than
+     * only when it's packaged, so that the dev and test mode builds check the budgets too.
+     *
+     * @param config The application configuration, storing all the configured modules.
+     * @param outputTarget The build output target providing the directory where the report is written.
+     * @param generatedWasmCodeBuildItems The code generated for each module
+     * @throws IOException If the generated classes cannot be read, or the report cannot be written
+     */
+    @BuildStep
+    @Produce(ServiceStartBuildItem.class)
+    void writeReport(WasmQuarkusConfig config, OutputTargetBuildItem outputTarget,
+            List<GeneratedWasmCodeBuildItem> generatedWasmCodeBuildItems) throws IOException {
+        if (generatedWasmCodeBuildItems.isEmpty()) {
+            return;
+        }
+        final List<ModuleReport> reports = new ArrayList<>();
+        for (Map.Entry<String, WasmQuarkusConfig.ModuleConfig> moduleConfigEntry : config.modules().entrySet()) {
+            for (GeneratedWasmCodeBuildItem generated : generatedWasmCodeBuildItems) {
+                if (generated.getName().equals(moduleConfigEntry.getValue().name())) {
+                    final ModuleReport report = analyze(moduleConfigEntry.getKey(), moduleConfigEntry.getValue(),
+                            generated, config.report().hugeMethodLimit());
+                    reports.add(report);
+                    checkBudgets(report, moduleConfigEntry.getValue().compiler().budget());
+                }
+            }
+        }
+        if (config.report().enabled()) {
+            final Path jsonReport = outputTarget.getOutputDirectory().resolve("chicory-report.json");
+            Files.writeString(jsonReport, toJson(reports, config.report().hugeMethodLimit()));
+            Files.writeString(outputTarget.getOutputDirectory().resolve("chicory-report.html"),
+                    toHtml(reports, config.report().hugeMethodLimit()));
+            LOG.info("Wrote the Wasm compilation report to " + jsonReport);
+        }
+    }
+
+    private static ModuleReport analyze(final String key, final WasmQuarkusConfig.ModuleConfig moduleConfig,
+            final GeneratedWasmCodeBuildItem generated, final int hugeMethodLimit) throws IOException {
+        final ModuleReport report = new ModuleReport(key, generated.getName(), generated.getGenerationMillis());
+        for (Path classFile : generated.getClasses()) {
+            final byte[] bytes = Files.readAllBytes(classFile);
+            report.classCount++;
+            report.classBytes += bytes.length;
+            final String className = classFile.getFileName().toString().replace(".class", "");
+            for (ClassFileMethods.MethodSize method : ClassFileMethods.read(bytes)) {
+                if (method.getCodeLength() > hugeMethodLimit) {
+                    report.hugeMethods.add(new HugeMethod(className, method.getName(),
+                            ClassFileMethods.functionIndex(method.getName()), method.getCodeLength()));
+                }
+            }
+        }
+        final Set<Integer> configured = new TreeSet<>(moduleConfig.compiler().interpretedFunctions().orElse(List.of()));
+        for (Integer function : new TreeSet<>(generated.getInterpretedFunctions())) {
+            if (generated.getUnreachableFunctions().contains(function)) {
+                report.unreachableFunctions.add(function);
+            } else if (generated.getHugeFunctions().contains(function)) {
+                report.hugeInterpretedFunctions.add(function);
+            } else if (configured.contains(function)) {
+                report.configuredInterpretedFunctions.add(function);
+            } else {
+                report.fallbackInterpretedFunctions.add(function);
+            }
+        }
+        return report;
+    }
+
+    private static void checkBudgets(final ModuleReport report,
+            final WasmQuarkusConfig.ModuleConfig.CompilerConfig.BudgetConfig budget) {
+        final List<String> violations = new ArrayList<>();
+        final int interpreted = report.configuredInterpretedFunctions.size() + report.fallbackInterpretedFunctions.size()
+                + report.hugeInterpretedFunctions.size();
+        if (budget.maxInterpretedFunctions().isPresent() && interpreted > budget.maxInterpretedFunctions().get()) {
+            violations.add(interpreted + " functions are left to the interpreter, the budget is "
+                    + budget.maxInterpretedFunctions().get());
+        }
+        if (budget.maxGeneratedBytes().isPresent() && report.classBytes > budget.maxGeneratedBytes().get()) {
+            violations.add(report.classBytes + " bytes of classes are generated, the budget is "
+                    + budget.maxGeneratedBytes().get());
+        }
+        if (budget.maxHugeMethods().isPresent() && report.hugeMethods.size() > budget.maxHugeMethods().get()) {
+            violations.add(report.hugeMethods.size() + " generated methods won't be JIT compiled, the budget is "
+                    + budget.maxHugeMethods().get());
+        }
+        if (violations.isEmpty()) {
+            return;
+        }
+        final String message = "Wasm module " + report.key + " exceeds its compilation budget: "
+                + String.join("; ", violations);
+        if (budget.action() == BudgetAction.FAIL) {
+            throw new IllegalStateException(message);
+        }
+        LOG.warn(message);
+    }
+
+    private static String toJson(final List<ModuleReport> reports, final int hugeMethodLimit) {
+        final StringBuilder json = new StringBuilder();
+        json.append("{\n  \"hugeMethodLimit\": ").append(hugeMethodLimit).append(",\n  \"modules\": [");
+        for (int i = 0; i < reports.size(); i++) {
+            final ModuleReport report = reports.get(i);
+            json.append(i == 0 ? "\n" : ",\n")
+                    .append("    {\n")
+                    .append("      \"key\": ").append(quote(report.key)).append(",\n")
+                    .append("      \"name\": ").append(quote(report.name)).append(",\n")
+                    .append("      \"generationMillis\": ").append(report.generationMillis).append(",\n")
+                    .append("      \"classCount\": ").append(report.classCount).append(",\n")
+                    .append("      \"classBytes\": ").append(report.classBytes).append(",\n")
+                    .append("      \"configuredInterpretedFunctions\": ").append(report.configuredInterpretedFunctions)
+                    .append(",\n")
+                    .append("      \"fallbackInterpretedFunctions\": ").append(report.fallbackInterpretedFunctions)
+                    .append(",\n")
+                    .append("      \"unreachableFunctions\": ").append(report.unreachableFunctions)
+                    .append(",\n")
+                    .append("      \"hugeInterpretedFunctions\": ").append(report.hugeInterpretedFunctions)
+                    .append(",\n")
+                    .append("      \"hugeMethods\": [");
+            for (int j = 0; j < report.hugeMethods.size(); j++) {
+                final HugeMethod method = report.hugeMethods.get(j);
+                json.append(j == 0 ? "\n" : ",\n")
+                        .append("        {\"class\": ").append(quote(method.className))
+                        .append(", \"method\": ").append(quote(method.methodName))
+                        .append(", \"function\": ").append(method.function)
+                        .append(", \"bytes\": ").append(method.codeLength).append("}");
+            }
+            json.append(report.hugeMethods.isEmpty() ? "]\n" : "\n      ]\n").append("    }");
+        }
+        return json.append("\n  ]\n}\n").toString();
+    }
+
+    private static String toHtml(final List<ModuleReport> reports, final int hugeMethodLimit) {
+        final StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html>\n<html>\n<head><meta charset=\"utf-8\"><title>Chicory compilation report</title>")
+                .append("</head>\n<body>\n<h1>Chicory compilation report</h1>\n")
+                .append("<table border=\"1\">\n<tr><th>Module</th><th>Name</th><th>Generation (ms)</th>")
+                .append("<th>Classes</th><th>Bytes</th><th>Configured interpreted functions</th>")
+                .append("<th>Interpreter fallbacks</th><th>Unreachable functions</th>")
+                .append("<th>Functions interpreted as too large</th><th>Compiled methods above ").append(hugeMethodLimit)
+                .append(" bytes</th></tr>\n");
+        for (ModuleReport report : reports) {
+            html.append("<tr><td>").append(escape(report.key))
+                    .append("</td><td>").append(escape(report.name))
+                    .append("</td><td>").append(report.generationMillis)
+                    .append("</td><td>").append(report.classCount)
+                    .append("</td><td>").append(report.classBytes)
+                    .append("</td><td>").append(report.configuredInterpretedFunctions)
+                    .append("</td><td>").append(report.fallbackInterpretedFunctions)
+                    .append("</td><td>").append(report.unreachableFunctions)
+                    .append("</td><td>").append(report.hugeInterpretedFunctions)
+                    .append("</td><td>");
+            for (HugeMethod method : report.hugeMethods) {
+                html.append(escape(method.className)).append('.').append(escape(method.methodName))
+                        .append(" (").append(method.codeLength).append(" bytes)<br>");
+            }
+            html.append("</td></tr>\n");
+        }
+        return html.append("</table>\n</body>\n</html>\n").toString();
+    }
+
+    private static String quote(final String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static String escape(final String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    /**
+     * The compilation report of a single Wasm module.
+     */
+    private static final class ModuleReport {
+        private final String key;
+        private final String name;
+        private final long generationMillis;
+        private final List<Integer> configuredInterpretedFunctions = new ArrayList<>();
+        private final List<Integer> fallbackInterpretedFunctions = new ArrayList<>();
+        private final List<Integer> unreachableFunctions = new ArrayList<>();
+        private final List<Integer> hugeInterpretedFunctions = new ArrayList<>();
+        private final List<HugeMethod> hugeMethods = new ArrayList<>();
+        private int classCount;
+        private long classBytes;
+
+        private ModuleReport(final String key, final String name, final long generationMillis) {
+            this.key = key;
+            this.name = name;
+            this.generationMillis = generationMillis;
+        }
+    }
+
+    /**
+     * A generated method whose bytecode exceeds the huge method limit.
+     */
+    private static final class HugeMethod {
+        private final String className;
+        private final String methodName;
+        private final Integer function;
+        private final int codeLength;
+
+        private HugeMethod(final String className, final String methodName, final Integer function,
+                final int codeLength) {
+            this.className = className;
+            this.methodName = methodName;
+            this.function = function;
+            this.codeLength = codeLength;
+        }
+    }
+}
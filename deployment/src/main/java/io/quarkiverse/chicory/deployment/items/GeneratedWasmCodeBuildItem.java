@@ -2,6 +2,7 @@ package io.quarkiverse.chicory.deployment.items;
 
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Set;
 
 import io.quarkus.builder.item.MultiBuildItem;
 
@@ -9,8 +10,10 @@ import io.quarkus.builder.item.MultiBuildItem;
  * Store data produced by the code generation process for a given Wasm module.
  * <p>
  * An instance of {@link GeneratedWasmCodeBuildItem} contains a reference to the name of a configured Wasm
- * module, a collection of classes that represent the generated bytecode, a reference to the generated meta Wasm and
- * a collection of raw sources that represent the generated Java classes.
+ * module, a collection of classes that represent the generated bytecode, a reference to the generated meta Wasm,
+ * a collection of raw sources that represent the generated Java classes, the indexes of the functions that are
+ * left to the interpreter, among which the ones that are unreachable from the exports used by the application and the
+ * ones whose generated method was too large to be JIT compiled, and the time the generation took.
  * </p>
  */
 public final class GeneratedWasmCodeBuildItem extends MultiBuildItem {
@@ -18,13 +21,22 @@ public final class GeneratedWasmCodeBuildItem extends MultiBuildItem {
     private final List<Path> classes;
     private final Path metaWasm;
     private final Path javaSources;
+    private final Set<Integer> interpretedFunctions;
+    private final Set<Integer> unreachableFunctions;
+    private final Set<Integer> hugeFunctions;
+    private final long generationMillis;
 
     public GeneratedWasmCodeBuildItem(final String name, final List<Path> classes, final Path metaWasm,
-            final Path javaSources) {
+            final Path javaSources, final Set<Integer> interpretedFunctions, final Set<Integer> unreachableFunctions,
+            final Set<Integer> hugeFunctions, final long generationMillis) {
         this.name = name;
         this.classes = classes;
         this.metaWasm = metaWasm;
         this.javaSources = javaSources;
+        this.interpretedFunctions = interpretedFunctions;
+        this.unreachableFunctions = unreachableFunctions;
+        this.hugeFunctions = hugeFunctions;
+        this.generationMillis = generationMillis;
     }
 
     public String getName() {
@@ -43,12 +55,29 @@ public final class GeneratedWasmCodeBuildItem extends MultiBuildItem {
         return javaSources;
     }
 
+    public Set<Integer> getInterpretedFunctions() {
+        return interpretedFunctions;
+    }
+
+    public Set<Integer> getUnreachableFunctions() {
+        return unreachableFunctions;
+    }
+
+    public Set<Integer> getHugeFunctions() {
+        return hugeFunctions;
+    }
+
+    public long getGenerationMillis() {
+        return generationMillis;
+    }
+
     @Override
     public String toString() {
         return "GeneratedWasmCodeBuildItem{" +
                 "name='" + name + '\'' +
                 ", metaWasm=" + metaWasm +
                 ", javaSources=" + javaSources +
+                ", interpretedFunctions=" + interpretedFunctions +
                 '}';
     }
 }
@@ -0,0 +1,67 @@
+package io.quarkiverse.chicory.deployment.items;
+
+import java.util.List;
+
+import io.quarkus.builder.item.MultiBuildItem;
+
+/**
+ * Store the binding between a function imported by a configured Wasm module and the code generated for a
+ * {@link io.quarkiverse.chicory.runtime.wasm.WasmImport} method that implements it.
+ * <p>
+ * An instance of {@link WasmHostFunctionBuildItem} contains a reference to the key of the importing Wasm module, the
+ * import module and name, the validated function signature and the name of the generated factory of the generated
+ * {@link com.dylibso.chicory.runtime.WasmFunctionHandle} class, which is instantiated without reflection.
+ * </p>
+ */
+public final class WasmHostFunctionBuildItem extends MultiBuildItem {
+    private final String moduleKey;
+    private final String importModule;
+    private final String importName;
+    private final List<String> params;
+    private final List<String> results;
+    private final String handleFactoryClassName;
+
+    public WasmHostFunctionBuildItem(final String moduleKey, final String importModule, final String importName,
+            final List<String> params, final List<String> results, final String handleFactoryClassName) {
+        this.moduleKey = moduleKey;
+        this.importModule = importModule;
+        this.importName = importName;
+        this.params = params;
+        this.results = results;
+        this.handleFactoryClassName = handleFactoryClassName;
+    }
+
+    public String getModuleKey() {
+        return moduleKey;
+    }
+
+    public String getImportModule() {
+        return importModule;
+    }
+
+    public String getImportName() {
+        return importName;
+    }
+
+    public List<String> getParams() {
+        return params;
+    }
+
+    public List<String> getResults() {
+        return results;
+    }
+
+    public String getHandleFactoryClassName() {
+        return handleFactoryClassName;
+    }
+
+    @Override
+    public String toString() {
+        return "WasmHostFunctionBuildItem{" +
+                "moduleKey='" + moduleKey + '\'' +
+                ", importModule='" + importModule + '\'' +
+                ", importName='" + importName + '\'' +
+                ", handleFactoryClassName='" + handleFactoryClassName + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,52 @@
+package io.quarkiverse.chicory.deployment.items;
+
+import io.quarkus.builder.item.MultiBuildItem;
+
+/**
+ * Store the link between a function imported by a configured Wasm module and the function exported by another
+ * configured Wasm module that implements it.
+ * <p>
+ * An instance of {@link WasmLinkedImportBuildItem} contains a reference to the key of the importing Wasm module, the
+ * import module and name, and the key of the Wasm module that exports the function with the same name.
+ * </p>
+ */
+public final class WasmLinkedImportBuildItem extends MultiBuildItem {
+    private final String moduleKey;
+    private final String importModule;
+    private final String importName;
+    private final String providerKey;
+
+    public WasmLinkedImportBuildItem(final String moduleKey, final String importModule, final String importName,
+            final String providerKey) {
+        this.moduleKey = moduleKey;
+        this.importModule = importModule;
+        this.importName = importName;
+        this.providerKey = providerKey;
+    }
+
+    public String getModuleKey() {
+        return moduleKey;
+    }
+
+    public String getImportModule() {
+        return importModule;
+    }
+
+    public String getImportName() {
+        return importName;
+    }
+
+    public String getProviderKey() {
+        return providerKey;
+    }
+
+    @Override
+    public String toString() {
+        return "WasmLinkedImportBuildItem{" +
+                "moduleKey='" + moduleKey + '\'' +
+                ", importModule='" + importModule + '\'' +
+                ", importName='" + importName + '\'' +
+                ", providerKey='" + providerKey + '\'' +
+                '}';
+    }
+}
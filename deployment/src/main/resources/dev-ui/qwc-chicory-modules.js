@@ -0,0 +1,107 @@
+import { LitElement, html, css } from 'lit';
+import { JsonRpc } from 'jsonrpc';
+import { interpretedFunctions } from 'build-time-data';
+import '@vaadin/button';
+import '@vaadin/grid';
+import { columnBodyRenderer } from '@vaadin/grid/lit.js';
+
+/**
+ * Shows the execution mode and the performance statistics of each configured Wasm module, and allows switching the
+ * execution mode live, to compare the statistics of both modes.
+ */
+export class QwcChicoryModules extends LitElement {
+
+    jsonRpc = new JsonRpc(this);
+
+    static styles = css`
+        .module {
+            padding: 10px;
+            border-bottom: 1px solid var(--lumo-contrast-10pct);
+        }
+        .timings {
+            color: var(--lumo-contrast-70pct);
+            font-size: var(--lumo-font-size-s);
+        }
+    `;
+
+    static properties = {
+        _modules: { state: true },
+    };
+
+    connectedCallback() {
+        super.connectedCallback();
+        this._refresh();
+        this._interval = setInterval(() => this._refresh(), 2000);
+    }
+
+    disconnectedCallback() {
+        clearInterval(this._interval);
+        super.disconnectedCallback();
+    }
+
+    render() {
+        if (!this._modules) {
+            return html`<span>Loading Wasm modules...</span>`;
+        }
+        return html`${this._modules.map(module => this._renderModule(module))}`;
+    }
+
+    _renderModule(module) {
+        const otherMode = module.executionMode === 'RuntimeCompiler' ? 'Interpreter' : 'RuntimeCompiler';
+        const interpreted = interpretedFunctions[module.key] || [];
+        return html`
+            <div class="module">
+                <h3>${module.key} <code>${module.name}</code></h3>
+                <div>
+                    Execution mode: <strong>${module.executionMode}</strong>
+                    ${module.dynamic ? '' : html`
+                        <vaadin-button theme="small" @click=${() => this._switch(module.key, otherMode)}>
+                            Switch to ${otherMode}
+                        </vaadin-button>`}
+                </div>
+                <div>Functions left to the interpreter: ${interpreted.length ? interpreted.join(', ') : 'none'}</div>
+                ${this._renderStats('Current', module.stats)}
+                ${this._renderStats('Previous', module.previousStats)}
+            </div>`;
+    }
+
+    _renderStats(title, stats) {
+        if (!stats) {
+            return '';
+        }
+        return html`
+            <h4>${title} (${stats.executionMode})</h4>
+            <div class="timings">
+                Parse ${stats.parseMillis.toFixed(2)} ms,
+                machine ${stats.machineMillis.toFixed(2)} ms,
+                instantiate ${stats.instantiateMillis.toFixed(2)} ms,
+                ${stats.instanceCount} instances,
+                memory pages ${stats.lastPages} (max ${stats.maxPages})
+            </div>
+            <vaadin-grid .items=${stats.exports} theme="compact no-border" all-rows-visible>
+                <vaadin-grid-column header="Export" path="name"></vaadin-grid-column>
+                <vaadin-grid-column header="Calls" path="callCount"></vaadin-grid-column>
+                <vaadin-grid-column header="Calls/s"
+                    ${columnBodyRenderer(e => html`${e.callRate.toFixed(1)}`, [])}></vaadin-grid-column>
+                <vaadin-grid-column header="p50 (µs)"
+                    ${columnBodyRenderer(e => html`${e.p50Micros.toFixed(1)}`, [])}></vaadin-grid-column>
+                <vaadin-grid-column header="p95 (µs)"
+                    ${columnBodyRenderer(e => html`${e.p95Micros.toFixed(1)}`, [])}></vaadin-grid-column>
+                <vaadin-grid-column header="p99 (µs)"
+                    ${columnBodyRenderer(e => html`${e.p99Micros.toFixed(1)}`, [])}></vaadin-grid-column>
+            </vaadin-grid>`;
+    }
+
+    _refresh() {
+        this.jsonRpc.getModules().then(response => {
+            this._modules = response.result;
+        });
+    }
+
+    _switch(key, executionMode) {
+        this.jsonRpc.switchExecutionMode({ key: key, executionMode: executionMode }).then(response => {
+            this._modules = response.result;
+        });
+    }
+}
+customElements.define('qwc-chicory-modules', QwcChicoryModules);
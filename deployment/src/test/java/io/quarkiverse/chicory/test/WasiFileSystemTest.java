@@ -0,0 +1,75 @@
+package io.quarkiverse.chicory.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.dylibso.chicory.runtime.Instance;
+
+import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that the in-memory filesystem snapshot is preopened read-only by every instance, and that each instance gets its
+ * own writable scratch directory.
+ */
+public class WasiFileSystemTest {
+
+    // the size of greeting.txt, the guest writes 15 bytes when it manages to truncate and write it
+    private static final int GREETING_SIZE = 8;
+    // errno of a missing file
+    private static final int ENOENT = 44;
+
+    @RegisterExtension
+    static final QuarkusUnitTest unitTest = new QuarkusUnitTest()
+            .setArchiveProducer(() -> ShrinkWrap.create(JavaArchive.class)
+                    .addAsResource(new StringAsset("bonjour\n"), "greeting.txt")
+                    .addAsResource("wasm/wasi.wasm", "wasm/wasi.wasm"))
+            .overrideConfigKey("quarkus.chicory.modules.fs.name", "io.quarkiverse.chicory.test.FileSystemModule")
+            .overrideConfigKey("quarkus.chicory.modules.fs.wasm-resource", "wasm/wasi.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.fs.wasi.enabled", "true")
+            .overrideConfigKey("quarkus.chicory.modules.fs.wasi.run-start", "false")
+            .overrideConfigKey("quarkus.chicory.modules.fs.wasi.filesystem.resources", "greeting.txt")
+            .overrideConfigKey("quarkus.chicory.modules.fs.wasi.filesystem.scratch", "/scratch");
+
+    @Inject
+    @Named("fs")
+    WasmQuarkusContext wasmQuarkusContext;
+
+    @Test
+    public void testSnapshotIsReadOnly() {
+        final Instance instance = wasmQuarkusContext.newInstance();
+        assertEquals(GREETING_SIZE, instance.export("read_data").apply()[0]);
+
+        int written;
+        try {
+            written = (int) instance.export("write_data").apply()[0];
+        } catch (RuntimeException e) {
+            // the access error may surface to the host rather than as an errno, depending on the WASI implementation
+            written = -1;
+        }
+        assertTrue(written < 0, "The guest could write to the snapshot");
+
+        // neither this instance nor another one sees a modified snapshot
+        assertEquals(GREETING_SIZE, wasmQuarkusContext.newInstance().export("read_data").apply()[0]);
+    }
+
+    @Test
+    public void testScratchIsWritableAndPrivate() {
+        final Instance instance = wasmQuarkusContext.newInstance();
+        assertEquals(-ENOENT, (int) instance.export("read_scratch").apply()[0]);
+        assertEquals(0, instance.export("write_scratch").apply()[0]);
+        assertEquals(15, instance.export("read_scratch").apply()[0]);
+
+        final Instance other = wasmQuarkusContext.newInstance();
+        assertEquals(-ENOENT, (int) other.export("read_scratch").apply()[0]);
+    }
+}
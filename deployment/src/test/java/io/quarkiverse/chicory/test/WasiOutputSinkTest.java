@@ -0,0 +1,80 @@
+package io.quarkiverse.chicory.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.chicory.runtime.wasm.StdioTarget;
+import io.quarkiverse.chicory.runtime.wasm.WasiOutputSink;
+import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that the WASI standard output and error of the instances built by the extension go to the configured sinks.
+ */
+public class WasiOutputSinkTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest unitTest = new QuarkusUnitTest()
+            .setArchiveProducer(() -> ShrinkWrap.create(JavaArchive.class)
+                    .addAsResource("wasm/wasi.wasm", "wasm/wasi.wasm"))
+            .overrideConfigKey("quarkus.chicory.modules.ring.name", "io.quarkiverse.chicory.test.RingBufferModule")
+            .overrideConfigKey("quarkus.chicory.modules.ring.wasm-resource", "wasm/wasi.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.ring.wasi.enabled", "true")
+            .overrideConfigKey("quarkus.chicory.modules.ring.wasi.stdout", "RingBuffer")
+            .overrideConfigKey("quarkus.chicory.modules.ring.wasi.stderr", "RingBuffer")
+            .overrideConfigKey("quarkus.chicory.modules.ring.wasi.buffer-lines", "2")
+            .overrideConfigKey("quarkus.chicory.modules.split.name", "io.quarkiverse.chicory.test.SplitLinesModule")
+            .overrideConfigKey("quarkus.chicory.modules.split.wasm-resource", "wasm/wasi.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.split.wasi.enabled", "true")
+            .overrideConfigKey("quarkus.chicory.modules.split.wasi.run-start", "false")
+            .overrideConfigKey("quarkus.chicory.modules.split.wasi.stdout", "RingBuffer")
+            .overrideConfigKey("quarkus.chicory.modules.split.wasi.stderr", "Discard")
+            .overrideConfigKey("quarkus.chicory.modules.split.wasi.max-line-length", "8");
+
+    @Inject
+    @Named("ring")
+    WasmQuarkusContext ring;
+
+    @Inject
+    @Named("split")
+    WasmQuarkusContext split;
+
+    @Test
+    public void testRingBufferKeepsLastLines() {
+        final WasiOutputSink stdout = ring.getWasiStdout().orElseThrow();
+        final WasiOutputSink stderr = ring.getWasiStderr().orElseThrow();
+        assertEquals(StdioTarget.RingBuffer, stdout.getTarget());
+
+        // _start is run when the instance is built
+        ring.getInstancePool().execute(instance -> instance.export("say").apply(2));
+        assertTrue(stdout.lines().contains("hello from start"), "Unexpected lines " + stdout.lines());
+        assertEquals(List.of("hello from say"), stderr.lines());
+
+        ring.getInstancePool().execute(instance -> instance.export("say").apply(1));
+        ring.getInstancePool().execute(instance -> instance.export("say").apply(1));
+        ring.getInstancePool().execute(instance -> instance.export("say").apply(1));
+        assertEquals(List.of("hello from say", "hello from say"), stdout.lines());
+    }
+
+    @Test
+    public void testLongLinesAreSplit() {
+        final WasiOutputSink stdout = split.getWasiStdout().orElseThrow();
+        final WasiOutputSink stderr = split.getWasiStderr().orElseThrow();
+        split.getInstancePool().execute(instance -> instance.export("say").apply(1));
+        split.getInstancePool().execute(instance -> instance.export("say").apply(2));
+        // _start isn't run
+        assertEquals(List.of("hello fr", "om say"), stdout.lines());
+        assertEquals(StdioTarget.Discard, stderr.getTarget());
+        assertEquals(List.of(), stderr.lines());
+    }
+}
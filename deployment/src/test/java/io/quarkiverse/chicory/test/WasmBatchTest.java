@@ -0,0 +1,81 @@
+package io.quarkiverse.chicory.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that a batch of inputs is run on a single pooled instance, either one call per input or through a batch
+ * export.
+ */
+public class WasmBatchTest {
+
+    private static final List<byte[]> INPUTS = List.of(new byte[] { 1, 2, 3 }, new byte[0], new byte[] { 10, 20 });
+
+    @RegisterExtension
+    static final QuarkusUnitTest unitTest = new QuarkusUnitTest()
+            .setArchiveProducer(() -> ShrinkWrap.create(JavaArchive.class)
+                    .addAsResource("wasm/bytes.wasm", "wasm/bytes.wasm"))
+            .overrideConfigKey("quarkus.chicory.modules.batch.name", "io.quarkiverse.chicory.test.BatchModule")
+            .overrideConfigKey("quarkus.chicory.modules.batch.wasm-resource", "wasm/bytes.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.batch.pool.max-size", "1")
+            .overrideConfigKey("quarkus.chicory.modules.batch.exports.sum-all.batch-export", "sum_batch");
+
+    @Inject
+    @Named("batch")
+    WasmQuarkusContext wasmQuarkusContext;
+
+    @Test
+    public void testCallPerInput() {
+        assertArrayEquals(new long[] { 6, 0, 30 }, wasmQuarkusContext.executeBatch("sum", null, INPUTS));
+        assertEquals(0, batchCalls());
+        assertEmptyHeap();
+    }
+
+    @Test
+    public void testSharedInput() {
+        final byte[] policy = new byte[] { 2, 3 };
+        assertArrayEquals(new long[] { 5006, 5000, 5030 },
+                wasmQuarkusContext.executeBatch("sum_shared", policy, INPUTS));
+        assertEmptyHeap();
+    }
+
+    @Test
+    public void testBatchExport() {
+        final long before = batchCalls();
+        assertArrayEquals(new long[] { 6, 0, 30 }, wasmQuarkusContext.executeBatch("sum-all", null, INPUTS));
+        // the whole batch is processed by a single call
+        assertEquals(before + 1, batchCalls());
+        assertEmptyHeap();
+    }
+
+    @Test
+    public void testEmptyBatch() {
+        assertArrayEquals(new long[0], wasmQuarkusContext.executeBatch("sum", null, List.of()));
+    }
+
+    private long batchCalls() {
+        return wasmQuarkusContext.getInstancePool().execute(instance -> instance.export("batch_calls").apply())[0];
+    }
+
+    private void assertEmptyHeap() {
+        // the batch region is freed, so the next allocation starts at the bottom of the heap again
+        assertEquals(1024, wasmQuarkusContext.getInstancePool().execute(instance -> {
+            final long ptr = instance.export("malloc").apply(8)[0];
+            instance.export("free").apply(ptr);
+            return ptr;
+        }));
+    }
+}
@@ -0,0 +1,33 @@
+package io.quarkiverse.chicory.test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that an exceeded compilation budget fails a test mode build when its action is {@code FAIL}.
+ */
+public class WasmBudgetFailTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest unitTest = new QuarkusUnitTest()
+            .setArchiveProducer(() -> ShrinkWrap.create(JavaArchive.class)
+                    .addAsResource("wasm/graph.wasm", "wasm/graph.wasm"))
+            .overrideConfigKey("quarkus.chicory.modules.graph.name", "io.quarkiverse.chicory.test.OverBudgetGraphModule")
+            .overrideConfigKey("quarkus.chicory.modules.graph.wasm-resource", "wasm/graph.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.graph.compiler.interpreted-functions", "5,6")
+            .overrideConfigKey("quarkus.chicory.modules.graph.compiler.budget.max-interpreted-functions", "1")
+            .overrideConfigKey("quarkus.chicory.modules.graph.compiler.budget.action", "FAIL")
+            .assertException(t -> assertTrue(t.getMessage().contains("Wasm module graph exceeds its compilation budget: "
+                    + "2 functions are left to the interpreter, the budget is 1"), t.getMessage()));
+
+    @Test
+    public void testBuildFails() {
+        // the build is expected to fail
+    }
+}
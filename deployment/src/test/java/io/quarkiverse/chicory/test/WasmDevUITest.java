@@ -0,0 +1,93 @@
+package io.quarkiverse.chicory.test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkus.devui.tests.DevUIJsonRPCTest;
+import io.quarkus.test.QuarkusDevModeTest;
+
+/**
+ * Tests the JSON-RPC service of the Dev UI card, which exposes the statistics of each module and switches its
+ * execution mode.
+ */
+public class WasmDevUITest extends DevUIJsonRPCTest {
+
+    @RegisterExtension
+    static final QuarkusDevModeTest devModeTest = new QuarkusDevModeTest()
+            .withApplicationRoot((jar) -> jar
+                    .addClasses(AddResource.class)
+                    .addAsResource("wasm/memory.wasm", "wasm/memory.wasm")
+                    .addAsResource(new StringAsset("""
+                            quarkus.chicory.modules.devui-module.name=io.quarkiverse.chicory.test.DevUIModule
+                            quarkus.chicory.modules.devui-module.wasm-resource=wasm/memory.wasm
+                            """), "application.properties"));
+
+    public WasmDevUITest() {
+        super("io.quarkiverse.chicory.quarkus-chicory");
+    }
+
+    @Test
+    public void testSwitchExecutionMode() throws Exception {
+        given().when().get("/test/devui/add").then().statusCode(200).body(is("42"));
+
+        JsonNode module = findModule(executeJsonRPCMethod("getModules"));
+        assertFalse(module.get("dynamic").asBoolean());
+        final String initialMode = module.get("executionMode").asText();
+        final JsonNode stats = module.get("stats");
+        assertFalse(stats.isNull());
+        assertEquals(initialMode, stats.get("executionMode").asText());
+        assertTrue(stats.get("instanceCount").asLong() >= 1);
+        assertTrue(module.get("previousStats").isNull());
+
+        final String newMode = "Interpreter".equals(initialMode) ? "RuntimeCompiler" : "Interpreter";
+        module = findModule(executeJsonRPCMethod("switchExecutionMode",
+                Map.of("key", "devui-module", "executionMode", newMode)));
+        assertEquals(newMode, module.get("executionMode").asText());
+        assertEquals(initialMode, module.get("previousStats").get("executionMode").asText());
+
+        // the pooled instances are built again with the new execution mode
+        given().when().get("/test/devui/add").then().statusCode(200).body(is("42"));
+        module = findModule(executeJsonRPCMethod("getModules"));
+        assertEquals(newMode, module.get("stats").get("executionMode").asText());
+    }
+
+    private static JsonNode findModule(final JsonNode modules) {
+        for (JsonNode module : modules) {
+            if ("devui-module".equals(module.get("key").asText())) {
+                return module;
+            }
+        }
+        throw new AssertionError("Module devui-module not found in " + modules);
+    }
+
+    @Path("/test/devui")
+    public static class AddResource {
+
+        @Inject
+        @Named("devui-module")
+        WasmQuarkusContext wasmQuarkusContext;
+
+        @GET
+        @Path("/add")
+        public long add() {
+            return wasmQuarkusContext.getInstancePool().execute(instance -> instance.export("add").apply(40, 2))[0];
+        }
+    }
+}
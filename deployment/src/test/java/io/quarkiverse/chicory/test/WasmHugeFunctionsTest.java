@@ -0,0 +1,72 @@
+package io.quarkiverse.chicory.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.logging.LogRecord;
+import java.util.stream.Collectors;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that the functions whose generated method exceeds the huge method limit are left to the interpreter, that
+ * they still return the same results, and that generating them again only replaces the classes of their module.
+ */
+public class WasmHugeFunctionsTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest unitTest = new QuarkusUnitTest()
+            .setArchiveProducer(() -> ShrinkWrap.create(JavaArchive.class)
+                    .addAsResource("wasm/graph.wasm", "wasm/graph.wasm"))
+            .overrideConfigKey("quarkus.chicory.modules.graph.name", "io.quarkiverse.chicory.test.HugeGraphModule")
+            .overrideConfigKey("quarkus.chicory.modules.graph.wasm-resource", "wasm/graph.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.graph.compiler.huge-functions", "Interpret")
+            // every generated method is larger than a single byte
+            .overrideConfigKey("quarkus.chicory.report.huge-method-limit", "1")
+            // generated into the same package, with a class name starting with the name of the other module
+            .overrideConfigKey("quarkus.chicory.modules.prefixed.name",
+                    "io.quarkiverse.chicory.test.HugeGraphModuleCompiled")
+            .overrideConfigKey("quarkus.chicory.modules.prefixed.wasm-resource", "wasm/graph.wasm")
+            .setLogRecordPredicate(record -> record.getLoggerName().startsWith("io.quarkiverse.chicory.deployment"))
+            .assertLogRecords(WasmHugeFunctionsTest::assertRerouted);
+
+    @Inject
+    @Named("graph")
+    WasmQuarkusContext wasmQuarkusContext;
+
+    @Inject
+    @Named("prefixed")
+    WasmQuarkusContext prefixed;
+
+    @Test
+    public void testInterpretedFunctionsRun() {
+        assertEquals(42, wasmQuarkusContext.getInstancePool().execute(instance -> instance.export("a").apply())[0]);
+        assertEquals(7, wasmQuarkusContext.getInstancePool().execute(instance -> instance.export("b").apply())[0]);
+        assertEquals(9, wasmQuarkusContext.getInstancePool().execute(instance -> instance.export("c").apply())[0]);
+        // 0 * 31 + 7, then 7 * 31 + 7
+        assertEquals(224, wasmQuarkusContext.getInstancePool().execute(instance -> instance.export("spin").apply(2))[0]);
+    }
+
+    @Test
+    public void testOtherModuleClassesAreKept() {
+        // the classes of the other module aren't deleted when this module is generated again
+        assertEquals(42, prefixed.getInstancePool().execute(instance -> instance.export("a").apply())[0]);
+        assertEquals(224, prefixed.getInstancePool().execute(instance -> instance.export("spin").apply(2))[0]);
+    }
+
+    private static void assertRerouted(final List<LogRecord> records) {
+        final List<String> messages = records.stream().map(LogRecord::getMessage).collect(Collectors.toList());
+        assertTrue(messages.contains("Functions [0, 1, 2, 3, 4, 5, 6, 7, 8] of Wasm module graph exceed the huge method "
+                + "limit, and will be left to the interpreter"), "Unexpected logs " + messages);
+    }
+}
@@ -0,0 +1,43 @@
+package io.quarkiverse.chicory.test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.chicory.runtime.wasm.WasmImport;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that the build fails when a {@link WasmImport} method doesn't match the signature of the imported function.
+ */
+public class WasmImportSignatureMismatchTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest unitTest = new QuarkusUnitTest()
+            .setArchiveProducer(() -> ShrinkWrap.create(JavaArchive.class)
+                    .addClasses(WideDoubler.class)
+                    .addAsResource("wasm/imports.wasm", "wasm/imports.wasm"))
+            .overrideConfigKey("quarkus.chicory.modules.imports.name", "io.quarkiverse.chicory.test.MismatchedImportsModule")
+            .overrideConfigKey("quarkus.chicory.modules.imports.wasm-resource", "wasm/imports.wasm")
+            .assertException(t -> assertTrue(t.getMessage().contains("imports env.twice as [i32] -> [i32]"),
+                    t.getMessage()));
+
+    @Test
+    public void testBuildFails() {
+        // the build is expected to fail
+    }
+
+    @ApplicationScoped
+    public static class WideDoubler {
+
+        @WasmImport(module = "env", name = "twice")
+        long twice(final long value) {
+            return value * 2;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package io.quarkiverse.chicory.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Qualifier;
+import jakarta.inject.Singleton;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.dylibso.chicory.runtime.Instance;
+
+import io.quarkiverse.chicory.runtime.wasm.WasmImport;
+import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that {@link WasmImport} bean methods implement the functions imported by a Wasm module, including the methods
+ * of a bean that has no default qualifier.
+ */
+public class WasmImportTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest unitTest = new QuarkusUnitTest()
+            .setArchiveProducer(() -> ShrinkWrap.create(JavaArchive.class)
+                    .addClasses(Doubler.class, Doubling.class)
+                    .addAsResource("wasm/imports.wasm", "wasm/imports.wasm"))
+            .overrideConfigKey("quarkus.chicory.modules.imports.name", "io.quarkiverse.chicory.test.ImportsModule")
+            .overrideConfigKey("quarkus.chicory.modules.imports.wasm-resource", "wasm/imports.wasm");
+
+    @Inject
+    @Named("imports")
+    WasmQuarkusContext wasmQuarkusContext;
+
+    @Inject
+    @Doubling
+    Doubler doubler;
+
+    @Test
+    public void testPooledInstanceCallsBeanMethod() {
+        final int calls = doubler.calls.get();
+        assertEquals(11, wasmQuarkusContext.getInstancePool().execute(instance -> instance.export("run").apply(5))[0]);
+        assertEquals(calls + 1, doubler.calls.get());
+    }
+
+    @Test
+    public void testNewInstanceCallsBeanMethod() {
+        final Instance instance = wasmQuarkusContext.newInstance();
+        assertEquals(-3, (int) instance.export("run").apply(-2)[0]);
+    }
+
+    @Qualifier
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Doubling {
+    }
+
+    // no client proxy, so that the test reads the fields of the bean
+    @Singleton
+    @Doubling
+    public static class Doubler {
+
+        final AtomicInteger calls = new AtomicInteger();
+
+        @WasmImport(module = "env", name = "twice")
+        int twice(final int value) {
+            calls.incrementAndGet();
+            return value * 2;
+        }
+    }
+}
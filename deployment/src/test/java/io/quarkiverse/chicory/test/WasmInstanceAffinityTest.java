@@ -0,0 +1,67 @@
+package io.quarkiverse.chicory.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.dylibso.chicory.runtime.Instance;
+
+import io.quarkiverse.chicory.runtime.wasm.WasmInstancePool;
+import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that calls with an affinity key land on the pooled instance associated with the key.
+ */
+public class WasmInstanceAffinityTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest unitTest = new QuarkusUnitTest()
+            .setArchiveProducer(() -> ShrinkWrap.create(JavaArchive.class)
+                    .addAsResource("wasm/memory.wasm", "wasm/memory.wasm"))
+            .overrideConfigKey("quarkus.chicory.modules.memory.name", "io.quarkiverse.chicory.test.AffinityMemoryModule")
+            .overrideConfigKey("quarkus.chicory.modules.memory.wasm-resource", "wasm/memory.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.memory.pool.max-size", "4");
+
+    @Inject
+    @Named("memory")
+    WasmQuarkusContext wasmQuarkusContext;
+
+    @Test
+    public void testSameKeySameInstance() {
+        final WasmInstancePool pool = wasmQuarkusContext.getInstancePool();
+        pool.fill();
+        final long hits = pool.getAffinityHitCount();
+        final long first = pool.execute("tenant-a", instance -> instance.export("incr").apply())[0];
+        for (int i = 1; i <= 5; i++) {
+            // the guest-side counter of the same instance keeps growing
+            assertEquals(first + i, pool.execute("tenant-a", instance -> instance.export("incr").apply())[0]);
+        }
+        assertEquals(hits + 6, pool.getAffinityHitCount());
+    }
+
+    @Test
+    public void testBusyInstanceFallsBack() {
+        final WasmInstancePool pool = wasmQuarkusContext.getInstancePool();
+        pool.fill();
+        final Instance preferred = pool.borrow("tenant-b");
+        try {
+            final long misses = pool.getAffinityMissCount();
+            // the instance associated with the key is busy, so another idle instance serves the call
+            final Instance fallback = pool.execute("tenant-b", instance -> instance);
+            assertNotSame(preferred, fallback);
+            assertEquals(misses + 1, pool.getAffinityMissCount());
+        } finally {
+            pool.release(preferred);
+        }
+        assertSame(preferred, pool.execute("tenant-b", instance -> instance));
+    }
+}
@@ -0,0 +1,154 @@
+package io.quarkiverse.chicory.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.awaitility.Awaitility;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.dylibso.chicory.runtime.Memory;
+import com.dylibso.chicory.wasm.ChicoryException;
+
+import io.quarkiverse.chicory.runtime.wasm.WasmInstance;
+import io.quarkiverse.chicory.runtime.wasm.WasmInstancePool;
+import io.quarkiverse.chicory.runtime.wasm.WasmModuleKey;
+import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ManagedContext;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests the injectable {@link WasmInstance} bean, with each instance scope.
+ */
+public class WasmInstanceBeanTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest unitTest = new QuarkusUnitTest()
+            .setArchiveProducer(() -> ShrinkWrap.create(JavaArchive.class)
+                    .addAsResource("wasm/memory.wasm", "wasm/memory.wasm"))
+            .overrideConfigKey("quarkus.chicory.modules.request.name", "io.quarkiverse.chicory.test.RequestInstanceModule")
+            .overrideConfigKey("quarkus.chicory.modules.request.wasm-resource", "wasm/memory.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.request.pool.max-size", "1")
+            .overrideConfigKey("quarkus.chicory.modules.affine.name", "io.quarkiverse.chicory.test.AffineInstanceModule")
+            .overrideConfigKey("quarkus.chicory.modules.affine.wasm-resource", "wasm/memory.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.affine.instance.scope", "ThreadAffine")
+            .overrideConfigKey("quarkus.chicory.modules.affine.memory.off-heap", "true");
+
+    @Inject
+    @Named("request")
+    WasmQuarkusContext requestContext;
+
+    @Inject
+    @WasmModuleKey("request")
+    WasmInstance requestInstance;
+
+    @Inject
+    @WasmModuleKey("affine")
+    WasmInstance affineInstance;
+
+    @Test
+    public void testRequestScopedInstance() {
+        final WasmInstancePool pool = requestContext.getInstancePool();
+
+        inRequest(() -> assertEquals(1, requestInstance.export("incr").apply()[0]));
+        // returned to the pool when the request ends
+        assertEquals(1, pool.getIdleCount());
+        inRequest(() -> assertEquals(2, requestInstance.export("incr").apply()[0]));
+
+        inRequest(() -> {
+            requestInstance.export("incr").apply();
+            assertThrows(RuntimeException.class, () -> requestInstance.export("trap").apply());
+        });
+        // discarded rather than returned, since the guest trapped
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(0, pool.getBusyCount());
+        inRequest(() -> assertEquals(1, requestInstance.export("incr").apply()[0]));
+    }
+
+    @Test
+    public void testThreadAffineInstance() {
+        assertEquals(1, affineInstance.export("incr").apply()[0]);
+        assertEquals(2, affineInstance.export("incr").apply()[0]);
+        assertThrows(RuntimeException.class, () -> affineInstance.export("trap").apply());
+        // the failed instance of this thread is replaced
+        assertEquals(1, affineInstance.export("incr").apply()[0]);
+
+        final Memory memory = affineInstance.memory();
+        memory.writeI32(0, 42);
+        // another thread gets its own instance, which it keeps after terminating
+        final Memory otherMemory = onOtherThread(() -> {
+            assertEquals(1, affineInstance.export("incr").apply()[0]);
+            return affineInstance.memory();
+        });
+        otherMemory.writeI32(0, 7);
+        // the instances of all the threads are released when the bean is destroyed, e.g. on shutdown
+        Arc.container().instance(WasmInstance.class, WasmModuleKey.Literal.of("affine")).destroy();
+        assertThrows(ChicoryException.class, () -> memory.readInt(0));
+        assertThrows(ChicoryException.class, () -> otherMemory.readInt(0));
+        assertEquals(1, affineInstance.export("incr").apply()[0]);
+    }
+
+    @Test
+    public void testTerminatedThreadInstanceIsReleased() {
+        final Memory otherMemory = onOtherThread(() -> {
+            affineInstance.export("incr").apply();
+            return affineInstance.memory();
+        });
+        otherMemory.writeI32(0, 7);
+        // the thread has terminated, so its instance is released when another thread needs one
+        Awaitility.await().atMost(Duration.ofSeconds(10)).until(() -> {
+            onOtherThread(() -> affineInstance.export("incr").apply());
+            try {
+                otherMemory.readInt(0);
+                return false;
+            } catch (ChicoryException e) {
+                return true;
+            }
+        });
+    }
+
+    private static <T> T onOtherThread(final Supplier<T> action) {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return CompletableFuture.supplyAsync(action, executor).join();
+        } finally {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void inRequest(final Runnable action) {
+        // a dedicated thread, so that the request context of the test method doesn't interfere
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CompletableFuture.runAsync(() -> {
+                final ManagedContext requestContext = Arc.container().requestContext();
+                requestContext.activate();
+                try {
+                    action.run();
+                } finally {
+                    requestContext.terminate();
+                }
+            }, executor).join();
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
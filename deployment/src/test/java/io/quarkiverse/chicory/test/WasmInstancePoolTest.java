@@ -0,0 +1,83 @@
+package io.quarkiverse.chicory.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.awaitility.Awaitility;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.dylibso.chicory.runtime.Instance;
+
+import io.quarkiverse.chicory.runtime.wasm.WasmInstancePool;
+import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests the instance pool managed by the extension, and the startup warm-up that runs against it.
+ */
+public class WasmInstancePoolTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest unitTest = new QuarkusUnitTest()
+            .setArchiveProducer(() -> ShrinkWrap.create(JavaArchive.class)
+                    .addAsResource("dev-mode/wasm/math.wasm", "wasm/math.wasm"))
+            .overrideConfigKey("quarkus.chicory.modules.math.name", "io.quarkiverse.chicory.test.PooledMathModule")
+            .overrideConfigKey("quarkus.chicory.modules.math.wasm-resource", "wasm/math.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.math.pool.max-size", "2")
+            .overrideConfigKey("quarkus.chicory.modules.math.warmup.export", "operation")
+            .overrideConfigKey("quarkus.chicory.modules.math.warmup.args", "10,5")
+            .overrideConfigKey("quarkus.chicory.modules.math.warmup.iterations", "100");
+
+    @Inject
+    @Named("math")
+    WasmQuarkusContext wasmQuarkusContext;
+
+    @Test
+    public void testWarmupCompletes() {
+        Awaitility.await().atMost(Duration.ofSeconds(30)).until(wasmQuarkusContext::isWarmedUp);
+        assertTrue(wasmQuarkusContext.getWarmupFailure().isEmpty());
+        // warm-up fills the pool
+        assertEquals(2, wasmQuarkusContext.getInstancePool().getIdleCount());
+    }
+
+    @Test
+    public void testPooledExecution() {
+        final WasmInstancePool pool = wasmQuarkusContext.getInstancePool();
+        final long[] result = pool.execute(instance -> instance.export("operation").apply(10, 5));
+        assertEquals(15, result[0]);
+    }
+
+    @Test
+    public void testExecuteBorrowsFromThePool() {
+        // the warm-up borrows instances too
+        Awaitility.await().atMost(Duration.ofSeconds(30)).until(wasmQuarkusContext::isWarmedUp);
+        final WasmInstancePool pool = wasmQuarkusContext.getInstancePool();
+        for (int i = 0; i < 10; i++) {
+            final Instance borrowed = pool.execute(instance -> {
+                assertNotNull(instance);
+                assertEquals(1, pool.getBusyCount());
+                return instance;
+            });
+            assertNotNull(borrowed);
+            assertEquals(0, pool.getBusyCount());
+        }
+
+        // a failing call propagates its own exception, and the instance is discarded rather than returned
+        final IllegalStateException failure = assertThrows(IllegalStateException.class, () -> pool.execute(instance -> {
+            throw new IllegalStateException("failure");
+        }));
+        assertEquals("failure", failure.getMessage());
+        assertEquals(0, pool.getBusyCount());
+        assertEquals(15, pool.execute(instance -> instance.export("operation").apply(10, 5))[0]);
+    }
+}
@@ -0,0 +1,72 @@
+package io.quarkiverse.chicory.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.awaitility.Awaitility;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.chicory.runtime.wasm.WasmInstancePool;
+import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that pooled instances are retired and replaced in the background, once they exceed a memory or calls threshold.
+ */
+public class WasmInstanceRetirementTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest unitTest = new QuarkusUnitTest()
+            .setArchiveProducer(() -> ShrinkWrap.create(JavaArchive.class)
+                    .addAsResource("wasm/memory.wasm", "wasm/memory.wasm"))
+            .overrideConfigKey("quarkus.chicory.modules.calls.name", "io.quarkiverse.chicory.test.RetiredAfterCallsModule")
+            .overrideConfigKey("quarkus.chicory.modules.calls.wasm-resource", "wasm/memory.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.calls.pool.max-size", "1")
+            .overrideConfigKey("quarkus.chicory.modules.calls.pool.retire-after-calls", "3")
+            .overrideConfigKey("quarkus.chicory.modules.pages.name", "io.quarkiverse.chicory.test.RetiredAbovePagesModule")
+            .overrideConfigKey("quarkus.chicory.modules.pages.wasm-resource", "wasm/memory.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.pages.pool.max-size", "1")
+            .overrideConfigKey("quarkus.chicory.modules.pages.pool.retire-above-pages", "2");
+
+    @Inject
+    @Named("calls")
+    WasmQuarkusContext calls;
+
+    @Inject
+    @Named("pages")
+    WasmQuarkusContext pages;
+
+    @Test
+    public void testRetiredAfterCalls() {
+        final WasmInstancePool pool = calls.getInstancePool();
+        for (int i = 1; i <= 3; i++) {
+            assertEquals(i, pool.execute(instance -> instance.export("incr").apply())[0]);
+        }
+        assertEquals(1, pool.getRetiredCount());
+        // the retired instance keeps serving until its replacement, with a fresh counter, is swapped in
+        Awaitility.await().atMost(Duration.ofSeconds(30))
+                .until(() -> pool.execute(instance -> instance.export("incr").apply())[0] == 1);
+    }
+
+    @Test
+    public void testRetiredAbovePagesWithoutStallingCallers() {
+        final WasmInstancePool pool = pages.getInstancePool();
+        assertEquals(1, pool.execute(instance -> instance.export("grow").apply(4))[0]);
+        assertEquals(1, pool.getRetiredCount());
+        // the caller's permit isn't held while the replacement is built
+        assertEquals(0, pool.getBusyCount());
+        final long size = pool.execute(instance -> instance.export("size").apply())[0];
+        assertTrue(size == 5 || size == 1, "Unexpected memory size " + size);
+        Awaitility.await().atMost(Duration.ofSeconds(30))
+                .until(() -> pool.execute(instance -> instance.export("size").apply())[0] == 1);
+        assertEquals(1, pool.getIdleCount());
+    }
+}
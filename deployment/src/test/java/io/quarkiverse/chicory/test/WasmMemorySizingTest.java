@@ -0,0 +1,68 @@
+package io.quarkiverse.chicory.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.dylibso.chicory.runtime.Instance;
+
+import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests the sizing and growth policy applied to the linear memory of instances.
+ */
+public class WasmMemorySizingTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest unitTest = new QuarkusUnitTest()
+            .setArchiveProducer(() -> ShrinkWrap.create(JavaArchive.class)
+                    .addAsResource("wasm/memory.wasm", "wasm/memory.wasm"))
+            .overrideConfigKey("quarkus.chicory.modules.memory.name", "io.quarkiverse.chicory.test.SizedMemoryModule")
+            .overrideConfigKey("quarkus.chicory.modules.memory.wasm-resource", "wasm/memory.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.memory.memory.initial-pages", "2")
+            .overrideConfigKey("quarkus.chicory.modules.memory.memory.max-pages", "8")
+            .overrideConfigKey("quarkus.chicory.modules.memory.memory.growth-increment", "3");
+
+    @Inject
+    @Named("memory")
+    WasmQuarkusContext wasmQuarkusContext;
+
+    @Test
+    public void testGuestObservesDeclaredSize() {
+        final Instance instance = wasmQuarkusContext.newInstance();
+        // the reserved pages are not visible to the guest
+        assertEquals(1, instance.export("size").apply()[0]);
+        assertEquals(1, instance.memory().pages());
+    }
+
+    @Test
+    public void testGrowthIsCappedByMaxPages() {
+        final Instance instance = wasmQuarkusContext.newInstance();
+        // the module declares 256 maximum pages, capped to 8
+        assertEquals(1, instance.export("grow").apply(6)[0]);
+        assertEquals(7, instance.export("size").apply()[0]);
+        assertEquals(7, instance.export("grow").apply(1)[0]);
+        assertEquals(-1, (int) instance.export("grow").apply(1)[0]);
+        assertEquals(8, instance.export("size").apply()[0]);
+    }
+
+    @Test
+    public void testContentSurvivesGrowth() {
+        final Instance instance = wasmQuarkusContext.newInstance();
+        instance.export("store").apply(1024, 42);
+        // beyond the reserved pages, then beyond the first growth increment
+        instance.export("grow").apply(2);
+        instance.export("store").apply(2 * 65536 + 8, 43);
+        instance.export("grow").apply(4);
+        assertEquals(42, instance.export("load").apply(1024)[0]);
+        assertEquals(43, instance.export("load").apply(2 * 65536 + 8)[0]);
+        assertEquals(7, instance.export("size").apply()[0]);
+    }
+}
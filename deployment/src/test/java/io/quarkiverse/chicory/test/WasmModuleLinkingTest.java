@@ -0,0 +1,64 @@
+package io.quarkiverse.chicory.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.awaitility.Awaitility;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.chicory.runtime.wasm.WasmInstancePool;
+import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that the functions imported by a Wasm module are bound to the exports of another configured Wasm module.
+ */
+public class WasmModuleLinkingTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest unitTest = new QuarkusUnitTest()
+            .setArchiveProducer(() -> ShrinkWrap.create(JavaArchive.class)
+                    .addAsResource("wasm/imports.wasm", "wasm/imports.wasm")
+                    .addAsResource("wasm/twice.wasm", "wasm/twice.wasm"))
+            .overrideConfigKey("quarkus.chicory.modules.twice.name", "io.quarkiverse.chicory.test.LinkedTwiceModule")
+            .overrideConfigKey("quarkus.chicory.modules.twice.wasm-resource", "wasm/twice.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.twice.memory.off-heap", "true")
+            .overrideConfigKey("quarkus.chicory.modules.imports.name", "io.quarkiverse.chicory.test.LinkedImportsModule")
+            .overrideConfigKey("quarkus.chicory.modules.imports.wasm-resource", "wasm/imports.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.imports.imports.env", "twice")
+            .overrideConfigKey("quarkus.chicory.modules.imports.pool.max-size", "1")
+            .overrideConfigKey("quarkus.chicory.modules.imports.pool.retire-after-calls", "2");
+
+    @Inject
+    @Named("imports")
+    WasmQuarkusContext wasmQuarkusContext;
+
+    @Test
+    public void testLinkedCall() {
+        assertEquals(11, wasmQuarkusContext.newInstance().export("run").apply(5)[0]);
+    }
+
+    @Test
+    public void testLinkedInstancesAreReplacedWithTheImportingOne() {
+        final WasmInstancePool pool = wasmQuarkusContext.getInstancePool();
+        // the linked instance is released along with the retired or discarded importing instance, and a new one is
+        // created for the replacement
+        for (int i = 0; i < 10; i++) {
+            final long value = i;
+            assertEquals(2 * value + 1, pool.execute(instance -> instance.export("run").apply(value))[0]);
+        }
+        assertThrows(IllegalStateException.class, () -> pool.execute(instance -> {
+            throw new IllegalStateException("failure");
+        }));
+        Awaitility.await().atMost(Duration.ofSeconds(30)).until(() -> pool.getBusyCount() == 0);
+        assertEquals(7, pool.execute(instance -> instance.export("run").apply(3))[0]);
+    }
+}
@@ -0,0 +1,126 @@
+package io.quarkiverse.chicory.test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.logging.LogRecord;
+import java.util.stream.Collectors;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkus.test.QuarkusDevModeTest;
+
+/**
+ * Tests that a dev mode restart only generates the code of the Wasm modules whose payload or compiler configuration
+ * changed, and that {@code wasm-resource} payloads are watched.
+ */
+public class WasmModuleReuseDevModeTest {
+
+    @RegisterExtension
+    static final QuarkusDevModeTest devModeTest = new QuarkusDevModeTest()
+            .withApplicationRoot((jar) -> jar
+                    .addClasses(io.quarkiverse.chicory.test.devmode.MathResource.class, SizeResource.class)
+                    .addAsResource("wasm/memory.wasm", "wasm/memory.wasm")
+                    .addAsResource(new StringAsset("""
+                            quarkus.chicory.modules.math-module.name=io.quarkiverse.chicory.test.MathModule
+                            quarkus.chicory.modules.math-module.wasm-file=${project.basedir}/src/test/resources/dev-mode/wasm/math.wasm
+                            quarkus.chicory.modules.resource-module.name=io.quarkiverse.chicory.test.ReusedResourceModule
+                            quarkus.chicory.modules.resource-module.wasm-resource=wasm/memory.wasm
+                            """), "application.properties"))
+            .setBuildSystemProperty("project.basedir", Paths.get("").toAbsolutePath().toString())
+            .setLogRecordPredicate(record -> record.getLoggerName().startsWith("io.quarkiverse.chicory"));
+
+    @Test
+    public void testOnlyChangedModulesAreGenerated() throws IOException {
+        given().when().get("/test/math/add").then().statusCode(200).body(is("15"));
+        given().when().get("/test/resource/size").then().statusCode(200).body(is("1"));
+
+        // a compiler option of one module changes
+        devModeTest.clearLogRecords();
+        devModeTest.modifyResourceFile("application.properties",
+                s -> s + "quarkus.chicory.modules.resource-module.compiler.interpreted-functions=0\n");
+        given().when().get("/test/resource/size").then().statusCode(200).body(is("1"));
+        assertReused("math-module");
+        assertGenerated("resource-module");
+
+        // the payload of a wasm-resource module changes, to a module declaring 2 initial pages
+        devModeTest.clearLogRecords();
+        final byte[] payload;
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream("wasm/memory.wasm")) {
+            payload = input.readAllBytes();
+        }
+        devModeTest.addResourceFile("wasm/memory.wasm", withInitialPages(payload, 2));
+        given().when().get("/test/resource/size").then().statusCode(200).body(is("2"));
+        assertReused("math-module");
+        assertGenerated("resource-module");
+
+        // the huge method limit, which affects the functions left to the interpreter, changes for every module
+        devModeTest.clearLogRecords();
+        devModeTest.modifyResourceFile("application.properties",
+                s -> s + "quarkus.chicory.report.huge-method-limit=4000\n");
+        given().when().get("/test/resource/size").then().statusCode(200).body(is("2"));
+        assertGenerated("math-module");
+        assertGenerated("resource-module");
+    }
+
+    private static void assertReused(final String key) {
+        final List<String> messages = messages();
+        assertTrue(messages.contains("Wasm module " + key
+                + " is unchanged, reusing the previously generated bytecode and resources"), "Unexpected logs " + messages);
+        assertFalse(messages.stream().anyMatch(m -> m.startsWith("Generating bytecode") && m.contains(" for " + key + " ")),
+                "Unexpected logs " + messages);
+    }
+
+    private static void assertGenerated(final String key) {
+        final List<String> messages = messages();
+        assertTrue(messages.stream().anyMatch(m -> m.startsWith("Generating bytecode") && m.contains(" for " + key + " ")),
+                "Unexpected logs " + messages);
+    }
+
+    private static List<String> messages() {
+        return devModeTest.getLogRecords().stream().map(LogRecord::getMessage).collect(Collectors.toList());
+    }
+
+    /**
+     * Rewrites the initial pages of the memory section of memory.wasm, encoded as {@code 01 <min> <max LEB128>}.
+     */
+    private static byte[] withInitialPages(final byte[] payload, final int pages) {
+        final byte[] result = payload.clone();
+        for (int i = 8; i < result.length - 2; i++) {
+            // section id 5, one memory with a maximum
+            if (result[i] == 5 && result[i + 2] == 1 && result[i + 3] == 1) {
+                result[i + 4] = (byte) pages;
+                return result;
+            }
+        }
+        throw new IllegalStateException("No memory section found in memory.wasm");
+    }
+
+    @Path("/test/resource")
+    public static class SizeResource {
+
+        @Inject
+        @Named("resource-module")
+        WasmQuarkusContext wasmQuarkusContext;
+
+        @GET
+        @Path("/size")
+        public long size() {
+            return wasmQuarkusContext.getInstancePool().execute(instance -> instance.export("size").apply())[0];
+        }
+    }
+}
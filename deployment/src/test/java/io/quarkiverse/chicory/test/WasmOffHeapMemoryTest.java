@@ -0,0 +1,76 @@
+package io.quarkiverse.chicory.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import java.nio.ByteBuffer;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.dylibso.chicory.runtime.Instance;
+
+import io.quarkiverse.chicory.runtime.wasm.OffHeapMemory;
+import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests the off-heap linear memory, which is reallocated each time the guest grows it beyond the reserved capacity.
+ */
+public class WasmOffHeapMemoryTest {
+
+    private static final int PAGE_SIZE = 65536;
+
+    @RegisterExtension
+    static final QuarkusUnitTest unitTest = new QuarkusUnitTest()
+            .setArchiveProducer(() -> ShrinkWrap.create(JavaArchive.class)
+                    .addAsResource("wasm/memory.wasm", "wasm/memory.wasm"))
+            .overrideConfigKey("quarkus.chicory.modules.memory.name", "io.quarkiverse.chicory.test.OffHeapMemoryModule")
+            .overrideConfigKey("quarkus.chicory.modules.memory.wasm-resource", "wasm/memory.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.memory.memory.off-heap", "true")
+            .overrideConfigKey("quarkus.chicory.modules.memory.memory.initial-pages", "2");
+
+    @Inject
+    @Named("memory")
+    WasmQuarkusContext wasmQuarkusContext;
+
+    @Test
+    public void testGrowsSeveralTimes() {
+        final Instance instance = wasmQuarkusContext.newInstance();
+        assertInstanceOf(OffHeapMemory.class, instance.memory());
+        // growing by two pages at a time reallocates the buffer while it has spare capacity, since it doubles
+        int pages = 1;
+        for (int step = 1; step <= 5; step++) {
+            instance.export("store").apply((pages - 1) * PAGE_SIZE, step);
+            assertEquals(pages, instance.export("grow").apply(2)[0]);
+            pages += 2;
+        }
+        assertEquals(11, instance.export("size").apply()[0]);
+        for (int step = 1; step <= 5; step++) {
+            assertEquals(step, instance.export("load").apply((2 * step - 2) * PAGE_SIZE)[0]);
+        }
+    }
+
+    @Test
+    public void testViewSurvivesGrowth() {
+        final Instance instance = wasmQuarkusContext.newInstance();
+        final OffHeapMemory memory = (OffHeapMemory) instance.memory();
+        instance.export("store").apply(64, 42);
+        final ByteBuffer view = memory.view(64, 4);
+        assertEquals(42, view.getInt(0));
+
+        instance.export("grow").apply(4);
+        instance.export("store").apply(64, 43);
+        // the stale view still points to live memory, holding the content from before the growth
+        assertEquals(42, view.getInt(0));
+        assertEquals(43, memory.view(64, 4).getInt(0));
+
+        memory.release();
+        assertEquals(42, view.getInt(0));
+    }
+}
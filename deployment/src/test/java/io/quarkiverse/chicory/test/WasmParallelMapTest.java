@@ -0,0 +1,91 @@
+package io.quarkiverse.chicory.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.dylibso.chicory.runtime.Instance;
+import com.dylibso.chicory.wasm.ChicoryException;
+
+import io.quarkiverse.chicory.runtime.wasm.WasmInstancePool;
+import io.quarkiverse.chicory.runtime.wasm.WasmItemResult;
+import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that a bulk job is spread across the pooled instances, and that a failing item doesn't fail the job.
+ */
+public class WasmParallelMapTest {
+
+    private static final List<Integer> INPUTS = IntStream.range(0, 20).boxed().collect(Collectors.toList());
+    private static final int FAILING_INPUT = 7;
+
+    @RegisterExtension
+    static final QuarkusUnitTest unitTest = new QuarkusUnitTest()
+            .setArchiveProducer(() -> ShrinkWrap.create(JavaArchive.class)
+                    .addAsResource("wasm/memory.wasm", "wasm/memory.wasm"))
+            .overrideConfigKey("quarkus.chicory.modules.parallel.name", "io.quarkiverse.chicory.test.ParallelModule")
+            .overrideConfigKey("quarkus.chicory.modules.parallel.wasm-resource", "wasm/memory.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.parallel.pool.max-size", "3");
+
+    @Inject
+    @Named("parallel")
+    WasmQuarkusContext wasmQuarkusContext;
+
+    @Test
+    public void testFailingItemDoesNotFailTheJob() {
+        final WasmInstancePool pool = wasmQuarkusContext.getInstancePool();
+        assertResults(pool.parallelMap(INPUTS, WasmParallelMapTest::call));
+        assertEquals(0, pool.getBusyCount());
+    }
+
+    @Test
+    public void testOnGivenExecutor() {
+        final WasmInstancePool pool = wasmQuarkusContext.getInstancePool();
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            assertResults(pool.parallelMap(INPUTS, WasmParallelMapTest::call, executor));
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(0, pool.getBusyCount());
+    }
+
+    private static long call(final Instance instance, final Integer input) {
+        if (input == FAILING_INPUT) {
+            instance.export("trap").apply();
+        }
+        return instance.export("add").apply(input, input)[0];
+    }
+
+    private static void assertResults(final List<WasmItemResult<Long>> results) {
+        assertEquals(INPUTS.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            final WasmItemResult<Long> result = results.get(i);
+            if (i == FAILING_INPUT) {
+                assertTrue(result.isFailure());
+                assertInstanceOf(ChicoryException.class, result.getFailure());
+                assertThrows(IllegalStateException.class, result::get);
+            } else {
+                assertFalse(result.isFailure());
+                assertEquals(2L * i, result.get());
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package io.quarkiverse.chicory.test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.core.Response;
+
+import org.jboss.resteasy.reactive.server.ServerExceptionMapper;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.dylibso.chicory.runtime.Instance;
+
+import io.quarkiverse.chicory.runtime.wasm.WasmCapacityExceededException;
+import io.quarkiverse.chicory.runtime.wasm.WasmInstancePool;
+import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that callers are rejected once the instances are saturated, so that they can be answered with a 503.
+ */
+public class WasmPoolAdmissionTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest unitTest = new QuarkusUnitTest()
+            .setArchiveProducer(() -> ShrinkWrap.create(JavaArchive.class)
+                    .addClasses(AddResource.class)
+                    .addAsResource("wasm/memory.wasm", "wasm/memory.wasm"))
+            .overrideConfigKey("quarkus.chicory.modules.queued.name", "io.quarkiverse.chicory.test.QueuedModule")
+            .overrideConfigKey("quarkus.chicory.modules.queued.wasm-resource", "wasm/memory.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.queued.pool.max-size", "1")
+            .overrideConfigKey("quarkus.chicory.modules.queued.pool.max-queue", "0")
+            .overrideConfigKey("quarkus.chicory.modules.timed.name", "io.quarkiverse.chicory.test.TimedModule")
+            .overrideConfigKey("quarkus.chicory.modules.timed.wasm-resource", "wasm/memory.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.timed.pool.max-size", "1")
+            .overrideConfigKey("quarkus.chicory.modules.timed.pool.acquire-timeout", "100ms");
+
+    @Inject
+    @Named("queued")
+    WasmQuarkusContext queued;
+
+    @Inject
+    @Named("timed")
+    WasmQuarkusContext timed;
+
+    @Test
+    public void testRejectedWhenQueueIsFull() {
+        final WasmInstancePool pool = queued.getInstancePool();
+        final Instance instance = pool.borrow();
+        try {
+            assertThrows(WasmCapacityExceededException.class, pool::borrow);
+            assertEquals(1, pool.getRejectedCount());
+            given().when().get("/test/admission/add").then().statusCode(503).header("Retry-After", "1");
+            assertEquals(2, pool.getRejectedCount());
+        } finally {
+            pool.release(instance);
+        }
+        given().when().get("/test/admission/add").then().statusCode(200).body(is("42"));
+    }
+
+    @Test
+    public void testRejectedAfterAcquireTimeout() {
+        final WasmInstancePool pool = timed.getInstancePool();
+        final Instance instance = pool.borrow();
+        try {
+            assertThrows(WasmCapacityExceededException.class, pool::borrow);
+            assertEquals(1, pool.getTimeoutCount());
+            assertEquals(0, pool.getRejectedCount());
+        } finally {
+            pool.release(instance);
+        }
+        assertEquals(3, pool.execute(i -> i.export("add").apply(1, 2))[0]);
+    }
+
+    @Path("/test/admission")
+    public static class AddResource {
+
+        @Inject
+        @Named("queued")
+        WasmQuarkusContext wasmQuarkusContext;
+
+        @GET
+        @Path("/add")
+        public long add() {
+            return wasmQuarkusContext.getInstancePool().execute(instance -> instance.export("add").apply(40, 2))[0];
+        }
+
+        @ServerExceptionMapper
+        public Response mapCapacityExceeded(final WasmCapacityExceededException e) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).header("Retry-After", "1").build();
+        }
+    }
+}
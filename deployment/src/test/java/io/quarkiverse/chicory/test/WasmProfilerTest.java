@@ -0,0 +1,61 @@
+package io.quarkiverse.chicory.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.awaitility.Awaitility;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.chicory.runtime.wasm.WasmProfiler;
+import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that the sampling profiler attributes the time spent in an export to the Wasm functions it calls, named after
+ * the {@code name} custom section, which is kept even when the other custom sections are stripped.
+ */
+public class WasmProfilerTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest unitTest = new QuarkusUnitTest()
+            .setArchiveProducer(() -> ShrinkWrap.create(JavaArchive.class)
+                    .addAsResource("wasm/graph.wasm", "wasm/graph.wasm"))
+            .overrideConfigKey("quarkus.chicory.modules.graph.name", "io.quarkiverse.chicory.test.ProfiledGraphModule")
+            .overrideConfigKey("quarkus.chicory.modules.graph.wasm-resource", "wasm/graph.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.graph.compiler.strip-custom-sections", "true")
+            .overrideConfigKey("quarkus.chicory.modules.graph.profiler.enabled", "true")
+            .overrideConfigKey("quarkus.chicory.modules.graph.profiler.interval", "1ms");
+
+    @Inject
+    @Named("graph")
+    WasmQuarkusContext wasmQuarkusContext;
+
+    @Test
+    public void testSpinIsSampled() {
+        final WasmProfiler profiler = wasmQuarkusContext.getProfiler().orElseThrow();
+        profiler.reset();
+        assertEquals(0, profiler.getSampleCount());
+        assertEquals("", profiler.getCollapsedStacks());
+
+        Awaitility.await().atMost(Duration.ofSeconds(30)).until(() -> {
+            wasmQuarkusContext.getInstancePool().execute(instance -> instance.export("spin").apply(10_000_000));
+            return profiler.getSampleCount() > 0;
+        });
+
+        final List<String> lines = Arrays.stream(profiler.getCollapsedStacks().split("\n")).collect(Collectors.toList());
+        // the samples are attributed to the "spin" export, and to the functions named by the name section
+        assertTrue(lines.stream().allMatch(line -> line.startsWith("spin")), "Unexpected stacks " + lines);
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith("spin;spin")), "Unexpected stacks " + lines);
+    }
+}
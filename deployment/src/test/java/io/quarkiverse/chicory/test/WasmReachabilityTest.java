@@ -0,0 +1,75 @@
+package io.quarkiverse.chicory.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.logging.LogRecord;
+import java.util.stream.Collectors;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that the functions unreachable from the export allowlist are left to the interpreter, and that the exports
+ * called by the extension itself, i.e. the warmup export, the configured exports and the functions imported by linked
+ * modules, are always reachable.
+ */
+public class WasmReachabilityTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest unitTest = new QuarkusUnitTest()
+            .setArchiveProducer(() -> ShrinkWrap.create(JavaArchive.class)
+                    .addAsResource("wasm/graph.wasm", "wasm/graph.wasm")
+                    .addAsResource("wasm/imports.wasm", "wasm/imports.wasm")
+                    .addAsResource("wasm/twice.wasm", "wasm/twice.wasm"))
+            .overrideConfigKey("quarkus.chicory.modules.graph.name", "io.quarkiverse.chicory.test.ReachableGraphModule")
+            .overrideConfigKey("quarkus.chicory.modules.graph.wasm-resource", "wasm/graph.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.graph.compiler.exports", "a")
+            .overrideConfigKey("quarkus.chicory.modules.graph.warmup.export", "b")
+            .overrideConfigKey("quarkus.chicory.modules.graph.warmup.iterations", "1")
+            .overrideConfigKey("quarkus.chicory.modules.graph.exports.spin.pure", "false")
+            .overrideConfigKey("quarkus.chicory.modules.twice.name", "io.quarkiverse.chicory.test.ReachableTwiceModule")
+            .overrideConfigKey("quarkus.chicory.modules.twice.wasm-resource", "wasm/twice.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.twice.compiler.exports", "half")
+            .overrideConfigKey("quarkus.chicory.modules.imports.name",
+                    "io.quarkiverse.chicory.test.ReachableImportsModule")
+            .overrideConfigKey("quarkus.chicory.modules.imports.wasm-resource", "wasm/imports.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.imports.imports.env", "twice")
+            .setLogRecordPredicate(record -> record.getLoggerName().startsWith("io.quarkiverse.chicory.deployment"))
+            .assertLogRecords(WasmReachabilityTest::assertUnreachable);
+
+    @Inject
+    @Named("graph")
+    WasmQuarkusContext graph;
+
+    @Inject
+    @Named("imports")
+    WasmQuarkusContext imports;
+
+    @Test
+    public void testModulesRun() {
+        assertEquals(42, graph.getInstancePool().execute(instance -> instance.export("a").apply())[0]);
+        assertEquals(7, graph.getInstancePool().execute(instance -> instance.export("b").apply())[0]);
+        assertEquals(9, graph.getInstancePool().execute(instance -> instance.export("c").apply())[0]);
+        assertEquals(11, imports.newInstance().export("run").apply(5)[0]);
+    }
+
+    private static void assertUnreachable(final List<LogRecord> records) {
+        final List<String> messages = records.stream().map(LogRecord::getMessage).collect(Collectors.toList());
+        // only $dead and "c" are unreachable, "b" is the warmup export and "spin" is a configured export
+        assertTrue(messages.contains("2 functions of Wasm module graph are unreachable from [a], "
+                + "and will be left to the interpreter"), "Unexpected logs " + messages);
+        // "twice" is imported by the imports module
+        assertTrue(messages.stream().noneMatch(message -> message.contains("functions of Wasm module twice ")),
+                "Unexpected logs " + messages);
+    }
+}
@@ -0,0 +1,76 @@
+package io.quarkiverse.chicory.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.stream.Collectors;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that the compilation report is written by test mode builds, listing the functions left to the interpreter, and
+ * that an exceeded budget is reported.
+ */
+public class WasmReportTest {
+
+    private static final String REPORT_MESSAGE = "Wrote the Wasm compilation report to ";
+
+    @RegisterExtension
+    static final QuarkusUnitTest unitTest = new QuarkusUnitTest()
+            .setArchiveProducer(() -> ShrinkWrap.create(JavaArchive.class)
+                    .addAsResource("wasm/graph.wasm", "wasm/graph.wasm"))
+            .overrideConfigKey("quarkus.chicory.modules.graph.name", "io.quarkiverse.chicory.test.ReportedGraphModule")
+            .overrideConfigKey("quarkus.chicory.modules.graph.wasm-resource", "wasm/graph.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.graph.compiler.exports", "a,b")
+            .overrideConfigKey("quarkus.chicory.modules.graph.compiler.interpreted-functions", "4")
+            .overrideConfigKey("quarkus.chicory.modules.graph.compiler.budget.max-interpreted-functions", "0")
+            .setLogRecordPredicate(record -> record.getLoggerName().startsWith("io.quarkiverse.chicory.deployment"))
+            .assertLogRecords(WasmReportTest::assertReport);
+
+    @Inject
+    @Named("graph")
+    WasmQuarkusContext wasmQuarkusContext;
+
+    @Test
+    public void testModuleRuns() {
+        assertEquals(42, wasmQuarkusContext.getInstancePool().execute(instance -> instance.export("a").apply())[0]);
+    }
+
+    private static void assertReport(final List<LogRecord> records) {
+        final List<String> messages = records.stream().map(LogRecord::getMessage).collect(Collectors.toList());
+        final String written = messages.stream()
+                .filter(message -> message.startsWith(REPORT_MESSAGE))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No report written " + messages));
+        final String report;
+        try {
+            report = Files.readString(Path.of(written.substring(REPORT_MESSAGE.length())));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        assertTrue(report.contains("\"key\": \"graph\""), report);
+        assertTrue(report.contains("\"configuredInterpretedFunctions\": [4]"), report);
+        assertTrue(report.contains("\"unreachableFunctions\": [5, 6, 7, 8]"), report);
+
+        assertTrue(records.stream().anyMatch(record -> record.getLevel() == Level.WARNING
+                && record.getMessage().equals("Wasm module graph exceeds its compilation budget: "
+                        + "1 functions are left to the interpreter, the budget is 0")),
+                "No budget warning " + messages);
+    }
+}
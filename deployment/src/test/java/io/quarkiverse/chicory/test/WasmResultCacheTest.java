@@ -0,0 +1,169 @@
+package io.quarkiverse.chicory.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.awaitility.Awaitility;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.awaitility.Awaitility;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.dylibso.chicory.runtime.Instance;
+
+import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkiverse.chicory.runtime.wasm.WasmResultCache;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that the results of an exported function declared pure are cached, computed once for concurrent misses and
+ * copied for each caller, and that calls to other exports are not cached.
+ */
+public class WasmResultCacheTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest unitTest = new QuarkusUnitTest()
+            .setArchiveProducer(() -> ShrinkWrap.create(JavaArchive.class)
+                    .addAsResource("wasm/bytes.wasm", "wasm/bytes.wasm"))
+            .overrideConfigKey("quarkus.chicory.modules.bytes.name", "io.quarkiverse.chicory.test.CachedBytesModule")
+            .overrideConfigKey("quarkus.chicory.modules.bytes.wasm-resource", "wasm/bytes.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.bytes.exports.sum.pure", "true")
+            .overrideConfigKey("quarkus.chicory.modules.bytes.exports.sum.cache.max-size", "2");
+
+    @Inject
+    @Named("bytes")
+    WasmQuarkusContext wasmQuarkusContext;
+
+    @Test
+    public void testPureExportIsCached() {
+        final AtomicInteger guestCalls = new AtomicInteger();
+        final WasmResultCache cache = wasmQuarkusContext.getResultCache("sum").orElseThrow();
+        cache.clear();
+        final long hits = cache.getHitCount();
+
+        assertEquals(6, sum(new byte[] { 1, 2, 3 }, guestCalls));
+        assertEquals(6, sum(new byte[] { 1, 2, 3 }, guestCalls));
+        assertEquals(1, guestCalls.get());
+        assertEquals(hits + 1, cache.getHitCount());
+
+        assertEquals(7, sum(new byte[] { 3, 4 }, guestCalls));
+        assertEquals(2, guestCalls.get());
+        // the least recently used entry is evicted beyond two results
+        assertEquals(5, sum(new byte[] { 5 }, guestCalls));
+        assertEquals(2, cache.getSize());
+        assertEquals(6, sum(new byte[] { 1, 2, 3 }, guestCalls));
+        assertEquals(4, guestCalls.get());
+    }
+
+    @Test
+    public void testCachedResultIsCopied() {
+        final AtomicInteger guestCalls = new AtomicInteger();
+        wasmQuarkusContext.getResultCache("sum").orElseThrow().clear();
+        final byte[] input = { 2, 2 };
+        for (int i = 0; i < 3; i++) {
+            final byte[] result = wasmQuarkusContext.execute("sum", input, (instance, bytes) -> {
+                guestCalls.incrementAndGet();
+                return ByteBuffer.allocate(4).putInt(sum(instance, bytes)).array();
+            });
+            assertEquals(4, ByteBuffer.wrap(result).getInt());
+            // modifying the returned result doesn't modify the cached one
+            Arrays.fill(result, (byte) 0);
+        }
+        assertEquals(1, guestCalls.get());
+    }
+
+    @Test
+    public void testConcurrentMissesComputeOnce() throws Exception {
+        final WasmResultCache cache = wasmQuarkusContext.getResultCache("sum").orElseThrow();
+        cache.clear();
+        final long hits = cache.getHitCount();
+        final AtomicInteger guestCalls = new AtomicInteger();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final Future<Integer> first = executor.submit(() -> sum(new byte[] { 4, 5 }, guestCalls, entered, release));
+            assertTrue(entered.await(30, TimeUnit.SECONDS));
+            final List<Future<Integer>> others = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                others.add(executor.submit(() -> sum(new byte[] { 4, 5 }, guestCalls)));
+            }
+            // the other callers wait for the result of the first one
+            Awaitility.await().atMost(Duration.ofSeconds(30)).until(() -> cache.getHitCount() == hits + 3);
+            release.countDown();
+            assertEquals(9, first.get(30, TimeUnit.SECONDS));
+            for (Future<Integer> other : others) {
+                assertEquals(9, other.get(30, TimeUnit.SECONDS));
+            }
+            assertEquals(1, guestCalls.get());
+            assertEquals(1, cache.getSize());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testOtherExportsAreNotCached() {
+        assertTrue(wasmQuarkusContext.getResultCache("sum_shared").isEmpty());
+        final AtomicInteger guestCalls = new AtomicInteger();
+        final byte[] input = { 1, 1 };
+        for (int i = 0; i < 2; i++) {
+            final byte[] result = wasmQuarkusContext.execute("sum_shared", input, (instance, bytes) -> {
+                guestCalls.incrementAndGet();
+                return bytes;
+            });
+            assertArrayEquals(input, result);
+        }
+        assertEquals(2, guestCalls.get());
+    }
+
+    private int sum(final byte[] input, final AtomicInteger guestCalls) {
+        return sum(input, guestCalls, new CountDownLatch(0), new CountDownLatch(0));
+    }
+
+    private int sum(final byte[] input, final AtomicInteger guestCalls, final CountDownLatch entered,
+            final CountDownLatch release) {
+        final byte[] result = wasmQuarkusContext.execute("sum", input, (instance, bytes) -> {
+            guestCalls.incrementAndGet();
+            entered.countDown();
+            try {
+                if (!release.await(30, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("The computation was not released");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            return ByteBuffer.allocate(4).putInt(sum(instance, bytes)).array();
+        });
+        return ByteBuffer.wrap(result).getInt();
+    }
+
+    private static int sum(final Instance instance, final byte[] bytes) {
+        final int ptr = (int) instance.export("malloc").apply(bytes.length)[0];
+        try {
+            instance.memory().write(ptr, bytes);
+            return (int) instance.export("sum").apply(ptr, bytes.length)[0];
+        } finally {
+            instance.export("free").apply(ptr);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package io.quarkiverse.chicory.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.dylibso.chicory.compiler.InterpreterFallback;
+import com.dylibso.chicory.runtime.HostFunction;
+import com.dylibso.chicory.runtime.ImportValues;
+import com.dylibso.chicory.runtime.Instance;
+import com.dylibso.chicory.runtime.Machine;
+import com.dylibso.chicory.wasm.Parser;
+import com.dylibso.chicory.wasm.WasmModule;
+import com.dylibso.chicory.wasm.types.FunctionType;
+import com.dylibso.chicory.wasm.types.ValType;
+
+import io.quarkiverse.chicory.runtime.wasm.ExecutionMode;
+import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that a dynamically loaded module is compiled once with the execution mode picked per upload, or with the
+ * runtime compiler of dynamic modules, and with the compiler options of the dynamic module configuration.
+ */
+public class WasmRuntimeCompilerTest {
+
+    // the "run" export of imports.wasm, after the imported function
+    private static final int RUN_FUNCTION = 1;
+
+    @RegisterExtension
+    static final QuarkusUnitTest unitTest = new QuarkusUnitTest()
+            .setArchiveProducer(() -> ShrinkWrap.create(JavaArchive.class)
+                    .addAsResource("wasm/imports.wasm", "uploads/imports.wasm"))
+            // no payload is configured, as it's loaded at runtime
+            .overrideConfigKey("quarkus.chicory.modules.uploaded.name", "io.quarkiverse.chicory.test.UploadedModule")
+            .overrideConfigKey("quarkus.chicory.modules.uploaded.compiler.interpreted-functions",
+                    String.valueOf(RUN_FUNCTION));
+
+    @Inject
+    @Named("uploaded")
+    WasmQuarkusContext wasmQuarkusContext;
+
+    WasmModule module;
+
+    // whether the host function was called from the method generated for the "run" export
+    final AtomicBoolean calledFromCompiledRun = new AtomicBoolean();
+
+    @BeforeEach
+    public void parse() throws IOException {
+        try (InputStream input = Thread.currentThread().getContextClassLoader()
+                .getResourceAsStream("uploads/imports.wasm")) {
+            module = Parser.parse(input.readAllBytes());
+        }
+    }
+
+    @Test
+    public void testConfiguredInterpretedFunctions() {
+        final Function<Instance, Machine> machineFactory = wasmQuarkusContext.getMachineFactory(module,
+                ExecutionMode.RuntimeCompiler);
+        // the module is compiled once, and the machine factory builds any number of instances
+        assertEquals(11, run(machineFactory, 5));
+        assertEquals(21, run(machineFactory, 10));
+        assertFalse(calledFromCompiledRun.get());
+    }
+
+    @Test
+    public void testExplicitCompilerOptions() {
+        final Function<Instance, Machine> machineFactory = wasmQuarkusContext.getMachineFactory(module,
+                ExecutionMode.RuntimeCompiler, Set.of(), InterpreterFallback.FAIL);
+        assertEquals(11, run(machineFactory, 5));
+        assertTrue(calledFromCompiledRun.get());
+    }
+
+    @Test
+    public void testConfiguredMachineFactoryCompilesEachModuleOnce() throws IOException {
+        // the runtime compiler is used for dynamic modules, which compiles the module of the first instance only, so
+        // that the compiled machine class is shared
+        final Function<Instance, Machine> machineFactory = wasmQuarkusContext.getMachineFactory();
+        final List<Class<?>> machineClasses = new ArrayList<>();
+        final Function<Instance, Machine> recording = instance -> {
+            final Machine machine = machineFactory.apply(instance);
+            machineClasses.add(machine.getClass());
+            return machine;
+        };
+        assertEquals(11, run(recording, 5));
+        assertEquals(21, run(recording, 10));
+        assertEquals(machineClasses.get(0), machineClasses.get(1));
+        assertFalse(calledFromCompiledRun.get());
+
+        // another module is compiled on its own
+        parse();
+        assertEquals(11, run(recording, 5));
+        assertNotEquals(machineClasses.get(0), machineClasses.get(2));
+    }
+
+    @Test
+    public void testInterpreter() {
+        assertEquals(11, run(wasmQuarkusContext.getMachineFactory(module, ExecutionMode.Interpreter), 5));
+        assertFalse(calledFromCompiledRun.get());
+    }
+
+    @Test
+    public void testAsyncCompilation() throws Exception {
+        final Function<Instance, Machine> machineFactory = wasmQuarkusContext
+                .getMachineFactoryAsync(module, ExecutionMode.RuntimeCompiler)
+                .get(30, TimeUnit.SECONDS);
+        assertEquals(11, run(machineFactory, 5));
+        assertEquals(21, run(machineFactory, 10));
+        assertFalse(calledFromCompiledRun.get());
+    }
+
+    private long run(final Function<Instance, Machine> machineFactory, final long value) {
+        final HostFunction twice = new HostFunction("env", "twice",
+                FunctionType.of(List.of(ValType.I32), List.of(ValType.I32)),
+                (instance, args) -> {
+                    if (Arrays.stream(Thread.currentThread().getStackTrace())
+                            .anyMatch(frame -> frame.getMethodName().equals("func_" + RUN_FUNCTION))) {
+                        calledFromCompiledRun.set(true);
+                    }
+                    return new long[] { args[0] * 2 };
+                });
+        final Instance instance = Instance.builder(module)
+                .withImportValues(ImportValues.builder().addFunction(twice).build())
+                .withMachineFactory(machineFactory)
+                .build();
+        return instance.export("run").apply(value)[0];
+    }
+}
@@ -0,0 +1,83 @@
+package io.quarkiverse.chicory.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that a stream is fed through the init/update/finish exports in fixed-size chunks.
+ */
+public class WasmStreamTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest unitTest = new QuarkusUnitTest()
+            .setArchiveProducer(() -> ShrinkWrap.create(JavaArchive.class)
+                    .addAsResource("wasm/bytes.wasm", "wasm/bytes.wasm"))
+            .overrideConfigKey("quarkus.chicory.modules.stream.name", "io.quarkiverse.chicory.test.StreamModule")
+            .overrideConfigKey("quarkus.chicory.modules.stream.wasm-resource", "wasm/bytes.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.stream.exports.upper.stream.chunk-size", "4")
+            .overrideConfigKey("quarkus.chicory.modules.stream.exports.shout.stream.init", "upper_init")
+            .overrideConfigKey("quarkus.chicory.modules.stream.exports.shout.stream.update", "upper_update")
+            .overrideConfigKey("quarkus.chicory.modules.stream.exports.shout.stream.finish", "upper_finish")
+            .overrideConfigKey("quarkus.chicory.modules.stream.exports.shout.stream.chunk-size", "1024");
+
+    @Inject
+    @Named("stream")
+    WasmQuarkusContext wasmQuarkusContext;
+
+    @Test
+    public void testDefaultExportNames() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        // the last input chunk is partial, and the full ones are drained by an update with an empty input
+        wasmQuarkusContext.stream("upper",
+                new ByteArrayInputStream("hello world".getBytes(StandardCharsets.US_ASCII)), output);
+        assertEquals("HELLO WORLD", output.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void testOutputIsBoundedByChunkSize() throws IOException {
+        final byte[] input = new byte[100_000];
+        Arrays.fill(input, (byte) 'a');
+        final BoundedOutputStream output = new BoundedOutputStream();
+        wasmQuarkusContext.stream("shout", new ByteArrayInputStream(input), output);
+
+        final byte[] expected = new byte[input.length];
+        Arrays.fill(expected, (byte) 'A');
+        assertArrayEquals(expected, output.toByteArray());
+        assertTrue(output.largestWrite <= 1024, "Unexpected output chunk of " + output.largestWrite + " bytes");
+    }
+
+    @Test
+    public void testEmptyStream() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        wasmQuarkusContext.stream("upper", new ByteArrayInputStream(new byte[0]), output);
+        assertEquals(0, output.size());
+    }
+
+    private static final class BoundedOutputStream extends ByteArrayOutputStream {
+        private int largestWrite;
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            largestWrite = Math.max(largestWrite, len);
+            super.write(b, off, len);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package io.quarkiverse.chicory.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.chicory.runtime.WasmQuarkusUtils;
+import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that the custom sections of the {@code .meta} file of a module are stripped when configured, without touching
+ * the {@code .meta} file of another module generated by the same build.
+ */
+public class WasmStripCustomSectionsTest {
+
+    private static final String STRIPPED_MODULE = "io.quarkiverse.chicory.test.StrippedGraphModule";
+    private static final String KEPT_MODULE = "io.quarkiverse.chicory.test.KeptGraphModule";
+
+    @RegisterExtension
+    static final QuarkusUnitTest unitTest = new QuarkusUnitTest()
+            .setArchiveProducer(() -> ShrinkWrap.create(JavaArchive.class)
+                    .addAsResource("wasm/graph.wasm", "wasm/graph.wasm"))
+            .overrideConfigKey("quarkus.chicory.modules.stripped.name", STRIPPED_MODULE)
+            .overrideConfigKey("quarkus.chicory.modules.stripped.wasm-resource", "wasm/graph.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.stripped.compiler.strip-custom-sections", "true")
+            .overrideConfigKey("quarkus.chicory.modules.kept.name", KEPT_MODULE)
+            .overrideConfigKey("quarkus.chicory.modules.kept.wasm-resource", "wasm/graph.wasm");
+
+    @Inject
+    @Named("stripped")
+    WasmQuarkusContext stripped;
+
+    @Test
+    public void testCustomSectionsAreStripped() throws IOException {
+        assertEquals(List.of(), customSections(STRIPPED_MODULE));
+        assertEquals(List.of("name"), customSections(KEPT_MODULE));
+
+        // the stripped module still runs
+        assertEquals(42, stripped.getInstancePool().execute(instance -> instance.export("a").apply())[0]);
+        assertEquals(9, stripped.getInstancePool().execute(instance -> instance.export("c").apply())[0]);
+    }
+
+    /**
+     * Returns the names of the custom sections of the {@code .meta} file of a module, in order.
+     */
+    private static List<String> customSections(final String moduleName) throws IOException {
+        final byte[] payload;
+        try (InputStream input = WasmQuarkusUtils.getMetaWasmResourceStream(moduleName)) {
+            payload = input.readAllBytes();
+        }
+        final List<String> result = new ArrayList<>();
+        // skip the magic number and the version
+        final int[] position = { 8 };
+        while (position[0] < payload.length) {
+            final int id = payload[position[0]++];
+            final int size = readUnsignedLeb128(payload, position);
+            final int end = position[0] + size;
+            if (id == 0) {
+                final int nameLength = readUnsignedLeb128(payload, position);
+                result.add(new String(payload, position[0], nameLength, StandardCharsets.UTF_8));
+            }
+            position[0] = end;
+        }
+        return result;
+    }
+
+    private static int readUnsignedLeb128(final byte[] payload, final int[] position) {
+        int result = 0;
+        int shift = 0;
+        while (true) {
+            final int b = payload[position[0]++] & 0xff;
+            result |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+            shift += 7;
+        }
+    }
+}
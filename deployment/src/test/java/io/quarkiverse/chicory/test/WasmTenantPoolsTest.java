@@ -0,0 +1,69 @@
+package io.quarkiverse.chicory.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.awaitility.Awaitility;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.chicory.runtime.wasm.WasmInstancePool;
+import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkiverse.chicory.runtime.wasm.WasmTenantPools;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests the isolation, quotas and eviction of the tenant sub-pools.
+ */
+public class WasmTenantPoolsTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest unitTest = new QuarkusUnitTest()
+            .setArchiveProducer(() -> ShrinkWrap.create(JavaArchive.class)
+                    .addAsResource("wasm/memory.wasm", "wasm/memory.wasm"))
+            .overrideConfigKey("quarkus.chicory.modules.tenants.name", "io.quarkiverse.chicory.test.TenantsModule")
+            .overrideConfigKey("quarkus.chicory.modules.tenants.wasm-resource", "wasm/memory.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.tenants.pool.tenant.max-size", "1")
+            .overrideConfigKey("quarkus.chicory.modules.tenants.pool.tenant.max-pages", "2")
+            .overrideConfigKey("quarkus.chicory.modules.tenants.pool.tenant.idle-timeout", "1s");
+
+    @Inject
+    @Named("tenants")
+    WasmQuarkusContext wasmQuarkusContext;
+
+    @Test
+    public void testTenantsAreIsolated() {
+        final WasmTenantPools tenantPools = wasmQuarkusContext.getTenantPools();
+        assertEquals(1, tenantPools.execute("isolated-a", instance -> instance.export("incr").apply())[0]);
+        assertEquals(2, tenantPools.execute("isolated-a", instance -> instance.export("incr").apply())[0]);
+        assertEquals(1, tenantPools.execute("isolated-b", instance -> instance.export("incr").apply())[0]);
+    }
+
+    @Test
+    public void testInstancesBeyondMemoryBudgetAreDiscarded() {
+        final WasmTenantPools tenantPools = wasmQuarkusContext.getTenantPools();
+        assertEquals(1, tenantPools.execute("budget", instance -> instance.export("grow").apply(3))[0]);
+        assertEquals(1, tenantPools.execute("budget", instance -> instance.export("size").apply())[0]);
+    }
+
+    @Test
+    public void testIdleTenantIsEvicted() {
+        final WasmTenantPools tenantPools = wasmQuarkusContext.getTenantPools();
+        final WasmInstancePool evicted = tenantPools.get("evicted");
+        assertEquals(1, evicted.execute(instance -> instance.export("incr").apply())[0]);
+        Awaitility.await().atMost(Duration.ofSeconds(30)).until(() -> tenantPools.getTenantCount() == 0);
+
+        // an evicted sub-pool refuses to lend instances, and the tenant gets a new sub-pool
+        assertThrows(IllegalStateException.class, evicted::borrow);
+        assertEquals(1, tenantPools.execute("evicted", instance -> instance.export("incr").apply())[0]);
+        assertNotSame(evicted, tenantPools.get("evicted"));
+    }
+}
@@ -0,0 +1,132 @@
+package io.quarkiverse.chicory.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.chicory.runtime.wasm.WasmImport;
+import io.quarkiverse.chicory.runtime.wasm.WasmInstancePool;
+import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that exports calling a blocking host import can run on virtual threads, with more concurrent callers than
+ * carrier threads, which would deadlock if a blocked caller pinned its carrier thread. Skipped before Java 21.
+ */
+public class WasmVirtualThreadTest {
+
+    private static final int POOL_SIZE = 64;
+
+    @RegisterExtension
+    static final QuarkusUnitTest unitTest = new QuarkusUnitTest()
+            .setArchiveProducer(() -> ShrinkWrap.create(JavaArchive.class)
+                    .addClasses(BlockingDoubler.class)
+                    .addAsResource("wasm/imports.wasm", "wasm/imports.wasm"))
+            .overrideConfigKey("quarkus.chicory.modules.imports.name", "io.quarkiverse.chicory.test.VirtualThreadModule")
+            .overrideConfigKey("quarkus.chicory.modules.imports.wasm-resource", "wasm/imports.wasm")
+            .overrideConfigKey("quarkus.chicory.modules.imports.pool.max-size", String.valueOf(POOL_SIZE));
+
+    @Inject
+    @Named("imports")
+    WasmQuarkusContext wasmQuarkusContext;
+
+    @Inject
+    BlockingDoubler doubler;
+
+    @Test
+    public void testBlockingHostImportOnVirtualThreads() throws Exception {
+        // one more caller than carrier threads
+        final int callers = Math.min(Runtime.getRuntime().availableProcessors() + 1, POOL_SIZE);
+        doubler.reset(callers);
+        final WasmInstancePool pool = wasmQuarkusContext.getInstancePool();
+        final List<Future<Long>> results = new ArrayList<>();
+        final ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        try {
+            for (int i = 0; i < callers; i++) {
+                final long value = i;
+                results.add(executor.submit(() -> pool.execute(instance -> instance.export("run").apply(value))[0]));
+            }
+            // every caller is parked in the host import at the same time
+            assertTrue(doubler.entered.await(30, TimeUnit.SECONDS),
+                    (callers - doubler.entered.getCount()) + " of " + callers + " callers entered the host import");
+            assertEquals(callers, doubler.virtualCalls.get());
+            doubler.release.countDown();
+            for (int i = 0; i < callers; i++) {
+                assertEquals(2L * i + 1, results.get(i).get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            doubler.release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            // virtual threads are a preview feature before Java 21
+            Assumptions.abort("Virtual threads are not available: " + e);
+            return null;
+        }
+    }
+
+    // no client proxy, so that the test reads the fields of the bean
+    @Singleton
+    public static class BlockingDoubler {
+
+        volatile CountDownLatch entered = new CountDownLatch(0);
+        volatile CountDownLatch release = new CountDownLatch(0);
+        final AtomicInteger virtualCalls = new AtomicInteger();
+
+        void reset(final int callers) {
+            entered = new CountDownLatch(callers);
+            release = new CountDownLatch(1);
+            virtualCalls.set(0);
+        }
+
+        @WasmImport(module = "env", name = "twice")
+        int twice(final int value) {
+            if (isVirtual(Thread.currentThread())) {
+                virtualCalls.incrementAndGet();
+            }
+            entered.countDown();
+            try {
+                if (!release.await(30, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("The host import was not released");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            return value * 2;
+        }
+
+        private static boolean isVirtual(final Thread thread) {
+            try {
+                final Method isVirtual = Thread.class.getMethod("isVirtual");
+                return (Boolean) isVirtual.invoke(thread);
+            } catch (ReflectiveOperationException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+#!/bin/bash
+set -euxo pipefail
+
+# Rebuilds the Wasm modules used by the tests from their text format, with the WebAssembly Binary Toolkit (wabt).
+
+SCRIPT_DIR=$( cd -- "$( dirname -- "${BASH_SOURCE[0]}" )" &> /dev/null && pwd )
+
+(
+    cd ${SCRIPT_DIR}
+    for SOURCE_FILE in *.wat; do
+        # keep the function names, which the profiler and the build report display
+        wat2wasm --debug-names ${SOURCE_FILE} -o ${SOURCE_FILE%.wat}.wasm
+        echo "Built ${SOURCE_FILE%.wat}.wasm from ${SOURCE_FILE}"
+    done
+)
@@ -0,0 +1,146 @@
+;; Exchanges byte arrays with the host, through a stack-like bump allocator, to exercise the execute, batch and
+;; streaming helpers.
+(module
+  (memory (export "memory") 1)
+  (global $heap (mut i32) (i32.const 1024))
+  (global $batchCalls (mut i32) (i32.const 0))
+  (func $malloc (export "malloc") (param $size i32) (result i32)
+    global.get $heap
+    global.get $heap
+    local.get $size
+    i32.const 7
+    i32.add
+    i32.const -8
+    i32.and
+    i32.add
+    global.set $heap)
+  (func (export "free") (param $ptr i32)
+    local.get $ptr
+    global.get $heap
+    i32.lt_u
+    if
+      local.get $ptr
+      global.set $heap
+    end)
+  ;; returns the sum of the given bytes
+  (func $sum (export "sum") (param $ptr i32) (param $len i32) (result i32)
+    (local $acc i32) (local $i i32)
+    block
+      loop
+        local.get $i
+        local.get $len
+        i32.ge_u
+        br_if 1
+        local.get $acc
+        local.get $ptr
+        local.get $i
+        i32.add
+        i32.load8_u
+        i32.add
+        local.set $acc
+        local.get $i
+        i32.const 1
+        i32.add
+        local.set $i
+        br 0
+      end
+    end
+    local.get $acc)
+  (func (export "sum_shared") (param $sharedPtr i32) (param $sharedLen i32) (param $ptr i32) (param $len i32)
+      (result i32)
+    local.get $sharedPtr
+    local.get $sharedLen
+    call $sum
+    i32.const 1000
+    i32.mul
+    local.get $ptr
+    local.get $len
+    call $sum
+    i32.add)
+  ;; sums each (ptr, len) entry of the table into the i64 results
+  (func (export "sum_batch") (param $table i32) (param $count i32) (param $results i32)
+    (local $i i32)
+    global.get $batchCalls
+    i32.const 1
+    i32.add
+    global.set $batchCalls
+    block
+      loop
+        local.get $i
+        local.get $count
+        i32.ge_u
+        br_if 1
+        local.get $results
+        local.get $i
+        i32.const 8
+        i32.mul
+        i32.add
+        local.get $table
+        local.get $i
+        i32.const 8
+        i32.mul
+        i32.add
+        i32.load
+        local.get $table
+        local.get $i
+        i32.const 8
+        i32.mul
+        i32.add
+        i32.load offset=4
+        call $sum
+        i64.extend_i32_u
+        i64.store
+        local.get $i
+        i32.const 1
+        i32.add
+        local.set $i
+        br 0
+      end
+    end)
+  (func (export "batch_calls") (result i32)
+    global.get $batchCalls)
+  (func (export "upper_init") (result i32)
+    i32.const 1)
+  ;; upper-cases the ASCII letters of the input chunk
+  (func (export "upper_update") (param $handle i32) (param $in i32) (param $len i32) (param $out i32) (param $cap i32)
+      (result i32)
+    (local $i i32) (local $b i32)
+    block
+      loop
+        local.get $i
+        local.get $len
+        i32.ge_u
+        br_if 1
+        local.get $in
+        local.get $i
+        i32.add
+        i32.load8_u
+        local.set $b
+        local.get $b
+        i32.const 97
+        i32.ge_u
+        local.get $b
+        i32.const 122
+        i32.le_u
+        i32.and
+        if
+          local.get $b
+          i32.const 32
+          i32.sub
+          local.set $b
+        end
+        local.get $out
+        local.get $i
+        i32.add
+        local.get $b
+        i32.store8
+        local.get $i
+        i32.const 1
+        i32.add
+        local.set $i
+        br 0
+      end
+    end
+    local.get $len)
+  (func (export "upper_finish") (param $handle i32) (param $out i32) (param $cap i32) (result i32)
+    i32.const 0))
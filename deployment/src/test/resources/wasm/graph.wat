@@ -0,0 +1,46 @@
+;; A small call graph: "a" and "b" call a helper each, "c" calls $indirect through the table, $dead is never called,
+;; and "spin" loops over $spin_step.
+(module
+  (type $t (func (result i32)))
+  (table 1 funcref)
+  (func $a (export "a") (result i32)
+    call $helper)
+  (func $helper (result i32)
+    i32.const 42)
+  (func $b (export "b") (result i32)
+    call $b_helper)
+  (func $b_helper (result i32)
+    i32.const 7)
+  (func $indirect (result i32)
+    i32.const 9)
+  (func $dead (result i32)
+    i32.const 0)
+  (func $spin (export "spin") (param $n i32) (result i32)
+    (local $i i32) (local $acc i32)
+    block
+      loop
+        local.get $i
+        local.get $n
+        i32.ge_u
+        br_if 1
+        local.get $acc
+        call $spin_step
+        local.set $acc
+        local.get $i
+        i32.const 1
+        i32.add
+        local.set $i
+        br 0
+      end
+    end
+    local.get $acc)
+  (func $spin_step (param $x i32) (result i32)
+    local.get $x
+    i32.const 31
+    i32.mul
+    i32.const 7
+    i32.add)
+  (func $c (export "c") (result i32)
+    i32.const 0
+    call_indirect (type $t))
+  (elem (i32.const 0) $indirect))
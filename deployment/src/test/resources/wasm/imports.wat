@@ -0,0 +1,8 @@
+;; Calls a host (or linked) function.
+(module
+  (import "env" "twice" (func $twice (param i32) (result i32)))
+  (func (export "run") (param $x i32) (result i32)
+    local.get $x
+    call $twice
+    i32.const 1
+    i32.add))
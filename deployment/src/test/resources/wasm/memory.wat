@@ -0,0 +1,28 @@
+;; Exercises the linear memory sizing and the pooled instance lifecycle.
+(module
+  (memory (export "memory") 1 256)
+  (global $counter (mut i32) (i32.const 0))
+  (func (export "grow") (param $pages i32) (result i32)
+    local.get $pages
+    memory.grow)
+  (func (export "size") (result i32)
+    memory.size)
+  (func (export "store") (param $addr i32) (param $value i32)
+    local.get $addr
+    local.get $value
+    i32.store)
+  (func (export "load") (param $addr i32) (result i32)
+    local.get $addr
+    i32.load)
+  (func (export "incr") (result i32)
+    global.get $counter
+    i32.const 1
+    i32.add
+    global.set $counter
+    global.get $counter)
+  (func (export "trap")
+    unreachable)
+  (func (export "add") (param i32 i32) (result i32)
+    local.get 0
+    local.get 1
+    i32.add))
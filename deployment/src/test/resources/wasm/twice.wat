@@ -0,0 +1,11 @@
+;; Provides the function imported by imports.wat.
+(module
+  (memory (export "memory") 1)
+  (func (export "twice") (param $x i32) (result i32)
+    local.get $x
+    i32.const 2
+    i32.mul)
+  (func (export "half") (param $x i32) (result i32)
+    local.get $x
+    i32.const 2
+    i32.div_s))
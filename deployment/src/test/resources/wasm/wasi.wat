@@ -0,0 +1,247 @@
+;; Writes to the WASI standard streams, and reads and writes files in the "/data" and "/scratch" preopened
+;; directories, to exercise the WASI output sinks and the in-memory filesystem.
+(module
+  (import "wasi_snapshot_preview1" "fd_write" (func $fd_write (param i32 i32 i32 i32) (result i32)))
+  (import "wasi_snapshot_preview1" "path_open"
+    (func $path_open (param i32 i32 i32 i32 i32 i64 i64 i32 i32) (result i32)))
+  (import "wasi_snapshot_preview1" "fd_read" (func $fd_read (param i32 i32 i32 i32) (result i32)))
+  (import "wasi_snapshot_preview1" "fd_close" (func $fd_close (param i32) (result i32)))
+  (import "wasi_snapshot_preview1" "fd_prestat_get" (func $fd_prestat_get (param i32 i32) (result i32)))
+  (import "wasi_snapshot_preview1" "fd_prestat_dir_name" (func $fd_prestat_dir_name (param i32 i32 i32) (result i32)))
+  ;; 0: iovec, 8: nwritten/nread, 16: opened fd, 32: prestat, 48: preopen name, 1024: read buffer
+  (memory (export "memory") 1)
+  (data (i32.const 100) "hello from start\n")
+  (data (i32.const 120) "hello from say\n")
+  (data (i32.const 140) "/data")
+  (data (i32.const 150) "/scratch")
+  (data (i32.const 200) "greeting.txt")
+  (data (i32.const 220) "out.txt")
+
+  ;; returns the fd of the preopened directory with the given name, or -1
+  (func $find_dir (param $name i32) (param $len i32) (result i32)
+    (local $fd i32) (local $i i32) (local $eq i32)
+    i32.const 3
+    local.set $fd
+    block
+      loop
+        local.get $fd
+        i32.const 16
+        i32.ge_u
+        br_if 1
+        local.get $fd
+        i32.const 32
+        call $fd_prestat_get
+        i32.eqz
+        if
+          i32.const 36
+          i32.load
+          local.get $len
+          i32.eq
+          if
+            local.get $fd
+            i32.const 48
+            local.get $len
+            call $fd_prestat_dir_name
+            drop
+            i32.const 1
+            local.set $eq
+            i32.const 0
+            local.set $i
+            block
+              loop
+                local.get $i
+                local.get $len
+                i32.ge_u
+                br_if 1
+                i32.const 48
+                local.get $i
+                i32.add
+                i32.load8_u
+                local.get $name
+                local.get $i
+                i32.add
+                i32.load8_u
+                i32.ne
+                if
+                  i32.const 0
+                  local.set $eq
+                end
+                local.get $i
+                i32.const 1
+                i32.add
+                local.set $i
+                br 0
+              end
+            end
+            local.get $eq
+            if
+              local.get $fd
+              return
+            end
+          end
+        end
+        local.get $fd
+        i32.const 1
+        i32.add
+        local.set $fd
+        br 0
+      end
+    end
+    i32.const -1)
+
+  (func (export "_start")
+    i32.const 0
+    i32.const 100
+    i32.store
+    i32.const 4
+    i32.const 17
+    i32.store
+    i32.const 1
+    i32.const 0
+    i32.const 1
+    i32.const 8
+    call $fd_write
+    drop)
+
+  (func (export "say") (param $fd i32) (result i32)
+    i32.const 0
+    i32.const 120
+    i32.store
+    i32.const 4
+    i32.const 15
+    i32.store
+    local.get $fd
+    i32.const 0
+    i32.const 1
+    i32.const 8
+    call $fd_write)
+
+  ;; returns the number of bytes read from /data/greeting.txt, or a negated errno
+  (func (export "read_data") (result i32)
+    (local $dir i32) (local $errno i32)
+    (call $find_dir (i32.const 140) (i32.const 5))
+    local.tee $dir
+    i32.const 0
+    i32.lt_s
+    if
+      i32.const -100
+      return
+    end
+    ;; rights: fd_read
+    (call $path_open (local.get $dir) (i32.const 0) (i32.const 200) (i32.const 12) (i32.const 0)
+      (i64.const 2) (i64.const 0) (i32.const 0) (i32.const 16))
+    local.tee $errno
+    if
+      i32.const 0
+      local.get $errno
+      i32.sub
+      return
+    end
+    (call $read_opened))
+
+  ;; truncates /data/greeting.txt and writes to it, returns 0 or a negated errno
+  (func (export "write_data") (result i32)
+    (local $dir i32) (local $errno i32)
+    (call $find_dir (i32.const 140) (i32.const 5))
+    local.tee $dir
+    i32.const 0
+    i32.lt_s
+    if
+      i32.const -100
+      return
+    end
+    ;; oflags: trunc, rights: fd_read | fd_write
+    (call $path_open (local.get $dir) (i32.const 0) (i32.const 200) (i32.const 12) (i32.const 8)
+      (i64.const 66) (i64.const 0) (i32.const 0) (i32.const 16))
+    local.tee $errno
+    if
+      i32.const 0
+      local.get $errno
+      i32.sub
+      return
+    end
+    (call $write_opened))
+
+  ;; creates /scratch/out.txt and writes to it, returns 0 or a negated errno
+  (func (export "write_scratch") (result i32)
+    (local $dir i32) (local $errno i32)
+    (call $find_dir (i32.const 150) (i32.const 8))
+    local.tee $dir
+    i32.const 0
+    i32.lt_s
+    if
+      i32.const -100
+      return
+    end
+    ;; oflags: creat, rights: fd_read | fd_write
+    (call $path_open (local.get $dir) (i32.const 0) (i32.const 220) (i32.const 7) (i32.const 1)
+      (i64.const 66) (i64.const 0) (i32.const 0) (i32.const 16))
+    local.tee $errno
+    if
+      i32.const 0
+      local.get $errno
+      i32.sub
+      return
+    end
+    (call $write_opened))
+
+  ;; returns the number of bytes read from /scratch/out.txt, or a negated errno
+  (func (export "read_scratch") (result i32)
+    (local $dir i32) (local $errno i32)
+    (call $find_dir (i32.const 150) (i32.const 8))
+    local.tee $dir
+    i32.const 0
+    i32.lt_s
+    if
+      i32.const -100
+      return
+    end
+    (call $path_open (local.get $dir) (i32.const 0) (i32.const 220) (i32.const 7) (i32.const 0)
+      (i64.const 2) (i64.const 0) (i32.const 0) (i32.const 16))
+    local.tee $errno
+    if
+      i32.const 0
+      local.get $errno
+      i32.sub
+      return
+    end
+    (call $read_opened))
+
+  ;; reads the opened file, returns the number of bytes read or -1000 minus the errno
+  (func $read_opened (result i32)
+    (local $errno i32)
+    i32.const 0
+    i32.const 1024
+    i32.store
+    i32.const 4
+    i32.const 512
+    i32.store
+    (call $fd_read (i32.load (i32.const 16)) (i32.const 0) (i32.const 1) (i32.const 8))
+    local.tee $errno
+    if
+      i32.const -1000
+      local.get $errno
+      i32.sub
+      return
+    end
+    (call $fd_close (i32.load (i32.const 16)))
+    drop
+    i32.const 8
+    i32.load)
+
+  ;; writes to the opened file, returns 0 or a negated errno
+  (func $write_opened (result i32)
+    (local $errno i32)
+    i32.const 0
+    i32.const 120
+    i32.store
+    i32.const 4
+    i32.const 15
+    i32.store
+    (call $fd_write (i32.load (i32.const 16)) (i32.const 0) (i32.const 1) (i32.const 8))
+    local.set $errno
+    (call $fd_close (i32.load (i32.const 16)))
+    drop
+    i32.const 0
+    local.get $errno
+    i32.sub))
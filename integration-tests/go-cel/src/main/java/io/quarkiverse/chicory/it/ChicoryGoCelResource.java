@@ -16,11 +16,9 @@
 */
 package io.quarkiverse.chicory.it;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
-import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
@@ -35,10 +33,6 @@ import org.jboss.resteasy.reactive.RestForm;
 import com.dylibso.chicory.runtime.ExportFunction;
 import com.dylibso.chicory.runtime.Instance;
 import com.dylibso.chicory.runtime.Memory;
-import com.dylibso.chicory.runtime.Store;
-import com.dylibso.chicory.wasi.WasiOptions;
-import com.dylibso.chicory.wasi.WasiPreview1;
-import com.dylibso.chicory.wasm.WasmModule;
 
 import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
 
@@ -46,66 +40,12 @@ import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
 @ApplicationScoped
 public class ChicoryGoCelResource {
 
+    // Pooled instances are built with WASI, and their Go runtime is initialized by calling _start(), as configured via
+    // quarkus.chicory.modules.go-cel.wasi
     @Inject
     @Named("go-cel")
     WasmQuarkusContext wasmQuarkusContext;
 
-    Instance instance;
-    ExportFunction malloc;
-    ExportFunction free;
-    ExportFunction evalPolicy;
-    Memory memory;
-
-    @PostConstruct
-    public void init() throws IOException {
-        WasmModule wasmModule = wasmQuarkusContext.getWasmModule();
-        if (wasmModule == null) {
-            throw new IllegalStateException("Wasm module " + wasmQuarkusContext.getName() + " not found!");
-        }
-
-        // Create WASI support
-        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
-        ByteArrayOutputStream stderr = new ByteArrayOutputStream();
-
-        WasiOptions options = WasiOptions.builder()
-                .withStdout(stdout)
-                .withStderr(stderr)
-                .build();
-
-        WasiPreview1 wasi = WasiPreview1.builder()
-                .withOptions(options)
-                .build();
-
-        Store store = new Store().addFunction(wasi.toHostFunctions());
-
-        // WasmQuarkusContext provides Instance with MachineFactory dynamically
-        instance = Instance.builder(wasmModule)
-                .withMachineFactory(wasmQuarkusContext.getMachineFactory())
-                .withImportValues(store.toImportValues())
-                // Don't auto-run _start(), we'll call it manually
-                .withStart(false)
-                .build();
-
-        // Get exported functions BEFORE calling _start
-        malloc = instance.export("malloc");
-        free = instance.export("free");
-        evalPolicy = instance.export("evalPolicy");
-        memory = instance.memory();
-
-        // Initialize Go runtime by calling _start()
-        // This runs main() which exits, but we catch the expected WasiExitException
-        try {
-            ExportFunction start = instance.export("_start");
-            start.apply();
-        } catch (com.dylibso.chicory.wasi.WasiExitException e) {
-            // Expected - Go main() exits after completing
-            if (e.exitCode() != 0) {
-                throw new RuntimeException("Go runtime initialization failed with exit code: " + e.exitCode());
-            }
-            // Exit code 0 is success - runtime is now initialized and exported functions are ready
-        }
-    }
-
     @POST
     @Consumes(MediaType.MULTIPART_FORM_DATA)
     @Path("validate")
@@ -116,19 +56,66 @@ public class ChicoryGoCelResource {
         byte[] policyBytes = celPolicy.getBytes(StandardCharsets.UTF_8);
         byte[] inputBytes = manifestJson.getBytes(StandardCharsets.UTF_8);
 
+        int returnCode;
+        try {
+            // evalPolicy is declared pure, so the same policy and manifest are only evaluated once
+            byte[] input = ByteBuffer.allocate(4 + policyBytes.length + inputBytes.length)
+                    .putInt(policyBytes.length)
+                    .put(policyBytes)
+                    .put(inputBytes)
+                    .array();
+            returnCode = ByteBuffer.wrap(wasmQuarkusContext.execute("evalPolicy", input, ChicoryGoCelResource::evaluate))
+                    .getInt();
+        } catch (IllegalStateException e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(e.getMessage()).build();
+        }
+
+        // Interpret result
+        String message;
+        if (returnCode == 1) {
+            message = "Policy ALLOWS the request";
+        } else if (returnCode == 0) {
+            message = "Policy DENIES the request";
+        } else {
+            // Negative values are errors
+            String errorMsg = switch (returnCode) {
+                case -1 -> "JSON parse error";
+                case -2 -> "CEL environment creation error";
+                case -3 -> "CEL compilation error";
+                case -4 -> "CEL program creation error";
+                case -5 -> "CEL runtime error";
+                default -> "Unknown error: " + returnCode;
+            };
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("CEL evaluation failed: " + errorMsg).build();
+        }
+
+        return Response.ok(returnCode + " - " + message).build();
+    }
+
+    private static byte[] evaluate(Instance instance, byte[] input) {
+        ByteBuffer buffer = ByteBuffer.wrap(input);
+        byte[] policyBytes = new byte[buffer.getInt()];
+        buffer.get(policyBytes);
+        byte[] inputBytes = new byte[buffer.remaining()];
+        buffer.get(inputBytes);
+
+        ExportFunction malloc = instance.export("malloc");
+        ExportFunction free = instance.export("free");
+        Memory memory = instance.memory();
+
         // Allocate memory for policy string
         int policyPtr = (int) malloc.apply(policyBytes.length)[0];
         if (policyPtr == 0) {
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity("Failed to allocate memory for policy").build();
+            throw new IllegalStateException("Failed to allocate memory for policy");
         }
 
         // Allocate memory for input JSON
         int inputPtr = (int) malloc.apply(inputBytes.length)[0];
         if (inputPtr == 0) {
             free.apply(policyPtr);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity("Failed to allocate memory for input").build();
+            throw new IllegalStateException("Failed to allocate memory for input");
         }
 
         try {
@@ -137,30 +124,8 @@ public class ChicoryGoCelResource {
             memory.write(inputPtr, inputBytes);
 
             // Call evalPolicy(policyPtr, policyLen, inputPtr, inputLen)
-            long[] result = evalPolicy.apply(policyPtr, policyBytes.length, inputPtr, inputBytes.length);
-            int returnCode = (int) result[0];
-
-            // Interpret result
-            String message;
-            if (returnCode == 1) {
-                message = "Policy ALLOWS the request";
-            } else if (returnCode == 0) {
-                message = "Policy DENIES the request";
-            } else {
-                // Negative values are errors
-                String errorMsg = switch (returnCode) {
-                    case -1 -> "JSON parse error";
-                    case -2 -> "CEL environment creation error";
-                    case -3 -> "CEL compilation error";
-                    case -4 -> "CEL program creation error";
-                    case -5 -> "CEL runtime error";
-                    default -> "Unknown error: " + returnCode;
-                };
-                return Response.status(Response.Status.BAD_REQUEST)
-                        .entity("CEL evaluation failed: " + errorMsg).build();
-            }
-
-            return Response.ok(returnCode + " - " + message).build();
+            long[] result = instance.export("evalPolicy").apply(policyPtr, policyBytes.length, inputPtr, inputBytes.length);
+            return ByteBuffer.allocate(4).putInt((int) result[0]).array();
         } finally {
             // Free allocated memory
             free.apply(policyPtr);
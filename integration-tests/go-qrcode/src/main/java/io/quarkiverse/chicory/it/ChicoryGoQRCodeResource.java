@@ -16,11 +16,10 @@
 */
 package io.quarkiverse.chicory.it;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 
-import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
@@ -35,10 +34,6 @@ import jakarta.ws.rs.core.Response;
 import com.dylibso.chicory.runtime.ExportFunction;
 import com.dylibso.chicory.runtime.Instance;
 import com.dylibso.chicory.runtime.Memory;
-import com.dylibso.chicory.runtime.Store;
-import com.dylibso.chicory.wasi.WasiOptions;
-import com.dylibso.chicory.wasi.WasiPreview1;
-import com.dylibso.chicory.wasm.WasmModule;
 
 import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
 
@@ -46,73 +41,47 @@ import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
 @ApplicationScoped
 public class ChicoryGoQRCodeResource {
 
-    // We use the quarkus-chicory Wasm context to dynamically provide a MachineFactory instance
+    // Pooled instances are built with WASI, and the guest standard output and error are logged, as configured via
+    // quarkus.chicory.modules.qrcode.wasi
     @Inject
     @Named("qrcode")
     WasmQuarkusContext wasmQuarkusContext;
 
-    Instance instance;
-    ExportFunction malloc;
-    ExportFunction free;
-    ExportFunction generateQR;
-    Memory memory;
-
-    @PostConstruct
-    public void init() throws IOException {
-        WasmModule wasmModule = wasmQuarkusContext.getWasmModule();
-        if (wasmModule == null) {
-            throw new IllegalStateException("Wasm module " + wasmQuarkusContext.getName() + " not found!");
-        }
-
-        // STDOUT and STDERR streams to be used by WasiOptions
-        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
-        ByteArrayOutputStream stderr = new ByteArrayOutputStream();
-
-        WasiOptions options = WasiOptions.builder()
-                .withStdout(stdout)
-                .withStderr(stderr)
-                .build();
-
-        // Create WASI with options
-        WasiPreview1 wasi = WasiPreview1.builder()
-                .withOptions(options)
-                .build();
+    @GET
+    @Produces(MediaType.APPLICATION_OCTET_STREAM)
+    public Response generate(@QueryParam("text") @DefaultValue("Hello Chicory QR Code!") String text) {
+        byte[] textBytes = text.getBytes(StandardCharsets.UTF_8);
 
-        // Store manages WASI host functions
-        Store store = new Store().addFunction(wasi.toHostFunctions());
+        byte[] pngData;
+        try {
+            pngData = wasmQuarkusContext.getInstancePool().execute(instance -> generateQR(instance, textBytes));
+        } catch (IllegalStateException e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(e.getMessage()).build();
+        }
 
-        // Instance.builder combines both Store imports AND MachineFactory
-        instance = Instance.builder(wasmModule)
-                .withMachineFactory(wasmQuarkusContext.getMachineFactory())
-                .withImportValues(store.toImportValues())
+        return Response.ok(pngData)
+                .header("Content-Type", "image/png")
+                .header("Content-Disposition", "inline; filename=\"qrcode.png\"")
                 .build();
-
-        // Get exported functions
-        malloc = instance.export("malloc");
-        free = instance.export("free");
-        generateQR = instance.export("generateQR");
-        memory = instance.memory();
-
     }
 
-    @GET
-    @Produces(MediaType.APPLICATION_OCTET_STREAM)
-    public Response generate(@QueryParam("text") @DefaultValue("Hello Chicory QR Code!") String text) {
-        byte[] textBytes = text.getBytes(StandardCharsets.UTF_8);
+    private static byte[] generateQR(Instance instance, byte[] textBytes) {
+        ExportFunction malloc = instance.export("malloc");
+        ExportFunction free = instance.export("free");
+        Memory memory = instance.memory();
 
         // Allocate memory for input text
         int textPtr = (int) malloc.apply(textBytes.length)[0];
         if (textPtr == 0) {
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity("Failed to allocate memory for input text").build();
+            throw new IllegalStateException("Failed to allocate memory for input text");
         }
 
         // Allocate memory for output size (4 bytes for int)
         int sizePtr = (int) malloc.apply(4)[0];
         if (sizePtr == 0) {
             free.apply(textPtr);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity("Failed to allocate memory for output size").build();
+            throw new IllegalStateException("Failed to allocate memory for output size");
         }
 
         try {
@@ -120,28 +89,22 @@ public class ChicoryGoQRCodeResource {
             memory.write(textPtr, textBytes);
 
             // Call generateQR(textPtr, textLen, sizePtr)
-            long[] result = generateQR.apply(textPtr, textBytes.length, sizePtr);
+            long[] result = instance.export("generateQR").apply(textPtr, textBytes.length, sizePtr);
             int qrPtr = (int) result[0];
 
             if (qrPtr == 0) {
-                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                        .entity("Failed to generate QR code").build();
+                throw new IllegalStateException("Failed to generate QR code");
             }
 
             // Read the output size
             byte[] sizeBytes = memory.readBytes(sizePtr, 4);
-            int size = java.nio.ByteBuffer.wrap(sizeBytes).order(java.nio.ByteOrder.LITTLE_ENDIAN).getInt();
+            int size = ByteBuffer.wrap(sizeBytes).order(ByteOrder.LITTLE_ENDIAN).getInt();
 
             // Read the PNG data
-            byte[] pngData = memory.readBytes(qrPtr, size);
-
             // *Note*: We do not free qrPtr because it was allocated by Go's make(), not malloc,
             // therefore we rely on Go's GC to handle it.
             // Calling free() on Go-allocated memory causes a "trap".
-            return Response.ok(pngData)
-                    .header("Content-Type", "image/png")
-                    .header("Content-Disposition", "inline; filename=\"qrcode.png\"")
-                    .build();
+            return memory.readBytes(qrPtr, size);
         } finally {
             // Free our allocated memory
             free.apply(textPtr);
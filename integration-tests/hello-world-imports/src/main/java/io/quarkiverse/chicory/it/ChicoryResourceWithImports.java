@@ -16,72 +16,31 @@
 */
 package io.quarkiverse.chicory.it;
 
-import java.io.IOException;
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.List;
-
-import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import jakarta.inject.Named;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Response;
 
-import com.dylibso.chicory.runtime.HostFunction;
-import com.dylibso.chicory.runtime.ImportValues;
-import com.dylibso.chicory.runtime.Instance;
-import com.dylibso.chicory.wasm.WasmModule;
-import com.dylibso.chicory.wasm.types.FunctionType;
-import com.dylibso.chicory.wasm.types.ValType;
-
-import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkiverse.chicory.runtime.wasm.WasmInstance;
+import io.quarkiverse.chicory.runtime.wasm.WasmModuleKey;
 
 @Path("/chicory")
 @ApplicationScoped
 public class ChicoryResourceWithImports {
 
     @Inject
-    @Named("operation")
-    WasmQuarkusContext wasmQuarkusContext;
-
-    Instance instance;
+    @WasmModuleKey("operation")
+    WasmInstance wasmInstance;
 
-    private static final Deque expectedStack = new ArrayDeque<Integer>(2);
-
-    @PostConstruct
-    public void init() throws IOException {
-        WasmModule wasmModule = wasmQuarkusContext.getWasmModule();
-        if (wasmModule == null) {
-            throw new IllegalStateException("Wasm module " + wasmQuarkusContext.getName() + " not found!");
-        }
-        Instance.Builder builder = Instance
-                .builder(wasmModule)
-                .withImportValues(ImportValues.builder()
-                        .addFunction(
-                                new HostFunction(
-                                        "env",
-                                        "host_log",
-                                        FunctionType.of(List.of(ValType.I32), List.of()),
-                                        (inst, args) -> {
-                                            var num = (int) args[0];
-                                            assert expectedStack.pop().equals(num);
-                                            System.out.println("Number: " + num);
-                                            return null;
-                                        }))
-                        .build())
-                .withMachineFactory(wasmQuarkusContext.getMachineFactory());
-        instance = builder.build();
-    }
+    @Inject
+    HostLogger hostLogger;
 
     @GET
     public Response hello() {
-        expectedStack.add(41);
-        expectedStack.add(1);
+        hostLogger.expect(41, 1);
 
-        var result = instance
-                .exports()
-                .function("operation")
+        var result = wasmInstance
+                .export("operation")
                 .apply(41, 1);
 
         return Response.ok("Hello chicory: " + result[0]).build();
@@ -0,0 +1,45 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.quarkiverse.chicory.it;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import io.quarkiverse.chicory.runtime.wasm.WasmImport;
+import io.quarkus.logging.Log;
+
+@ApplicationScoped
+public class HostLogger {
+
+    // host imports run on the calling thread, so they don't hold a monitor, which would pin a virtual thread
+    private final Deque<Integer> expectedStack = new ConcurrentLinkedDeque<>();
+
+    public void expect(int... numbers) {
+        for (int number : numbers) {
+            expectedStack.add(number);
+        }
+    }
+
+    @WasmImport(module = "env", name = "host_log")
+    public void hostLog(int num) {
+        final Integer expected = expectedStack.poll();
+        assert expected != null && expected == num;
+        Log.debugf("Number: %d", num);
+    }
+}
@@ -35,6 +35,7 @@ import org.jboss.resteasy.reactive.multipart.FileUpload;
 
 import com.dylibso.chicory.runtime.Instance;
 import com.dylibso.chicory.wasm.Parser;
+import com.dylibso.chicory.wasm.WasmModule;
 
 import io.quarkiverse.chicory.runtime.wasm.ExecutionMode;
 import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
@@ -73,8 +74,9 @@ public class ChicoryDynamicResource {
                 throw new IllegalArgumentException("ERROR: Wasm module NOT uploaded 0");
             }
             Log.info("Wasm module uploaded, execution mode is " + executionMode);
-            instance = Instance.builder(Parser.parse(is.readAllBytes()))
-                    .withMachineFactory(wasmQuarkusContext.getMachineFactory())
+            final WasmModule module = Parser.parse(is.readAllBytes());
+            instance = Instance.builder(module)
+                    .withMachineFactory(wasmQuarkusContext.getMachineFactory(module, executionMode))
                     .build();
             return Response.accepted(wasmQuarkusContext).build();
         }
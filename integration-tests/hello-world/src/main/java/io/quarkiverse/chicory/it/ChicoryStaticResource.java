@@ -16,46 +16,27 @@
 */
 package io.quarkiverse.chicory.it;
 
-import java.io.IOException;
-
-import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import jakarta.inject.Named;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Response;
 
-import com.dylibso.chicory.runtime.Instance;
-import com.dylibso.chicory.wasm.WasmModule;
-
-import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkiverse.chicory.runtime.wasm.WasmInstance;
+import io.quarkiverse.chicory.runtime.wasm.WasmModuleKey;
 
 @Path("/chicory/static")
 @ApplicationScoped
 public class ChicoryStaticResource {
 
+    // The extension provides a request scoped instance of the statically configured Wasm module, borrowed from a pool
+    // and built with the right MachineFactory, so there's no need to build (and guard) an Instance here
     @Inject
-    @Named("operation-static")
-    WasmQuarkusContext wasmQuarkusContext;
-
-    Instance instance;
-
-    @PostConstruct
-    public void init() throws IOException {
-        WasmModule wasmModule = wasmQuarkusContext.getWasmModule();
-        if (wasmModule == null) {
-            throw new IllegalStateException("Wasm module " + wasmQuarkusContext.getName() + " not found!");
-        }
-        // The Wasm module is obtained by the name it was registered with,
-        // therefore, we can rely on the injected named bean to obtain the Chicory MachineFactory in @PostConstruct
-        Instance.Builder builder = Instance.builder(wasmModule)
-                .withMachineFactory(wasmQuarkusContext.getMachineFactory());
-        instance = builder.build();
-    }
+    @WasmModuleKey("operation-static")
+    WasmInstance wasmInstance;
 
     @GET
     public Response hello() {
-        var result = instance.export("operation").apply(41, 1);
+        var result = wasmInstance.export("operation").apply(41, 1);
         return Response.ok("Hello chicory (static): " + result[0]).build();
     }
 }
@@ -2,13 +2,18 @@ package io.quarkiverse.chicory.runtime;
 
 import java.io.File;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import com.dylibso.chicory.compiler.InterpreterFallback;
 
+import io.quarkiverse.chicory.runtime.wasm.BudgetAction;
 import io.quarkiverse.chicory.runtime.wasm.ExecutionMode;
+import io.quarkiverse.chicory.runtime.wasm.HugeFunctionStrategy;
+import io.quarkiverse.chicory.runtime.wasm.InstanceScope;
+import io.quarkiverse.chicory.runtime.wasm.StdioTarget;
 import io.quarkus.runtime.annotations.ConfigPhase;
 import io.quarkus.runtime.annotations.ConfigRoot;
 import io.smallrye.config.ConfigMapping;
@@ -29,6 +34,59 @@ public interface WasmQuarkusConfig {
      */
     Map<String, ModuleConfig> modules();
 
+    /**
+     * A reference to the native image configuration
+     *
+     * @return The {@link NativeConfig} instance representing the native image configuration
+     */
+    @WithName("native")
+    NativeConfig nativeImage();
+
+    /**
+     * Inner interface representing the configuration of the native image built for a Quarkus Chicory application.
+     */
+    interface NativeConfig {
+
+        /**
+         * Whether the raw {@code .wasm} payloads are included in the native image as resources. The payloads of
+         * statically configured modules aren't used at runtime, since the build time generated bytecode and
+         * {@code .meta} resources are used instead, so this is only needed by applications that load {@code .wasm}
+         * resources themselves
+         */
+        @WithName("include-wasm-payloads")
+        @WithDefault("false")
+        boolean includeWasmPayloads();
+    }
+
+    /**
+     * A reference to the build time compilation report configuration
+     *
+     * @return The {@link ReportConfig} instance representing the compilation report
+     */
+    ReportConfig report();
+
+    /**
+     * Inner interface representing the configuration of the compilation report written at build time, i.e.
+     * {@code chicory-report.json} and {@code chicory-report.html} in the build output directory.
+     */
+    interface ReportConfig {
+
+        /**
+         * Whether the compilation report is written
+         */
+        @WithName("enabled")
+        @WithDefault("true")
+        boolean enabled();
+
+        /**
+         * The size in bytes of a generated method above which the JVM doesn't JIT compile it, as per
+         * {@code -XX:HugeMethodLimit}
+         */
+        @WithName("huge-method-limit")
+        @WithDefault("8000")
+        int hugeMethodLimit();
+    }
+
     /**
      * Inner interface representing a single Wasm module configuration.
      */
@@ -76,6 +134,79 @@ public interface WasmQuarkusConfig {
          */
         CompilerConfig compiler();
 
+        /**
+         * A reference to the configuration of the instance pool managed by the extension for each Wasm module
+         *
+         * @return The {@link PoolConfig} instance representing the configuration of the managed instance pool
+         */
+        PoolConfig pool();
+
+        /**
+         * A reference to the configuration of the injectable instance bean per each Wasm module
+         *
+         * @return The {@link InstanceConfig} instance representing the configuration of the injectable
+         *         {@link io.quarkiverse.chicory.runtime.wasm.WasmInstance} bean
+         */
+        InstanceConfig instance();
+
+        /**
+         * A reference to the linear memory configuration per each Wasm module
+         *
+         * @return The {@link MemoryConfig} instance representing the sizing and growth policy applied to the memory of
+         *         instances built with the extension
+         */
+        MemoryConfig memory();
+
+        /**
+         * A reference to the startup warm-up configuration per each Wasm module
+         *
+         * @return The {@link WarmupConfig} instance representing the calls that are executed at startup, before the
+         *         application reports itself as ready
+         */
+        WarmupConfig warmup();
+
+        /**
+         * The configured Wasm modules that provide the functions imported by this Wasm module, keyed by import module
+         * name, e.g. {@code quarkus.chicory.modules.<module-key>.imports.env=<other-module-key>}. Each function imported
+         * from a linked import module is bound at build time to the function with the same name exported by the other
+         * Wasm module, and each instance of this module calls a dedicated instance of the other one
+         *
+         * @return A map of import module names to the keys of the configured Wasm modules that implement them
+         */
+        @WithName("imports")
+        Map<String, String> imports();
+
+        /**
+         * A reference to the WASI configuration of each Wasm module
+         *
+         * @return The {@link WasiConfig} instance representing the WASI environment of instances built with the
+         *         extension
+         */
+        WasiConfig wasi();
+
+        /**
+         * A reference to the sampling profiler configuration of each Wasm module
+         *
+         * @return The {@link ProfilerConfig} instance representing the sampling profiler of instances built with the
+         *         extension
+         */
+        ProfilerConfig profiler();
+
+        /**
+         * A reference to the guest memory management conventions of each Wasm module
+         *
+         * @return The {@link AbiConfig} instance representing the exports used to allocate guest memory
+         */
+        AbiConfig abi();
+
+        /**
+         * A reference to the configuration of the exported functions of each Wasm module, keyed by export name
+         *
+         * @return A map of export names to the {@link ExportConfig} instances representing their configuration
+         */
+        @WithName("exports")
+        Map<String, ExportConfig> exports();
+
         /**
          * Inner interface representing the build time compiler configuration for a single Wasm module.
          */
@@ -102,6 +233,519 @@ public interface WasmQuarkusConfig {
              */
             @WithName("interpreted-functions")
             Optional<List<Integer>> interpretedFunctions();
+
+            /**
+             * The exported functions called by the application, separated by commas. When set, the functions that
+             * cannot be reached from them, through direct calls, tables or function references, are not compiled to
+             * bytecode, and are left to the interpreter instead. The exports called by the extension itself, such as the
+             * warmup, ABI, batch and stream exports, {@code _start} and the functions imported by linked modules, are
+             * always reachable
+             */
+            @WithName("exports")
+            Optional<List<String>> exports();
+
+            /**
+             * How the functions whose generated method exceeds the huge method limit
+             * ({@code quarkus.chicory.report.huge-method-limit}) are handled
+             *
+             * @return {@link HugeFunctionStrategy} value that identifies how such functions are handled
+             */
+            @WithName("huge-functions")
+            @WithDefault("Compile")
+            HugeFunctionStrategy hugeFunctions();
+
+            /**
+             * Whether the custom sections of the generated {@code .meta} resource, e.g. names and debug information,
+             * are stripped, which makes the resource smaller and faster to parse at startup
+             */
+            @WithName("strip-custom-sections")
+            @WithDefault("false")
+            boolean stripCustomSections();
+
+            /**
+             * The names of the custom sections kept when stripping the custom sections of the generated {@code .meta}
+             * resource, separated by commas
+             */
+            @WithName("keep-custom-sections")
+            Optional<List<String>> keepCustomSections();
+
+            /**
+             * A reference to the budgets the code generated for each Wasm module is checked against at build time
+             *
+             * @return The {@link BudgetConfig} instance representing the budgets
+             */
+            BudgetConfig budget();
+
+            /**
+             * Inner interface representing the budgets the code generated for a single Wasm module is checked against
+             * at build time, so that performance cliffs show up in the build rather than in production.
+             */
+            interface BudgetConfig {
+
+                /**
+                 * The maximum number of functions left to the interpreter, configured ones included, but not the ones
+                 * that are unreachable from {@code compiler.exports}
+                 */
+                @WithName("max-interpreted-functions")
+                Optional<Integer> maxInterpretedFunctions();
+
+                /**
+                 * The maximum total size in bytes of the generated classes
+                 */
+                @WithName("max-generated-bytes")
+                Optional<Long> maxGeneratedBytes();
+
+                /**
+                 * The maximum number of generated methods exceeding the huge method limit
+                 * ({@code quarkus.chicory.report.huge-method-limit}), which the JVM never JIT compiles
+                 */
+                @WithName("max-huge-methods")
+                Optional<Integer> maxHugeMethods();
+
+                /**
+                 * The action to take when a budget is exceeded, i.e. {@code WARN} to log a warning, or {@code FAIL} to
+                 * fail the build
+                 */
+                @WithName("action")
+                @WithDefault("WARN")
+                BudgetAction action();
+            }
+        }
+
+        /**
+         * Inner interface representing the configuration of the instance pool managed by the extension for a single
+         * Wasm module.
+         */
+        interface PoolConfig {
+
+            /**
+             * The maximum number of instances that the pool creates for a configured Wasm module, i.e. the maximum
+             * number of concurrent executions
+             */
+            @WithName("max-size")
+            @WithDefault("8")
+            int maxSize();
+
+            /**
+             * The number of memory pages (64 KiB each) above which an instance is retired when it's returned to the
+             * pool, and replaced by a new one built in the background. Guests that never shrink their memory keep the
+             * peak allocation of their worst call otherwise
+             */
+            @WithName("retire-above-pages")
+            Optional<Integer> retireAbovePages();
+
+            /**
+             * The number of calls after which an instance is retired when it's returned to the pool, and replaced by a
+             * new one built in the background
+             */
+            @WithName("retire-after-calls")
+            Optional<Long> retireAfterCalls();
+
+            /**
+             * The maximum number of callers waiting for an instance when all of them are busy. Further callers are
+             * rejected with a {@link io.quarkiverse.chicory.runtime.wasm.WasmCapacityExceededException}. By default, the
+             * number of waiting callers is unbounded
+             */
+            @WithName("max-queue")
+            Optional<Integer> maxQueue();
+
+            /**
+             * The maximum time a caller waits for an instance when all of them are busy, before being rejected with a
+             * {@link io.quarkiverse.chicory.runtime.wasm.WasmCapacityExceededException}. This also applies to tenant
+             * sub-pools. By default, callers wait indefinitely
+             */
+            @WithName("acquire-timeout")
+            Optional<Duration> acquireTimeout();
+
+            /**
+             * A reference to the configuration of the isolated sub-pools created for each tenant
+             *
+             * @return The {@link TenantPoolConfig} instance representing the quotas of each tenant sub-pool
+             */
+            TenantPoolConfig tenant();
+
+            /**
+             * Inner interface representing the quotas of the isolated sub-pools created for each tenant of a single
+             * Wasm module.
+             */
+            interface TenantPoolConfig {
+
+                /**
+                 * The maximum number of instances of each tenant sub-pool
+                 */
+                @WithName("max-size")
+                @WithDefault("2")
+                int maxSize();
+
+                /**
+                 * The maximum total number of memory pages (64 KiB each) of the instances of each tenant sub-pool. An
+                 * instance returned to a sub-pool exceeding its budget is discarded
+                 */
+                @WithName("max-pages")
+                Optional<Integer> maxPages();
+
+                /**
+                 * The maximum number of callers waiting for an instance of each tenant sub-pool, further callers are
+                 * rejected
+                 */
+                @WithName("max-queue")
+                Optional<Integer> maxQueue();
+
+                /**
+                 * The time after which the sub-pool of a tenant that made no call is evicted, and its instances are
+                 * reclaimed
+                 */
+                @WithName("idle-timeout")
+                @WithDefault("10m")
+                Duration idleTimeout();
+            }
+        }
+
+        /**
+         * Inner interface representing the configuration of the injectable instance bean for a single Wasm module.
+         */
+        interface InstanceConfig {
+
+            /**
+             * The scope of the injectable {@link io.quarkiverse.chicory.runtime.wasm.WasmInstance} bean, which is only
+             * produced for statically configured Wasm modules
+             *
+             * @return {@link InstanceScope} value that identifies how instances are bound to callers
+             */
+            @WithName("scope")
+            @WithDefault("Request")
+            InstanceScope scope();
+        }
+
+        /**
+         * Inner interface representing the linear memory configuration for a single Wasm module.
+         */
+        interface MemoryConfig {
+
+            /**
+             * The number of memory pages (64 KiB each) that are reserved when an instance is created, so that the guest
+             * can grow its memory up to this size without the memory being reallocated and copied. This doesn't change
+             * the memory size that the guest observes
+             */
+            @WithName("initial-pages")
+            Optional<Integer> initialPages();
+
+            /**
+             * The maximum number of memory pages an instance can grow to. This caps the maximum declared by the Wasm
+             * module, and a {@code memory.grow} beyond it fails
+             */
+            @WithName("max-pages")
+            Optional<Integer> maxPages();
+
+            /**
+             * The minimum number of memory pages reserved each time the guest grows its memory beyond the reserved
+             * size. By default, the Chicory memory allocation strategy is used
+             */
+            @WithName("growth-increment")
+            Optional<Integer> growthIncrement();
+
+            /**
+             * Whether the memory of instances is allocated off-heap, as a direct buffer that is explicitly released when
+             * a pooled instance is discarded. This keeps large guest memories from adding GC pressure
+             */
+            @WithName("off-heap")
+            @WithDefault("false")
+            boolean offHeap();
+        }
+
+        /**
+         * Inner interface representing the startup warm-up configuration for a single Wasm module.
+         */
+        interface WarmupConfig {
+
+            /**
+             * The name of the exported function that is called to warm up the Wasm module. Warm-up is disabled when
+             * not set
+             */
+            @WithName("export")
+            Optional<String> export();
+
+            /**
+             * The arguments passed to the warm-up exported function, separated by commas
+             */
+            @WithName("args")
+            Optional<List<Long>> args();
+
+            /**
+             * A recorded input file, resolved as a classpath resource first and as a filesystem path otherwise.
+             * Each non-empty line that doesn't start with {@code #} holds a comma separated set of arguments, and
+             * the warm-up iterations cycle through all of them. This has precedence over {@link #args()}
+             */
+            @WithName("input-file")
+            Optional<String> inputFile();
+
+            /**
+             * The number of times the warm-up exported function is called
+             */
+            @WithName("iterations")
+            @WithDefault("1000")
+            int iterations();
+        }
+
+        /**
+         * Inner interface representing the WASI configuration of a single Wasm module, which is applied to the instances
+         * built by the extension.
+         */
+        interface WasiConfig {
+
+            /**
+             * Whether the WASI preview 1 host functions are provided to the instances built by the extension
+             */
+            @WithName("enabled")
+            @WithDefault("false")
+            boolean enabled();
+
+            /**
+             * Whether the {@code _start} export is called when an instance is built, tolerating a zero exit code, as
+             * guests such as Go programs exit after initializing their runtime
+             */
+            @WithName("run-start")
+            @WithDefault("true")
+            boolean runStart();
+
+            /**
+             * The target of the guest standard output
+             *
+             * @return {@link StdioTarget} value that identifies where the guest standard output is written
+             */
+            @WithName("stdout")
+            @WithDefault("Log")
+            StdioTarget stdout();
+
+            /**
+             * The target of the guest standard error
+             *
+             * @return {@link StdioTarget} value that identifies where the guest standard error is written
+             */
+            @WithName("stderr")
+            @WithDefault("Log")
+            StdioTarget stderr();
+
+            /**
+             * The maximum number of lines waiting to be logged, further lines are dropped until the queue drains, or
+             * the number of lines kept by a ring buffer
+             */
+            @WithName("buffer-lines")
+            @WithDefault("1024")
+            int bufferLines();
+
+            /**
+             * The maximum length in bytes of a line, longer lines are split
+             */
+            @WithName("max-line-length")
+            @WithDefault("8192")
+            int maxLineLength();
+
+            /**
+             * The command line arguments passed to the guest, the first one being the program name
+             */
+            @WithName("args")
+            Optional<List<String>> args();
+
+            /**
+             * The environment variables passed to the guest
+             */
+            @WithName("env")
+            Map<String, String> env();
+
+            /**
+             * The host directories made available to the guest, keyed by guest path
+             */
+            @WithName("preopens")
+            Map<String, String> preopens();
+
+            /**
+             * A reference to the in-memory filesystem shared by the instances of each Wasm module
+             *
+             * @return The {@link FilesystemConfig} instance representing the in-memory filesystem
+             */
+            FilesystemConfig filesystem();
+
+            /**
+             * Inner interface representing an in-memory filesystem snapshot, built once when the first instance is
+             * built, and preopened read-only by all the instances built by the extension.
+             */
+            interface FilesystemConfig {
+
+                /**
+                 * The guest path where the snapshot is preopened
+                 */
+                @WithName("mount")
+                @WithDefault("/data")
+                String mount();
+
+                /**
+                 * The classpath resources copied into the snapshot, keeping their relative path
+                 */
+                @WithName("resources")
+                Optional<List<String>> resources();
+
+                /**
+                 * The host directory whose content is copied recursively into the snapshot
+                 */
+                @WithName("directory")
+                Optional<String> directory();
+
+                /**
+                 * The guest path of a writable scratch directory, which is private to each instance
+                 */
+                @WithName("scratch")
+                Optional<String> scratch();
+            }
+        }
+
+        /**
+         * Inner interface representing the configuration of the sampling profiler of a single Wasm module, which
+         * attributes the time spent in the instances built by the extension to Wasm functions.
+         */
+        interface ProfilerConfig {
+
+            /**
+             * Whether the threads executing exported functions are sampled
+             */
+            @WithName("enabled")
+            @WithDefault("false")
+            boolean enabled();
+
+            /**
+             * The interval between two samples
+             */
+            @WithName("interval")
+            @WithDefault("20ms")
+            Duration interval();
+
+            /**
+             * The file the collapsed stacks are periodically written to, e.g. to render a flame graph
+             */
+            @WithName("output")
+            Optional<String> output();
+        }
+
+        /**
+         * Inner interface representing the guest memory management conventions of a single Wasm module, which the
+         * extension relies on to pass inputs through guest memory.
+         */
+        interface AbiConfig {
+
+            /**
+             * The name of the exported function that allocates guest memory, taking a size and returning a pointer
+             */
+            @WithName("alloc")
+            @WithDefault("malloc")
+            String alloc();
+
+            /**
+             * The name of the exported function that frees guest memory, taking a pointer
+             */
+            @WithName("free")
+            @WithDefault("free")
+            String free();
+        }
+
+        /**
+         * Inner interface representing the configuration of a single exported function of a Wasm module.
+         */
+        interface ExportConfig {
+
+            /**
+             * The name of an exported function that processes a whole batch of inputs in a single call, as an
+             * alternative to calling this export once per input. It takes the pointer and length of the shared input
+             * (if any), the pointer to a table of {@code count} pairs of i32 pointers and lengths, {@code count}, and
+             * the pointer where it writes {@code count} i64 results
+             */
+            @WithName("batch-export")
+            Optional<String> batchExport();
+
+            /**
+             * Whether the exported function is pure, i.e. it always returns the same result for the same input and has
+             * no observable side effect, so that its results can be cached
+             */
+            @WithName("pure")
+            @WithDefault("false")
+            boolean pure();
+
+            /**
+             * A reference to the streaming configuration of an exported function
+             *
+             * @return The {@link StreamConfig} instance representing the exports that process a stream in chunks
+             */
+            StreamConfig stream();
+
+            /**
+             * A reference to the result cache configuration of a pure exported function
+             *
+             * @return The {@link CacheConfig} instance representing how results are cached
+             */
+            CacheConfig cache();
+
+            /**
+             * Inner interface representing the streaming configuration of an exported function, which processes a
+             * stream in fixed-size chunks through an init/update/finish export convention.
+             */
+            interface StreamConfig {
+
+                /**
+                 * The name of the exported function that starts processing a stream, returning a handle that is passed
+                 * to the update and finish exports. Defaults to {@code <name>_init}
+                 */
+                @WithName("init")
+                Optional<String> init();
+
+                /**
+                 * The name of the exported function that processes an input chunk, taking the handle, the input chunk
+                 * pointer and length, and the output buffer pointer and capacity, and returning the number of output
+                 * bytes it wrote. Defaults to {@code <name>_update}
+                 */
+                @WithName("update")
+                Optional<String> update();
+
+                /**
+                 * The name of the exported function that flushes the remaining output once the input is exhausted,
+                 * taking the handle, and the output buffer pointer and capacity, and returning the number of output
+                 * bytes it wrote. It's called until it returns {@code 0}. Defaults to {@code <name>_finish}
+                 */
+                @WithName("finish")
+                Optional<String> finish();
+
+                /**
+                 * The size in bytes of the input chunks and of the output buffer, which bounds the memory used to
+                 * process a stream
+                 */
+                @WithName("chunk-size")
+                @WithDefault("65536")
+                int chunkSize();
+            }
+
+            /**
+             * Inner interface representing the result cache configuration of a pure exported function.
+             */
+            interface CacheConfig {
+
+                /**
+                 * The maximum number of results that are cached, the least recently used ones are evicted first
+                 */
+                @WithName("max-size")
+                @WithDefault("1024")
+                int maxSize();
+
+                /**
+                 * The time after which a cached result expires. By default, results don't expire
+                 */
+                @WithName("ttl")
+                Optional<Duration> ttl();
+
+                /**
+                 * The maximum total size in bytes of the cached inputs and results, the least recently used ones are
+                 * evicted first. By default, only the number of results is bounded
+                 */
+                @WithName("max-weight")
+                Optional<Long> maxWeight();
+            }
         }
     }
 }
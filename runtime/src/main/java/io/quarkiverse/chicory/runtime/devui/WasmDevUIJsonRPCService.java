@@ -0,0 +1,102 @@
+package io.quarkiverse.chicory.runtime.devui;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.enterprise.inject.literal.NamedLiteral;
+import jakarta.inject.Inject;
+
+import io.quarkiverse.chicory.runtime.WasmQuarkusConfig;
+import io.quarkiverse.chicory.runtime.wasm.ExecutionMode;
+import io.quarkiverse.chicory.runtime.wasm.WasmModuleStats;
+import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkus.arc.Arc;
+
+/**
+ * The Dev UI JSON-RPC service of the extension, which exposes the performance statistics of each configured Wasm
+ * module, and allows switching its execution mode.
+ * <p>
+ * It is registered by the extension only in dev mode.
+ * </p>
+ */
+public class WasmDevUIJsonRPCService {
+
+    @Inject
+    WasmQuarkusConfig config;
+
+    /**
+     * Returns the execution mode and performance statistics of each configured Wasm module.
+     *
+     * @return A list of modules, as JSON objects
+     */
+    public List<Map<String, Object>> getModules() {
+        final List<Map<String, Object>> modules = new ArrayList<>();
+        for (Map.Entry<String, WasmQuarkusConfig.ModuleConfig> moduleConfigEntry : config.modules().entrySet()) {
+            final String key = moduleConfigEntry.getKey();
+            final WasmQuarkusContext context = lookupContext(key);
+            final Map<String, Object> module = new LinkedHashMap<>();
+            module.put("key", key);
+            module.put("name", context.getName());
+            module.put("executionMode", context.getExecutionMode().name());
+            module.put("dynamic", moduleConfigEntry.getValue().wasmFile().isEmpty()
+                    && moduleConfigEntry.getValue().wasmResource().isEmpty());
+            module.put("stats", context.getStats().map(WasmDevUIJsonRPCService::toJson).orElse(null));
+            module.put("previousStats", context.getPreviousStats().map(WasmDevUIJsonRPCService::toJson).orElse(null));
+            modules.add(module);
+        }
+        return modules;
+    }
+
+    /**
+     * Switches the execution mode of a Wasm module.
+     *
+     * @param key The key of the Wasm module
+     * @param executionMode The name of the new {@link ExecutionMode}
+     * @return The modules, as returned by {@link #getModules()}
+     */
+    public List<Map<String, Object>> switchExecutionMode(final String key, final String executionMode) {
+        lookupContext(key).switchExecutionMode(ExecutionMode.valueOf(executionMode));
+        return getModules();
+    }
+
+    private static WasmQuarkusContext lookupContext(final String key) {
+        return Arc.container()
+                .select(WasmQuarkusContext.class, NamedLiteral.of(key))
+                .get();
+    }
+
+    private static Map<String, Object> toJson(final WasmModuleStats stats) {
+        final Map<String, Object> json = new LinkedHashMap<>();
+        json.put("executionMode", stats.getExecutionMode().name());
+        json.put("parseMillis", toMillis(stats.getParseNanos()));
+        json.put("machineMillis", toMillis(stats.getMachineNanos()));
+        json.put("instantiateMillis", toMillis(stats.getInstantiateNanos()));
+        json.put("instanceCount", stats.getInstanceCount());
+        json.put("lastPages", stats.getLastPages());
+        json.put("maxPages", stats.getMaxPages());
+        final List<Map<String, Object>> exports = new ArrayList<>();
+        for (Map.Entry<String, WasmModuleStats.ExportStats> exportEntry : stats.getExports().entrySet()) {
+            final WasmModuleStats.ExportStats exportStats = exportEntry.getValue();
+            final Map<String, Object> export = new LinkedHashMap<>();
+            export.put("name", exportEntry.getKey());
+            export.put("callCount", exportStats.getCallCount());
+            export.put("callRate", exportStats.getCallRate());
+            export.put("p50Micros", toMicros(exportStats.getLatencyPercentile(50)));
+            export.put("p95Micros", toMicros(exportStats.getLatencyPercentile(95)));
+            export.put("p99Micros", toMicros(exportStats.getLatencyPercentile(99)));
+            exports.add(export);
+        }
+        json.put("exports", exports);
+        return json;
+    }
+
+    private static double toMillis(final long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static double toMicros(final long nanos) {
+        return nanos / 1_000.0;
+    }
+}
@@ -0,0 +1,43 @@
+package io.quarkiverse.chicory.runtime.health;
+
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.HealthCheckResponseBuilder;
+import org.eclipse.microprofile.health.Readiness;
+
+import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+
+/**
+ * A readiness health check that reports the application as ready only after every configured Wasm module has
+ * completed its startup warm-up.
+ * <p>
+ * It is registered by the extension only if the SmallRye Health extension is present.
+ * </p>
+ */
+@Readiness
+public class WasmWarmupReadinessCheck implements HealthCheck {
+
+    @Inject
+    @Any
+    Instance<WasmQuarkusContext> wasmQuarkusContexts;
+
+    @Override
+    public HealthCheckResponse call() {
+        final HealthCheckResponseBuilder builder = HealthCheckResponse.named("Chicory Wasm modules warm-up").up();
+        for (WasmQuarkusContext wasmQuarkusContext : wasmQuarkusContexts) {
+            if (wasmQuarkusContext.getWarmupFailure().isPresent()) {
+                builder.down().withData(wasmQuarkusContext.getModuleKey(),
+                        "failed: " + wasmQuarkusContext.getWarmupFailure().get().getMessage());
+            } else if (!wasmQuarkusContext.isWarmedUp()) {
+                builder.down().withData(wasmQuarkusContext.getModuleKey(), "warming up");
+            } else {
+                builder.withData(wasmQuarkusContext.getModuleKey(), "ready");
+            }
+        }
+        return builder.build();
+    }
+}
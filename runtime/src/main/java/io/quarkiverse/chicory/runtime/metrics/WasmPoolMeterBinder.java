@@ -0,0 +1,62 @@
+package io.quarkiverse.chicory.runtime.metrics;
+
+import java.util.Map;
+
+import jakarta.enterprise.inject.literal.NamedLiteral;
+import jakarta.inject.Inject;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.quarkiverse.chicory.runtime.WasmQuarkusConfig;
+import io.quarkiverse.chicory.runtime.wasm.WasmQuarkusContext;
+import io.quarkus.arc.Arc;
+
+/**
+ * Binds the admission metrics of the instance pool of each statically configured Wasm module to the Micrometer
+ * registry: the number of busy and idle instances, the queue depth, and the number of rejected callers, tagged by
+ * module and by rejection reason.
+ * <p>
+ * It is registered by the extension only if the Micrometer extension is present.
+ * </p>
+ */
+public class WasmPoolMeterBinder implements MeterBinder {
+
+    @Inject
+    WasmQuarkusConfig config;
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        for (Map.Entry<String, WasmQuarkusConfig.ModuleConfig> moduleConfigEntry : config.modules().entrySet()) {
+            final WasmQuarkusConfig.ModuleConfig moduleConfig = moduleConfigEntry.getValue();
+            if (moduleConfig.wasmFile().isEmpty() && moduleConfig.wasmResource().isEmpty()) {
+                continue;
+            }
+            final String key = moduleConfigEntry.getKey();
+            final WasmQuarkusContext context = Arc.container()
+                    .select(WasmQuarkusContext.class, NamedLiteral.of(key))
+                    .get();
+            Gauge.builder("chicory.pool.busy", context, c -> c.getInstancePool().getBusyCount())
+                    .description("The number of borrowed instances")
+                    .tag("module", key)
+                    .register(registry);
+            Gauge.builder("chicory.pool.idle", context, c -> c.getInstancePool().getIdleCount())
+                    .description("The number of idle instances")
+                    .tag("module", key)
+                    .register(registry);
+            Gauge.builder("chicory.pool.queue", context, c -> c.getInstancePool().getQueueLength())
+                    .description("The number of callers waiting for an instance")
+                    .tag("module", key)
+                    .register(registry);
+            FunctionCounter.builder("chicory.pool.rejected", context, c -> c.getInstancePool().getRejectedCount())
+                    .description("The number of callers rejected because too many callers were waiting")
+                    .tags("module", key, "reason", "queue-full")
+                    .register(registry);
+            FunctionCounter.builder("chicory.pool.rejected", context, c -> c.getInstancePool().getTimeoutCount())
+                    .description("The number of callers rejected because no instance became available in time")
+                    .tags("module", key, "reason", "timeout")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package io.quarkiverse.chicory.runtime.wasm;
+
+/**
+ * Defines what happens when the code generated for a Wasm module exceeds one of the compilation budgets configured via
+ * {@code quarkus.chicory.modules.<module-key>.compiler.budget}.
+ */
+public enum BudgetAction {
+    /**
+     * A warning listing the exceeded budgets is logged, and the build goes on. This is the default action.
+     */
+    WARN,
+
+    /**
+     * The build fails, with a message listing the exceeded budgets.
+     */
+    FAIL;
+}
@@ -1,10 +1,11 @@
 package io.quarkiverse.chicory.runtime.wasm;
 
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
-import com.dylibso.chicory.compiler.MachineFactoryCompiler;
+import com.dylibso.chicory.compiler.InterpreterFallback;
 import com.dylibso.chicory.runtime.Instance;
 import com.dylibso.chicory.runtime.InterpreterMachine;
 import com.dylibso.chicory.runtime.Machine;
@@ -16,9 +17,18 @@ import io.quarkus.logging.Log;
  */
 public class DevTestModeMachineFactoryProvider implements Supplier<Function<Instance, Machine>> {
     private final ExecutionMode executionMode;
+    private final Set<Integer> interpretedFunctions;
+    private final InterpreterFallback interpreterFallback;
 
     public DevTestModeMachineFactoryProvider(final ExecutionMode executionMode) {
+        this(executionMode, Set.of(), InterpreterFallback.WARN);
+    }
+
+    public DevTestModeMachineFactoryProvider(final ExecutionMode executionMode, final Set<Integer> interpretedFunctions,
+            final InterpreterFallback interpreterFallback) {
         this.executionMode = executionMode;
+        this.interpretedFunctions = interpretedFunctions;
+        this.interpreterFallback = interpreterFallback;
     }
 
     @Override
@@ -27,7 +37,7 @@ public class DevTestModeMachineFactoryProvider implements Supplier<Function<Inst
         // modules
         if (Objects.requireNonNull(executionMode) == ExecutionMode.RuntimeCompiler) {
             Log.info("  DEV/TEST mode, runtime compiler will be used");
-            return MachineFactoryCompiler::compile;
+            return WasmRuntimeCompiler.perInstance(interpretedFunctions, interpreterFallback);
         } else {
             Log.info("  DEV/TEST mode, interpreter will be used");
             return InterpreterMachine::new;
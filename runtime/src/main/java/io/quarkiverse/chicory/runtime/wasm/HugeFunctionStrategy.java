@@ -0,0 +1,19 @@
+package io.quarkiverse.chicory.runtime.wasm;
+
+/**
+ * Defines how the build time compiler handles the Wasm functions whose generated method exceeds the JVM huge method
+ * limit ({@code -XX:HugeMethodLimit}, 8000 bytes of bytecode by default), which HotSpot never JIT compiles.
+ */
+public enum HugeFunctionStrategy {
+    /**
+     * The functions are compiled anyway, and run in the JVM bytecode interpreter, unless the JVM runs with
+     * {@code -XX:-DontCompileHugeMethods}. They're listed in the compilation report. This is the default strategy.
+     */
+    Compile,
+
+    /**
+     * The functions are left to the Chicory interpreter, by generating the module a second time, which is usually
+     * faster than running a huge method in the JVM bytecode interpreter.
+     */
+    Interpret;
+}
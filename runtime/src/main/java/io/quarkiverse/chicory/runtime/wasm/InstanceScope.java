@@ -0,0 +1,22 @@
+package io.quarkiverse.chicory.runtime.wasm;
+
+/**
+ * Defines the scope of the injectable {@link WasmInstance} bean that the extension produces for a Wasm module.
+ */
+public enum InstanceScope {
+    /**
+     * A {@link WasmInstance} is request scoped, and it borrows an instance from the managed {@link WasmInstancePool}
+     * when first used in a request. The instance is returned to the pool when the request ends.
+     * This is the default scope.
+     */
+    Request,
+
+    /**
+     * A {@link WasmInstance} is application scoped, and each thread uses its own dedicated instance, created when
+     * first used by that thread. This is meant for a bounded set of platform worker threads, since instances are
+     * kept for the lifetime of each thread, and released when another thread needs an instance after it terminated,
+     * or when the bean is destroyed. Virtual threads, which are created per task, should use the
+     * {@link #Request} scope instead, so that they share the pooled instances.
+     */
+    ThreadAffine;
+}
@@ -0,0 +1,320 @@
+package io.quarkiverse.chicory.runtime.wasm;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import org.jboss.logging.Logger;
+
+import com.dylibso.chicory.runtime.ConstantEvaluators;
+import com.dylibso.chicory.runtime.Instance;
+import com.dylibso.chicory.runtime.Memory;
+import com.dylibso.chicory.runtime.alloc.MemAllocStrategy;
+import com.dylibso.chicory.wasm.ChicoryException;
+import com.dylibso.chicory.wasm.types.ActiveDataSegment;
+import com.dylibso.chicory.wasm.types.DataSegment;
+import com.dylibso.chicory.wasm.types.MemoryLimits;
+
+/**
+ * A {@link Memory} implementation backed by a direct {@link ByteBuffer}, i.e. allocated outside the Java heap.
+ * <p>
+ * Guest memories of hundreds of MB inflate GC pause times and heap sizing when stored as {@code byte[]}. An off-heap
+ * memory is not scanned nor copied by the GC, and it is explicitly released by {@link #release()} when the
+ * owning instance is discarded by the pool, rather than waiting for the buffer to be collected.
+ * </p>
+ * <p>
+ * Hosts can obtain a zero-copy view of a guest memory region by {@link #view(int, int)}, e.g. to perform I/O. A view
+ * stops reflecting the guest memory once the guest grows it beyond the reserved capacity, since growing reallocates the
+ * backing buffer. Freeing a buffer while a view of it is still in use would make the view point to released native
+ * memory, so a buffer that views were obtained from is never released explicitly, and is left to the GC instead.
+ * </p>
+ */
+public final class OffHeapMemory implements Memory {
+    private static final Logger LOG = Logger.getLogger(OffHeapMemory.class);
+    private static final Method INVOKE_CLEANER;
+    private static final Object UNSAFE;
+
+    static {
+        Method invokeCleaner = null;
+        Object unsafe = null;
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOG.debug("Direct buffers cannot be released explicitly, and will be released by the GC", e);
+        }
+        INVOKE_CLEANER = invokeCleaner;
+        UNSAFE = unsafe;
+    }
+
+    private final MemoryLimits limits;
+    private final MemAllocStrategy allocStrategy;
+    private DataSegment[] dataSegments;
+    private ByteBuffer buffer;
+    private int nPages;
+    // whether a view of the current buffer may be live, in which case the buffer cannot be released explicitly
+    private boolean viewsIssued;
+
+    OffHeapMemory(final MemoryLimits limits, final MemAllocStrategy allocStrategy) {
+        this.limits = limits;
+        this.allocStrategy = allocStrategy;
+        this.nPages = limits.initialPages();
+        this.buffer = allocate(allocStrategy.initial(PAGE_SIZE * limits.initialPages()));
+        this.buffer.limit(PAGE_SIZE * nPages);
+    }
+
+    /**
+     * Returns a zero-copy view of a region of this memory. The view stops reflecting this memory when the guest grows
+     * it beyond its reserved capacity, and the backing buffer is then released by the GC rather than explicitly.
+     *
+     * @param addr The address of the region
+     * @param len The length of the region
+     * @return A little endian {@link ByteBuffer} sharing its content with this memory
+     */
+    public ByteBuffer view(final int addr, final int len) {
+        checkBounds(addr, len);
+        viewsIssued = true;
+        return buffer.slice(addr, len).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Releases the off-heap buffer. The memory cannot be used anymore after this method returns. If views of the
+     * buffer were obtained by {@link #view(int, int)}, the buffer is left to the GC, which releases it once no view
+     * references it anymore.
+     */
+    public void release() {
+        final ByteBuffer released = buffer;
+        buffer = null;
+        if (!viewsIssued) {
+            free(released);
+        }
+    }
+
+    @Override
+    public int pages() {
+        return nPages;
+    }
+
+    @Override
+    public int grow(final int size) {
+        final int prevPages = nPages;
+        final long numPages = (long) prevPages + size;
+        if (numPages > maximumPages() || numPages < prevPages) {
+            return -1;
+        }
+        final int numBytes = (int) (numPages * PAGE_SIZE);
+        if (numBytes > buffer.capacity()) {
+            final ByteBuffer grown = allocate(allocStrategy.next(buffer.capacity(), numBytes));
+            final ByteBuffer previous = buffer;
+            // the bytes beyond the limit are not in use, and cannot be read through the buffer anyway
+            grown.put(0, previous, 0, previous.limit());
+            buffer = grown;
+            if (!viewsIssued) {
+                free(previous);
+            }
+            viewsIssued = false;
+        }
+        buffer.limit(numBytes);
+        nPages = (int) numPages;
+        return prevPages;
+    }
+
+    @Override
+    public int initialPages() {
+        return limits.initialPages();
+    }
+
+    @Override
+    public int maximumPages() {
+        return Math.min(limits.maximumPages(), Integer.MAX_VALUE / PAGE_SIZE);
+    }
+
+    @Override
+    public void initialize(final Instance instance, final DataSegment[] dataSegments) {
+        this.dataSegments = dataSegments;
+        if (dataSegments == null) {
+            return;
+        }
+        for (DataSegment segment : dataSegments) {
+            if (segment instanceof ActiveDataSegment) {
+                final ActiveDataSegment activeSegment = (ActiveDataSegment) segment;
+                final int offset = (int) ConstantEvaluators.computeConstantValue(instance,
+                        activeSegment.offsetInstructions())[0];
+                write(offset, activeSegment.data());
+            }
+        }
+    }
+
+    @Override
+    public void initPassiveSegment(final int segmentId, final int dest, final int offset, final int size) {
+        final DataSegment segment = dataSegments[segmentId];
+        final byte[] data = segment == null ? new byte[0] : segment.data();
+        if (offset < 0 || size < 0 || (long) offset + size > data.length) {
+            throw outOfBounds(offset, size);
+        }
+        write(dest, data, offset, size);
+    }
+
+    @Override
+    public void write(final int addr, final byte[] data, final int offset, final int size) {
+        checkBounds(addr, size);
+        buffer.put(addr, data, offset, size);
+    }
+
+    @Override
+    public byte read(final int addr) {
+        checkBounds(addr, 1);
+        return buffer.get(addr);
+    }
+
+    @Override
+    public byte[] readBytes(final int addr, final int len) {
+        checkBounds(addr, len);
+        final byte[] bytes = new byte[len];
+        buffer.get(addr, bytes);
+        return bytes;
+    }
+
+    @Override
+    public void writeI32(final int addr, final int data) {
+        checkBounds(addr, 4);
+        buffer.putInt(addr, data);
+    }
+
+    @Override
+    public int readInt(final int addr) {
+        checkBounds(addr, 4);
+        return buffer.getInt(addr);
+    }
+
+    @Override
+    public void writeLong(final int addr, final long data) {
+        checkBounds(addr, 8);
+        buffer.putLong(addr, data);
+    }
+
+    @Override
+    public long readLong(final int addr) {
+        checkBounds(addr, 8);
+        return buffer.getLong(addr);
+    }
+
+    @Override
+    public void writeShort(final int addr, final short data) {
+        checkBounds(addr, 2);
+        buffer.putShort(addr, data);
+    }
+
+    @Override
+    public short readShort(final int addr) {
+        checkBounds(addr, 2);
+        return buffer.getShort(addr);
+    }
+
+    @Override
+    public long readU16(final int addr) {
+        return readShort(addr) & 0xFFFFL;
+    }
+
+    @Override
+    public void writeByte(final int addr, final byte data) {
+        checkBounds(addr, 1);
+        buffer.put(addr, data);
+    }
+
+    @Override
+    public void writeF32(final int addr, final float data) {
+        checkBounds(addr, 4);
+        buffer.putFloat(addr, data);
+    }
+
+    @Override
+    public long readF32(final int addr) {
+        return readInt(addr);
+    }
+
+    @Override
+    public float readFloat(final int addr) {
+        checkBounds(addr, 4);
+        return buffer.getFloat(addr);
+    }
+
+    @Override
+    public void writeF64(final int addr, final double data) {
+        checkBounds(addr, 8);
+        buffer.putDouble(addr, data);
+    }
+
+    @Override
+    public double readDouble(final int addr) {
+        checkBounds(addr, 8);
+        return buffer.getDouble(addr);
+    }
+
+    @Override
+    public long readF64(final int addr) {
+        return readLong(addr);
+    }
+
+    @Override
+    public void zero() {
+        fill((byte) 0, 0, buffer.limit());
+    }
+
+    @Override
+    public void fill(final byte value, final int fromIndex, final int toIndex) {
+        checkBounds(fromIndex, toIndex - fromIndex);
+        final byte[] chunk = new byte[Math.min(4096, toIndex - fromIndex)];
+        Arrays.fill(chunk, value);
+        for (int i = fromIndex; i < toIndex; i += chunk.length) {
+            buffer.put(i, chunk, 0, Math.min(chunk.length, toIndex - i));
+        }
+    }
+
+    @Override
+    public void copy(final int dest, final int src, final int size) {
+        checkBounds(src, size);
+        checkBounds(dest, size);
+        // ByteBuffer#put(int, ByteBuffer, int, int) handles overlapping regions of the same buffer
+        buffer.put(dest, buffer.duplicate(), src, size);
+    }
+
+    @Override
+    public void drop(final int segment) {
+        dataSegments[segment] = null;
+    }
+
+    private void checkBounds(final int addr, final int len) {
+        if (buffer == null) {
+            throw new ChicoryException("out of bounds memory access: the memory has been released");
+        }
+        if (addr < 0 || len < 0 || (long) addr + len > buffer.limit()) {
+            throw outOfBounds(addr, len);
+        }
+    }
+
+    private ChicoryException outOfBounds(final int addr, final int len) {
+        return new ChicoryException("out of bounds memory access: attempted to access address " + addr + " with size "
+                + len + " but limit is " + (buffer == null ? 0 : buffer.limit()));
+    }
+
+    private static ByteBuffer allocate(final int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void free(final ByteBuffer buffer) {
+        if (buffer == null || INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException e) {
+            LOG.debug("Cannot release direct buffer explicitly", e);
+        }
+    }
+}
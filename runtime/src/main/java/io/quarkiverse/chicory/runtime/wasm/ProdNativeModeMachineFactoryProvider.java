@@ -3,10 +3,11 @@ package io.quarkiverse.chicory.runtime.wasm;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
-import com.dylibso.chicory.compiler.MachineFactoryCompiler;
+import com.dylibso.chicory.compiler.InterpreterFallback;
 import com.dylibso.chicory.runtime.Instance;
 import com.dylibso.chicory.runtime.InterpreterMachine;
 import com.dylibso.chicory.runtime.Machine;
@@ -20,12 +21,22 @@ public class ProdNativeModeMachineFactoryProvider implements Supplier<Function<I
     private final boolean isDynamic;
     private final String machineName;
     private final ExecutionMode executionMode;
+    private final Set<Integer> interpretedFunctions;
+    private final InterpreterFallback interpreterFallback;
 
     public ProdNativeModeMachineFactoryProvider(final boolean isDynamic, final String machineName,
             final ExecutionMode executionMode) {
+        this(isDynamic, machineName, executionMode, Set.of(), InterpreterFallback.WARN);
+    }
+
+    public ProdNativeModeMachineFactoryProvider(final boolean isDynamic, final String machineName,
+            final ExecutionMode executionMode, final Set<Integer> interpretedFunctions,
+            final InterpreterFallback interpreterFallback) {
         this.isDynamic = isDynamic;
         this.machineName = machineName;
         this.executionMode = executionMode;
+        this.interpretedFunctions = interpretedFunctions;
+        this.interpreterFallback = interpreterFallback;
     }
 
     @Override
@@ -56,7 +67,7 @@ public class ProdNativeModeMachineFactoryProvider implements Supplier<Function<I
             // configured execution mode
             if (Objects.requireNonNull(executionMode) == ExecutionMode.RuntimeCompiler) {
                 Log.info("  PROD/NATIVE mode enabled + dynamic Wasm payload, runtime compiler will be used");
-                return MachineFactoryCompiler::compile;
+                return WasmRuntimeCompiler.perInstance(interpretedFunctions, interpreterFallback);
             } else {
                 Log.warn("  PROD/NATIVE mode enabled + dynamic Wasm payload, interpreter will be used");
                 return InterpreterMachine::new;
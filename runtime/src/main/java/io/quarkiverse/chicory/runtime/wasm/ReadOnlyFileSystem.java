@@ -0,0 +1,447 @@
+package io.quarkiverse.chicory.runtime.wasm;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.AccessMode;
+import java.nio.file.CopyOption;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileStore;
+import java.nio.file.FileSystem;
+import java.nio.file.LinkOption;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.ProviderMismatchException;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.FileAttributeView;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.UserPrincipalLookupService;
+import java.nio.file.spi.FileSystemProvider;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * A read-only view of a {@link FileSystem}, so that the in-memory filesystem snapshot shared by all the instances of a
+ * Wasm module can't be modified by any of them.
+ * <p>
+ * Paths of the view wrap the paths of the underlying filesystem. Reading is delegated to the underlying filesystem,
+ * while opening a file for writing, creating, deleting, moving or linking a file, and setting its attributes fail with
+ * an {@link AccessDeniedException}, which WASI reports to the guest as an error.
+ * </p>
+ */
+final class ReadOnlyFileSystem extends FileSystem {
+    private static final Set<OpenOption> WRITE_OPTIONS = Set.of(StandardOpenOption.WRITE, StandardOpenOption.APPEND,
+            StandardOpenOption.CREATE, StandardOpenOption.CREATE_NEW, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.DELETE_ON_CLOSE);
+
+    private final FileSystem delegate;
+    private final Provider provider;
+
+    ReadOnlyFileSystem(final FileSystem delegate) {
+        this.delegate = delegate;
+        this.provider = new Provider(this, delegate.provider());
+    }
+
+    /**
+     * Returns the read-only view of a path of the underlying filesystem.
+     *
+     * @param path A {@link Path} of the underlying filesystem
+     * @return The read-only {@link Path}
+     */
+    Path wrap(final Path path) {
+        return path == null ? null : new ReadOnlyPath(this, path);
+    }
+
+    @Override
+    public FileSystemProvider provider() {
+        return provider;
+    }
+
+    @Override
+    public void close() {
+        throw new UnsupportedOperationException("The WASI filesystem snapshot is shared, and cannot be closed");
+    }
+
+    @Override
+    public boolean isOpen() {
+        return delegate.isOpen();
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public String getSeparator() {
+        return delegate.getSeparator();
+    }
+
+    @Override
+    public Iterable<Path> getRootDirectories() {
+        return StreamSupport.stream(delegate.getRootDirectories().spliterator(), false)
+                .map(this::wrap)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Iterable<FileStore> getFileStores() {
+        return delegate.getFileStores();
+    }
+
+    @Override
+    public Set<String> supportedFileAttributeViews() {
+        return delegate.supportedFileAttributeViews();
+    }
+
+    @Override
+    public Path getPath(final String first, final String... more) {
+        return wrap(delegate.getPath(first, more));
+    }
+
+    @Override
+    public PathMatcher getPathMatcher(final String syntaxAndPattern) {
+        final PathMatcher matcher = delegate.getPathMatcher(syntaxAndPattern);
+        return path -> matcher.matches(unwrap(path));
+    }
+
+    @Override
+    public UserPrincipalLookupService getUserPrincipalLookupService() {
+        return delegate.getUserPrincipalLookupService();
+    }
+
+    @Override
+    public WatchService newWatchService() {
+        throw new UnsupportedOperationException();
+    }
+
+    private static Path unwrap(final Path path) {
+        if (!(path instanceof ReadOnlyPath)) {
+            throw new ProviderMismatchException();
+        }
+        return ((ReadOnlyPath) path).delegate;
+    }
+
+    private static AccessDeniedException readOnly(final Path path) {
+        return new AccessDeniedException(path.toString(), null, "the WASI filesystem snapshot is read-only");
+    }
+
+    private static final class Provider extends FileSystemProvider {
+        private final ReadOnlyFileSystem fileSystem;
+        private final FileSystemProvider delegate;
+
+        private Provider(final ReadOnlyFileSystem fileSystem, final FileSystemProvider delegate) {
+            this.fileSystem = fileSystem;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String getScheme() {
+            return delegate.getScheme();
+        }
+
+        @Override
+        public FileSystem newFileSystem(final URI uri, final Map<String, ?> env) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FileSystem getFileSystem(final URI uri) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Path getPath(final URI uri) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SeekableByteChannel newByteChannel(final Path path, final Set<? extends OpenOption> options,
+                final FileAttribute<?>... attrs) throws IOException {
+            checkReadOnly(path, options);
+            return delegate.newByteChannel(unwrap(path), options, attrs);
+        }
+
+        @Override
+        public FileChannel newFileChannel(final Path path, final Set<? extends OpenOption> options,
+                final FileAttribute<?>... attrs) throws IOException {
+            checkReadOnly(path, options);
+            return delegate.newFileChannel(unwrap(path), options, attrs);
+        }
+
+        @Override
+        public DirectoryStream<Path> newDirectoryStream(final Path dir, final DirectoryStream.Filter<? super Path> filter)
+                throws IOException {
+            final DirectoryStream<Path> entries = delegate.newDirectoryStream(unwrap(dir),
+                    entry -> filter.accept(fileSystem.wrap(entry)));
+            return new DirectoryStream<>() {
+                @Override
+                public Iterator<Path> iterator() {
+                    final Iterator<Path> iterator = entries.iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Path next() {
+                            return fileSystem.wrap(iterator.next());
+                        }
+                    };
+                }
+
+                @Override
+                public void close() throws IOException {
+                    entries.close();
+                }
+            };
+        }
+
+        @Override
+        public void createDirectory(final Path dir, final FileAttribute<?>... attrs) throws IOException {
+            throw readOnly(dir);
+        }
+
+        @Override
+        public void createSymbolicLink(final Path link, final Path target, final FileAttribute<?>... attrs)
+                throws IOException {
+            throw readOnly(link);
+        }
+
+        @Override
+        public void createLink(final Path link, final Path existing) throws IOException {
+            throw readOnly(link);
+        }
+
+        @Override
+        public void delete(final Path path) throws IOException {
+            throw readOnly(path);
+        }
+
+        @Override
+        public Path readSymbolicLink(final Path link) throws IOException {
+            return fileSystem.wrap(delegate.readSymbolicLink(unwrap(link)));
+        }
+
+        @Override
+        public void copy(final Path source, final Path target, final CopyOption... options) throws IOException {
+            throw readOnly(target);
+        }
+
+        @Override
+        public void move(final Path source, final Path target, final CopyOption... options) throws IOException {
+            throw readOnly(source);
+        }
+
+        @Override
+        public boolean isSameFile(final Path path, final Path path2) throws IOException {
+            return path.equals(path2) || (path2 instanceof ReadOnlyPath
+                    && delegate.isSameFile(unwrap(path), unwrap(path2)));
+        }
+
+        @Override
+        public boolean isHidden(final Path path) throws IOException {
+            return delegate.isHidden(unwrap(path));
+        }
+
+        @Override
+        public FileStore getFileStore(final Path path) throws IOException {
+            return delegate.getFileStore(unwrap(path));
+        }
+
+        @Override
+        public void checkAccess(final Path path, final AccessMode... modes) throws IOException {
+            for (AccessMode mode : modes) {
+                if (mode == AccessMode.WRITE) {
+                    throw readOnly(path);
+                }
+            }
+            delegate.checkAccess(unwrap(path), modes);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <V extends FileAttributeView> V getFileAttributeView(final Path path, final Class<V> type,
+                final LinkOption... options) {
+            // only the basic view is supported, as the other views can update the attributes without failing
+            if (type != BasicFileAttributeView.class) {
+                return null;
+            }
+            final BasicFileAttributeView view = delegate.getFileAttributeView(unwrap(path), BasicFileAttributeView.class,
+                    options);
+            return view == null ? null : (V) new BasicFileAttributeView() {
+                @Override
+                public String name() {
+                    return view.name();
+                }
+
+                @Override
+                public BasicFileAttributes readAttributes() throws IOException {
+                    return view.readAttributes();
+                }
+
+                @Override
+                public void setTimes(final FileTime lastModifiedTime, final FileTime lastAccessTime,
+                        final FileTime createTime) throws IOException {
+                    throw readOnly(path);
+                }
+            };
+        }
+
+        @Override
+        public <A extends BasicFileAttributes> A readAttributes(final Path path, final Class<A> type,
+                final LinkOption... options) throws IOException {
+            return delegate.readAttributes(unwrap(path), type, options);
+        }
+
+        @Override
+        public Map<String, Object> readAttributes(final Path path, final String attributes, final LinkOption... options)
+                throws IOException {
+            return delegate.readAttributes(unwrap(path), attributes, options);
+        }
+
+        @Override
+        public void setAttribute(final Path path, final String attribute, final Object value,
+                final LinkOption... options) throws IOException {
+            throw readOnly(path);
+        }
+
+        private static void checkReadOnly(final Path path, final Set<? extends OpenOption> options)
+                throws AccessDeniedException {
+            for (OpenOption option : options) {
+                if (WRITE_OPTIONS.contains(option)) {
+                    throw readOnly(path);
+                }
+            }
+        }
+    }
+
+    private static final class ReadOnlyPath implements Path {
+        private final ReadOnlyFileSystem fileSystem;
+        private final Path delegate;
+
+        private ReadOnlyPath(final ReadOnlyFileSystem fileSystem, final Path delegate) {
+            this.fileSystem = fileSystem;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public FileSystem getFileSystem() {
+            return fileSystem;
+        }
+
+        @Override
+        public boolean isAbsolute() {
+            return delegate.isAbsolute();
+        }
+
+        @Override
+        public Path getRoot() {
+            return fileSystem.wrap(delegate.getRoot());
+        }
+
+        @Override
+        public Path getFileName() {
+            return fileSystem.wrap(delegate.getFileName());
+        }
+
+        @Override
+        public Path getParent() {
+            return fileSystem.wrap(delegate.getParent());
+        }
+
+        @Override
+        public int getNameCount() {
+            return delegate.getNameCount();
+        }
+
+        @Override
+        public Path getName(final int index) {
+            return fileSystem.wrap(delegate.getName(index));
+        }
+
+        @Override
+        public Path subpath(final int beginIndex, final int endIndex) {
+            return fileSystem.wrap(delegate.subpath(beginIndex, endIndex));
+        }
+
+        @Override
+        public boolean startsWith(final Path other) {
+            return other instanceof ReadOnlyPath && delegate.startsWith(unwrap(other));
+        }
+
+        @Override
+        public boolean endsWith(final Path other) {
+            return other instanceof ReadOnlyPath && delegate.endsWith(unwrap(other));
+        }
+
+        @Override
+        public Path normalize() {
+            return fileSystem.wrap(delegate.normalize());
+        }
+
+        @Override
+        public Path resolve(final Path other) {
+            return fileSystem.wrap(delegate.resolve(unwrap(other)));
+        }
+
+        @Override
+        public Path relativize(final Path other) {
+            return fileSystem.wrap(delegate.relativize(unwrap(other)));
+        }
+
+        @Override
+        public URI toUri() {
+            return delegate.toUri();
+        }
+
+        @Override
+        public Path toAbsolutePath() {
+            return fileSystem.wrap(delegate.toAbsolutePath());
+        }
+
+        @Override
+        public Path toRealPath(final LinkOption... options) throws IOException {
+            return fileSystem.wrap(delegate.toRealPath(options));
+        }
+
+        @Override
+        public WatchKey register(final WatchService watcher, final WatchEvent.Kind<?>[] events,
+                final WatchEvent.Modifier... modifiers) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int compareTo(final Path other) {
+            return delegate.compareTo(unwrap(other));
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof ReadOnlyPath && delegate.equals(((ReadOnlyPath) other).delegate);
+        }
+
+        @Override
+        public int hashCode() {
+            return delegate.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+}
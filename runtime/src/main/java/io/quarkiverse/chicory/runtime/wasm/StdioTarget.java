@@ -0,0 +1,23 @@
+package io.quarkiverse.chicory.runtime.wasm;
+
+/**
+ * Defines where the WASI standard output and error of the instances built by the extension are written.
+ */
+public enum StdioTarget {
+    /**
+     * Each line is logged asynchronously through JBoss Logging, in the {@code io.quarkiverse.chicory.wasi.<module-key>}
+     * category. Lines are queued in a bounded queue, and dropped when the queue is full, so that guest output never
+     * blocks the execution thread. This is the default target.
+     */
+    Log,
+
+    /**
+     * The output is discarded.
+     */
+    Discard,
+
+    /**
+     * The most recent lines are kept in a bounded ring buffer, which is available through {@link WasiOutputSink#lines()}.
+     */
+    RingBuffer;
+}
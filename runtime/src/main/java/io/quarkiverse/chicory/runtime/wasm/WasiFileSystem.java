@@ -0,0 +1,113 @@
+package io.quarkiverse.chicory.runtime.wasm;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.jboss.logging.Logger;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+
+import io.quarkiverse.chicory.runtime.WasmQuarkusConfig;
+
+/**
+ * The in-memory filesystem snapshot of a Wasm module, which is preopened by all the instances built by the extension.
+ * <p>
+ * The snapshot is built once, from classpath resources and/or a host directory, and the same in-memory root is
+ * preopened by every instance, so that reading reference data neither touches the disk nor duplicates it per instance.
+ * The snapshot is preopened through a {@link ReadOnlyFileSystem}, so that no instance can modify what the others read,
+ * and each instance can be given an empty, private, in-memory scratch directory, which is its only writable location.
+ * </p>
+ */
+final class WasiFileSystem {
+    private static final Logger LOG = Logger.getLogger(WasiFileSystem.class);
+
+    private final String moduleKey;
+    private final Path root;
+
+    private WasiFileSystem(final String moduleKey, final Path root) {
+        this.moduleKey = moduleKey;
+        this.root = root;
+    }
+
+    static WasiFileSystem build(final String moduleKey,
+            final WasmQuarkusConfig.ModuleConfig.WasiConfig.FilesystemConfig config, final ClassLoader classLoader) {
+        final FileSystem snapshot = Jimfs.newFileSystem(Configuration.unix());
+        final Path root = snapshot.getPath("/snapshot");
+        long size = 0;
+        try {
+            Files.createDirectories(root);
+            for (String resource : config.resources().orElse(List.of())) {
+                final String relativePath = resource.startsWith("/") ? resource.substring(1) : resource;
+                final Path target = root.resolve(relativePath);
+                Files.createDirectories(target.getParent());
+                try (InputStream input = classLoader.getResourceAsStream(relativePath)) {
+                    if (input == null) {
+                        throw new IllegalStateException("Cannot find resource " + resource
+                                + " to build the WASI filesystem of Wasm module " + moduleKey);
+                    }
+                    size += Files.copy(input, target);
+                }
+            }
+            if (config.directory().isPresent()) {
+                size += copyDirectory(Path.of(config.directory().get()), root);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot build the WASI filesystem of Wasm module " + moduleKey, e);
+        }
+        LOG.info("Built the WASI filesystem of Wasm module " + moduleKey + " (" + size + " bytes), mounted at "
+                + config.mount());
+        return new WasiFileSystem(moduleKey, new ReadOnlyFileSystem(snapshot).wrap(root));
+    }
+
+    /**
+     * Returns the read-only root of the snapshot, which is shared by all the instances.
+     *
+     * @return The root {@link Path} of the in-memory snapshot
+     */
+    Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Creates an empty scratch directory, private to a single instance, which is released along with the instance.
+     *
+     * @return The root {@link Path} of a new in-memory scratch directory
+     */
+    Path newScratch() {
+        try {
+            final Path scratch = Jimfs.newFileSystem(Configuration.unix()).getPath("/scratch");
+            return Files.createDirectories(scratch);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create a WASI scratch directory for Wasm module " + moduleKey, e);
+        }
+    }
+
+    private static long copyDirectory(final Path source, final Path target) throws IOException {
+        if (!Files.isDirectory(source)) {
+            throw new IllegalArgumentException(source + " is not a directory");
+        }
+        long size = 0;
+        try (Stream<Path> paths = Files.walk(source)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                // the host and in-memory filesystems don't share Path implementations, so paths are resolved as strings
+                final Path destination = target.resolve(source.relativize(path).toString().replace('\\', '/'));
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(destination);
+                } else {
+                    try (OutputStream output = Files.newOutputStream(destination)) {
+                        size += Files.copy(path, output);
+                    }
+                }
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,219 @@
+package io.quarkiverse.chicory.runtime.wasm;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Receives the WASI standard output or standard error of all the instances of a Wasm module, one line at a time.
+ * <p>
+ * Each instance writes through its own line-buffered stream, obtained from {@link #newStream()}, whose buffer is
+ * bounded by {@code wasi.max-line-length}. Complete lines are either queued for a daemon thread that logs them, the
+ * queue being bounded by {@code wasi.buffer-lines} so that a chatty guest never blocks the execution thread nor grows
+ * the heap, or kept in a ring buffer of the last {@code wasi.buffer-lines} lines, or discarded, depending on the
+ * configured {@link StdioTarget}.
+ * </p>
+ */
+public final class WasiOutputSink {
+    private static final Logger LOG = Logger.getLogger(WasiOutputSink.class);
+
+    private final String moduleKey;
+    private final String streamName;
+    private final StdioTarget target;
+    private final int bufferLines;
+    private final int maxLineLength;
+    private final BlockingQueue<String> queue;
+    private final ArrayDeque<String> ringBuffer;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final Thread drainThread;
+
+    WasiOutputSink(final String moduleKey, final String streamName, final StdioTarget target, final int bufferLines,
+            final int maxLineLength) {
+        if (bufferLines < 1) {
+            throw new IllegalArgumentException("WASI buffer-lines for Wasm module " + moduleKey + " must be positive");
+        }
+        if (maxLineLength < 1) {
+            throw new IllegalArgumentException("WASI max-line-length for Wasm module " + moduleKey + " must be positive");
+        }
+        this.moduleKey = moduleKey;
+        this.streamName = streamName;
+        this.target = target;
+        this.bufferLines = bufferLines;
+        this.maxLineLength = maxLineLength;
+        this.queue = target == StdioTarget.Log ? new ArrayBlockingQueue<>(bufferLines) : null;
+        this.ringBuffer = target == StdioTarget.RingBuffer ? new ArrayDeque<>(bufferLines) : null;
+        if (queue != null) {
+            final Logger guestLogger = Logger.getLogger("io.quarkiverse.chicory.wasi." + moduleKey);
+            drainThread = new Thread(() -> drain(guestLogger), "chicory-wasi-" + streamName + "-" + moduleKey);
+            drainThread.setDaemon(true);
+            drainThread.start();
+        } else {
+            drainThread = null;
+        }
+    }
+
+    /**
+     * Returns the target of this sink.
+     *
+     * @return The {@link StdioTarget} configured for the stream
+     */
+    public StdioTarget getTarget() {
+        return target;
+    }
+
+    /**
+     * Returns the number of lines dropped because the log queue was full.
+     *
+     * @return The number of dropped lines
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Returns the lines kept by the ring buffer, oldest first.
+     *
+     * @return A snapshot of the last lines written by the guest, which is empty unless the target is
+     *         {@link StdioTarget#RingBuffer}
+     */
+    public List<String> lines() {
+        if (ringBuffer == null) {
+            return List.of();
+        }
+        lock.lock();
+        try {
+            return new ArrayList<>(ringBuffer);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the thread logging the queued lines, once it has logged the lines queued so far, so that it doesn't keep
+     * the class loader of the application alive, e.g. across dev mode restarts.
+     */
+    void close() {
+        if (drainThread == null) {
+            return;
+        }
+        drainThread.interrupt();
+        try {
+            drainThread.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    OutputStream newStream() {
+        if (target == StdioTarget.Discard) {
+            return OutputStream.nullOutputStream();
+        }
+        return new LineStream();
+    }
+
+    private void accept(final String line) {
+        if (queue != null) {
+            if (!queue.offer(line)) {
+                if (droppedCount.getAndIncrement() == 0) {
+                    LOG.warn("The WASI " + streamName + " of Wasm module " + moduleKey
+                            + " is written faster than it's logged, lines are dropped");
+                }
+            }
+            return;
+        }
+        lock.lock();
+        try {
+            if (ringBuffer.size() == bufferLines) {
+                ringBuffer.removeFirst();
+            }
+            ringBuffer.addLast(line);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void drain(final Logger guestLogger) {
+        final boolean isError = "stderr".equals(streamName);
+        try {
+            while (true) {
+                log(guestLogger, isError, queue.take());
+            }
+        } catch (InterruptedException e) {
+            // the sink is closed, the lines queued so far are still logged
+            for (String line = queue.poll(); line != null; line = queue.poll()) {
+                log(guestLogger, isError, line);
+            }
+        }
+    }
+
+    private static void log(final Logger guestLogger, final boolean isError, final String line) {
+        if (isError) {
+            guestLogger.warn(line);
+        } else {
+            guestLogger.info(line);
+        }
+    }
+
+    /**
+     * The line-buffered stream of a single instance, which is only written by the thread executing the instance.
+     */
+    private final class LineStream extends OutputStream {
+        private byte[] buffer = new byte[Math.min(maxLineLength, 256)];
+        private int length;
+
+        @Override
+        public void write(final int b) {
+            if (b == '\n') {
+                flushLine();
+                return;
+            }
+            if (length == buffer.length) {
+                if (length == maxLineLength) {
+                    flushLine();
+                } else {
+                    buffer = Arrays.copyOf(buffer, Math.min(maxLineLength, length * 2));
+                }
+            }
+            buffer[length++] = (byte) b;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+
+        @Override
+        public void flush() {
+            // partial lines are kept until the guest completes them, so that lines aren't split by stdio flushes
+        }
+
+        @Override
+        public void close() {
+            if (length > 0) {
+                flushLine();
+            }
+        }
+
+        private void flushLine() {
+            int end = length;
+            if (end > 0 && buffer[end - 1] == '\r') {
+                end--;
+            }
+            accept(new String(buffer, 0, end, StandardCharsets.UTF_8));
+            length = 0;
+        }
+    }
+}
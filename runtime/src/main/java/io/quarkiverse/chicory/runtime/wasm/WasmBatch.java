@@ -0,0 +1,99 @@
+package io.quarkiverse.chicory.runtime.wasm;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Optional;
+
+import com.dylibso.chicory.runtime.ExportFunction;
+import com.dylibso.chicory.runtime.Instance;
+import com.dylibso.chicory.runtime.Memory;
+
+import io.quarkiverse.chicory.runtime.WasmQuarkusConfig;
+
+/**
+ * Runs a batch of inputs through an exported function on a single instance.
+ * <p>
+ * All the inputs are written into one contiguous guest memory region with a single allocation and a single write,
+ * laid out as the shared input (if any), followed by each input, the table of input pointers and lengths and the
+ * results area. When a batch export is configured, the whole batch is processed by one call and the results are
+ * read back at once; otherwise the export is called back to back for each input, i.e.
+ * {@code export(sharedPtr, sharedLen, inputPtr, inputLen)} or {@code export(inputPtr, inputLen)}.
+ * </p>
+ */
+final class WasmBatch {
+    private static final int TABLE_ENTRY_SIZE = 8;
+    private static final int RESULT_SIZE = 8;
+
+    private WasmBatch() {
+    }
+
+    static long[] execute(final Instance instance, final WasmQuarkusConfig.ModuleConfig.AbiConfig abiConfig,
+            final String exportName, final Optional<String> batchExportName, final byte[] shared,
+            final List<byte[]> inputs) {
+        final int count = inputs.size();
+        final int sharedLength = shared == null ? 0 : shared.length;
+        long dataLength = sharedLength;
+        for (byte[] input : inputs) {
+            dataLength += input.length;
+        }
+        final long regionLength = dataLength + (long) count * (TABLE_ENTRY_SIZE + RESULT_SIZE);
+        if (regionLength > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The batch of " + count + " inputs doesn't fit in guest memory");
+        }
+
+        final ExportFunction alloc = instance.export(abiConfig.alloc());
+        final ExportFunction free = instance.export(abiConfig.free());
+        final Memory memory = instance.memory();
+        final int region = (int) alloc.apply(regionLength)[0];
+        if (region == 0) {
+            throw new IllegalStateException("Cannot allocate " + regionLength + " bytes of guest memory for a batch of "
+                    + count + " inputs");
+        }
+        try {
+            // lay out the whole region in one buffer, so that it's copied to guest memory at once
+            final ByteBuffer buffer = ByteBuffer.allocate((int) regionLength).order(ByteOrder.LITTLE_ENDIAN);
+            if (shared != null) {
+                buffer.put(shared);
+            }
+            final int tableOffset = (int) dataLength;
+            int inputOffset = sharedLength;
+            for (int i = 0; i < count; i++) {
+                final byte[] input = inputs.get(i);
+                buffer.put(inputOffset, input);
+                buffer.putInt(tableOffset + i * TABLE_ENTRY_SIZE, region + inputOffset);
+                buffer.putInt(tableOffset + i * TABLE_ENTRY_SIZE + 4, input.length);
+                inputOffset += input.length;
+            }
+            memory.write(region, buffer.array());
+
+            final long[] results = new long[count];
+            if (batchExportName.isPresent()) {
+                final int resultsPtr = region + tableOffset + count * TABLE_ENTRY_SIZE;
+                final ExportFunction batchExport = instance.export(batchExportName.get());
+                if (shared != null) {
+                    batchExport.apply(region, sharedLength, region + tableOffset, count, resultsPtr);
+                } else {
+                    batchExport.apply(region + tableOffset, count, resultsPtr);
+                }
+                ByteBuffer.wrap(memory.readBytes(resultsPtr, count * RESULT_SIZE))
+                        .order(ByteOrder.LITTLE_ENDIAN)
+                        .asLongBuffer()
+                        .get(results);
+                return results;
+            }
+            final ExportFunction export = instance.export(exportName);
+            for (int i = 0; i < count; i++) {
+                final int inputPtr = buffer.getInt(tableOffset + i * TABLE_ENTRY_SIZE);
+                final int inputLength = buffer.getInt(tableOffset + i * TABLE_ENTRY_SIZE + 4);
+                final long[] result = shared != null
+                        ? export.apply(region, sharedLength, inputPtr, inputLength)
+                        : export.apply(inputPtr, inputLength);
+                results[i] = result == null || result.length == 0 ? 0 : result[0];
+            }
+            return results;
+        } finally {
+            free.apply(region);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package io.quarkiverse.chicory.runtime.wasm;
+
+/**
+ * Thrown when a call is rejected because the instances of a Wasm module are saturated, e.g. because too many callers
+ * are already waiting for one. Applications can map it to an HTTP {@code 503 Service Unavailable} response, so that
+ * clients back off and retry.
+ */
+public class WasmCapacityExceededException extends IllegalStateException {
+
+    public WasmCapacityExceededException(final String message) {
+        super(message);
+    }
+}
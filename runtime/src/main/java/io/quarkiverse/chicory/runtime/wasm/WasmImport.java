@@ -0,0 +1,49 @@
+package io.quarkiverse.chicory.runtime.wasm;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a CDI bean method as the implementation of a function imported by the configured Wasm modules.
+ * <p>
+ * Annotated methods are discovered at build time, and their signatures are validated against the import section of
+ * each statically configured Wasm module that imports them. Supported parameter and return types are {@code int},
+ * {@code long}, {@code float} and {@code double}, mapped to {@code i32}, {@code i64}, {@code f32} and {@code f64}
+ * respectively, and the return type can be {@code void}. The first parameter can be a
+ * {@link com.dylibso.chicory.runtime.Instance}, which receives the calling instance.
+ * </p>
+ * <p>
+ * The extension generates the glue code that calls the method directly, and adds it to the host imports of pooled and
+ * injected instances:
+ *
+ * <pre>
+ * &#64;ApplicationScoped
+ * public class HostFunctions {
+ *
+ *     &#64;WasmImport(module = "env", name = "host_log")
+ *     void log(int value) {
+ *         Log.info("Guest says " + value);
+ *     }
+ * }
+ * </pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface WasmImport {
+
+    /**
+     * The name of the module the function is imported from, e.g. {@code env}.
+     *
+     * @return The import module name
+     */
+    String module();
+
+    /**
+     * The name of the imported function.
+     *
+     * @return The import name
+     */
+    String name();
+}
@@ -0,0 +1,36 @@
+package io.quarkiverse.chicory.runtime.wasm;
+
+import jakarta.enterprise.inject.Any;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+import io.quarkus.arc.InjectableBean;
+
+/**
+ * Lookup of the CDI beans declaring {@link WasmImport} methods, used by the code generated for these methods.
+ */
+public final class WasmImportBeans {
+
+    private WasmImportBeans() {
+    }
+
+    /**
+     * Returns the bean declared by the given class, whatever its qualifiers, e.g. a {@code @Named} bean, which a lookup
+     * with the default qualifier would miss.
+     *
+     * @param beanClass The class declaring {@link WasmImport} methods
+     * @return The contextual reference of the bean
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T lookup(final Class<T> beanClass) {
+        final ArcContainer container = Arc.container();
+        for (InjectableBean<?> bean : container.beans(beanClass, Any.Literal.INSTANCE)) {
+            // rather than a subclass bean or a producer of the same type
+            if (bean.getKind() == InjectableBean.Kind.CLASS && bean.getBeanClass().equals(beanClass)) {
+                return container.instance((InjectableBean<T>) bean).get();
+            }
+        }
+        throw new IllegalStateException("No bean is declared by " + beanClass.getName()
+                + ", which implements @WasmImport methods");
+    }
+}
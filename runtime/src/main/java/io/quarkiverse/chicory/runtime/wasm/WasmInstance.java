@@ -0,0 +1,168 @@
+package io.quarkiverse.chicory.runtime.wasm;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.enterprise.context.spi.CreationalContext;
+
+import com.dylibso.chicory.runtime.ExportFunction;
+import com.dylibso.chicory.runtime.Instance;
+import com.dylibso.chicory.runtime.Memory;
+
+import io.quarkus.arc.BeanDestroyer;
+
+/**
+ * An injectable bean that provides a ready-to-use {@link Instance} of a statically configured Wasm module, so that
+ * applications don't need to build and guard instances themselves.
+ * <p>
+ * The bean is produced by the extension with the scope configured via
+ * {@code quarkus.chicory.modules.<module-key>.instance.scope}, and can be injected using {@link WasmModuleKey}
+ * qualifiers:
+ *
+ * <pre>
+ * &#64;Inject
+ * &#64;WasmModuleKey("my-module")
+ * WasmInstance wasmInstance;
+ *
+ * long[] result = wasmInstance.export("operation").apply(41, 1);
+ * </pre>
+ *
+ * See {@link InstanceScope} for how instances are bound to callers. When a call fails, e.g. because the guest traps,
+ * the bound instance is dropped rather than reused, since its state might be inconsistent. Calls made through
+ * {@link #export(String)} are tracked automatically, while callers using {@link #get()} directly report failures by
+ * {@link #markFailed()}.
+ */
+public class WasmInstance {
+    private final WasmQuarkusContext wasmQuarkusContext;
+    private final InstanceScope scope;
+    // the instance of each thread, rather than thread locals, so that destroying the bean releases the instances of
+    // every thread, and the instances of terminated threads are released as soon as another thread needs one
+    private final Map<Thread, Instance> threadInstances;
+    private Instance borrowedInstance;
+    private boolean failed;
+
+    WasmInstance(final WasmQuarkusContext wasmQuarkusContext, final InstanceScope scope) {
+        this.wasmQuarkusContext = wasmQuarkusContext;
+        this.scope = scope;
+        this.threadInstances = scope == InstanceScope.ThreadAffine ? new ConcurrentHashMap<>() : null;
+    }
+
+    /**
+     * Returns the {@link Instance} bound to the current request or thread, depending on the configured scope.
+     *
+     * @return The {@link Instance} bound to the caller
+     */
+    public Instance get() {
+        if (scope == InstanceScope.ThreadAffine) {
+            final Instance instance = threadInstances.get(Thread.currentThread());
+            return instance != null ? instance : newThreadInstance();
+        }
+        if (borrowedInstance == null) {
+            borrowedInstance = wasmQuarkusContext.getInstancePool().borrow();
+        }
+        return borrowedInstance;
+    }
+
+    /**
+     * Returns an exported function of the {@link Instance} bound to the caller. If calling it fails, the bound instance
+     * is {@link #markFailed() marked as failed}.
+     *
+     * @param name The name of the exported function
+     * @return The {@link ExportFunction} with the given name
+     */
+    public ExportFunction export(final String name) {
+        final ExportFunction export = get().export(name);
+        return args -> {
+            try {
+                return export.apply(args);
+            } catch (RuntimeException | Error e) {
+                markFailed();
+                throw e;
+            }
+        };
+    }
+
+    /**
+     * Marks the {@link Instance} bound to the caller as failed, so that it's discarded instead of being reused. A
+     * request scoped instance is discarded from the pool when the request ends, while the thread affine instance of
+     * the current thread is dropped right away, and a new one is created on next use.
+     */
+    public void markFailed() {
+        if (scope == InstanceScope.ThreadAffine) {
+            final Instance instance = threadInstances.remove(Thread.currentThread());
+            if (instance != null) {
+                wasmQuarkusContext.dispose(instance);
+            }
+        } else if (borrowedInstance != null) {
+            failed = true;
+        }
+    }
+
+    /**
+     * Returns the memory of the {@link Instance} bound to the caller.
+     *
+     * @return The {@link Memory} of the bound instance
+     */
+    public Memory memory() {
+        return get().memory();
+    }
+
+    /**
+     * Returns the scope of this bean.
+     *
+     * @return The {@link InstanceScope} configured for the Wasm module
+     */
+    public InstanceScope getScope() {
+        return scope;
+    }
+
+    void close() {
+        if (scope == InstanceScope.ThreadAffine) {
+            for (Thread thread : threadInstances.keySet()) {
+                disposeThreadInstance(thread);
+            }
+            return;
+        }
+        if (borrowedInstance != null) {
+            if (failed) {
+                wasmQuarkusContext.getInstancePool().discard(borrowedInstance);
+            } else {
+                wasmQuarkusContext.getInstancePool().release(borrowedInstance);
+            }
+            borrowedInstance = null;
+            failed = false;
+        }
+    }
+
+    private Instance newThreadInstance() {
+        for (Thread thread : threadInstances.keySet()) {
+            if (!thread.isAlive()) {
+                disposeThreadInstance(thread);
+            }
+        }
+        final Instance instance = wasmQuarkusContext.newInstance();
+        threadInstances.put(Thread.currentThread(), instance);
+        return instance;
+    }
+
+    private void disposeThreadInstance(final Thread thread) {
+        final Instance instance = threadInstances.remove(thread);
+        if (instance != null) {
+            wasmQuarkusContext.dispose(instance);
+        }
+    }
+
+    /**
+     * Returns the borrowed instance to the pool, or discards it if a call has failed, when a request scoped
+     * {@link WasmInstance} is destroyed. The instances of a thread affine {@link WasmInstance} are released when the
+     * application shuts down.
+     */
+    public static class Destroyer implements BeanDestroyer<WasmInstance> {
+
+        @Override
+        public void destroy(final WasmInstance wasmInstance, final CreationalContext<WasmInstance> creationalContext,
+                final Map<String, Object> params) {
+            wasmInstance.close();
+        }
+    }
+}
@@ -0,0 +1,758 @@
+package io.quarkiverse.chicory.runtime.wasm;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.jboss.logging.Logger;
+
+import com.dylibso.chicory.runtime.Instance;
+
+import io.quarkiverse.chicory.runtime.WasmQuarkusConfig;
+
+/**
+ * A bounded pool of {@link Instance} objects created for a configured Wasm module.
+ * <p>
+ * A Chicory {@link Instance} is not thread safe, therefore each instance is lent to one caller at a time. The pool
+ * creates instances lazily, up to {@code quarkus.chicory.modules.<module-key>.pool.max-size}, and callers wait when
+ * all of them are in use. Idle instances are reused in LIFO order, so that the most recently used (and warmest)
+ * instance is handed out first.
+ * </p>
+ * <p>
+ * An instance is retired when it's returned to the pool, if its memory exceeds
+ * {@code quarkus.chicory.modules.<module-key>.pool.retire-above-pages} or after
+ * {@code quarkus.chicory.modules.<module-key>.pool.retire-after-calls} calls. The replacement is built in the
+ * background while the retired instance keeps serving callers, and it's swapped in as soon as the retired instance is
+ * idle, so that callers neither pay for the instantiation nor wait for it, and steady-state memory stays bounded.
+ * </p>
+ * <p>
+ * Each instance lives in one of {@code max-size} slots. Callers can pass an affinity key, such as a policy hash or a
+ * tenant id, which is mapped to a slot by consistent hashing, so that repeated work lands on the instance that
+ * already holds the related guest-side state, e.g. a cache of compiled programs. When the instance of that slot is
+ * busy, the call falls back to any other idle instance rather than waiting.
+ * </p>
+ * <p>
+ * Admission is bounded by {@code pool.max-queue} and {@code pool.acquire-timeout}: when all instances are busy and
+ * too many callers are waiting, or no instance becomes available in time, calls fail fast with a
+ * {@link WasmCapacityExceededException}, rather than blocking worker threads indefinitely.
+ * </p>
+ *
+ * <pre>
+ * long[] result = wasmContext.getInstancePool().execute(instance -> instance.export("operation").apply(41, 1));
+ * long[] result = wasmContext.getInstancePool().execute(policyHash, instance -> instance.export("eval").apply(ptr, len));
+ * </pre>
+ */
+public class WasmInstancePool {
+    private static final Logger LOG = Logger.getLogger(WasmInstancePool.class);
+
+    private final String moduleKey;
+    private final int maxSize;
+    private final Optional<Integer> maxQueue;
+    private final Optional<Integer> maxPages;
+    private final long acquireTimeoutNanos;
+    private final Supplier<Instance> instanceFactory;
+    private final Consumer<Instance> instanceDisposer;
+    private final Semaphore permits;
+    // guards the slots, their busy and retiring flags, their pending replacements and the idle slots
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Instance[] slots;
+    private final boolean[] busy;
+    private final boolean[] retiring;
+    private final Instance[] replacements;
+    private final Deque<Integer> idleSlots = new ArrayDeque<>();
+    private final Map<Instance, Integer> slotIndexes = new IdentityHashMap<>();
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger retired = new AtomicInteger();
+    private final AtomicLong affinityHits = new AtomicLong();
+    private final AtomicLong affinityMisses = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final Optional<Integer> retireAbovePages;
+    private final Optional<Long> retireAfterCalls;
+    private final Map<Instance, AtomicLong> callCounts = new ConcurrentHashMap<>();
+    private final Executor replacementExecutor;
+    private final Executor mapExecutor;
+    // incremented when the pool is cleared, so that replacements built before are dropped
+    private int generation;
+    private volatile boolean closed;
+
+    WasmInstancePool(final String moduleKey, final WasmQuarkusConfig.ModuleConfig.PoolConfig poolConfig,
+            final Supplier<Instance> instanceFactory, final Consumer<Instance> instanceDisposer) {
+        this(moduleKey, poolConfig.maxSize(), poolConfig.maxQueue(), Optional.empty(), poolConfig, instanceFactory,
+                instanceDisposer);
+    }
+
+    WasmInstancePool(final String poolName, final int maxSize, final Optional<Integer> maxQueue,
+            final Optional<Integer> maxPages, final WasmQuarkusConfig.ModuleConfig.PoolConfig poolConfig,
+            final Supplier<Instance> instanceFactory, final Consumer<Instance> instanceDisposer) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool max-size for Wasm module " + poolName + " must be positive");
+        }
+        this.moduleKey = poolName;
+        this.maxSize = maxSize;
+        this.maxQueue = maxQueue;
+        this.maxPages = maxPages;
+        this.acquireTimeoutNanos = poolConfig.acquireTimeout().map(Duration::toNanos).orElse(-1L);
+        this.instanceFactory = instanceFactory;
+        this.instanceDisposer = instanceDisposer;
+        this.permits = new Semaphore(maxSize, true);
+        this.slots = new Instance[maxSize];
+        this.busy = new boolean[maxSize];
+        this.retiring = new boolean[maxSize];
+        this.replacements = new Instance[maxSize];
+        this.retireAbovePages = poolConfig.retireAbovePages();
+        this.retireAfterCalls = poolConfig.retireAfterCalls();
+        // the machine factory loads generated classes through the context class loader
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (retireAbovePages.isPresent() || retireAfterCalls.isPresent()) {
+            // the thread terminates when idle, so that evicted tenant pools don't leak it
+            this.replacementExecutor = new ThreadPoolExecutor(0, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                    threadFactory("chicory-pool-" + poolName, classLoader));
+        } else {
+            this.replacementExecutor = null;
+        }
+        final ThreadPoolExecutor mapExecutor = new ThreadPoolExecutor(maxSize, maxSize, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), threadFactory("chicory-map-" + poolName, classLoader));
+        mapExecutor.allowCoreThreadTimeOut(true);
+        this.mapExecutor = mapExecutor;
+    }
+
+    /**
+     * Borrows an instance, applies the given function to it and returns the instance to the pool.
+     * <p>
+     * If the function throws, the instance is discarded instead of being returned, since the guest state might
+     * be inconsistent.
+     *
+     * @param call The function to apply to the borrowed {@link Instance}
+     * @return The value returned by the function
+     * @param <T> The type of the returned value
+     */
+    public <T> T execute(final Function<Instance, T> call) {
+        return execute(null, call);
+    }
+
+    /**
+     * Borrows the instance associated with an affinity key if it's idle, or any other instance otherwise, applies the
+     * given function to it and returns the instance to the pool.
+     *
+     * @param affinityKey The key identifying the guest-side state the call benefits from, or {@code null}
+     * @param call The function to apply to the borrowed {@link Instance}
+     * @return The value returned by the function
+     * @param <T> The type of the returned value
+     * @see #execute(Function)
+     */
+    public <T> T execute(final Object affinityKey, final Function<Instance, T> call) {
+        return executeBorrowed(borrow(affinityKey), call);
+    }
+
+    /**
+     * Applies the given function to a borrowed instance, and returns the instance to the pool, or discards it if the
+     * function throws. It isn't an {@code execute} overload, which {@code execute(null, call)} would bind to.
+     */
+    <T> T executeBorrowed(final Instance instance, final Function<Instance, T> call) {
+        final T result;
+        try {
+            result = call.apply(instance);
+        } catch (RuntimeException | Error e) {
+            discard(instance);
+            throw e;
+        }
+        release(instance);
+        return result;
+    }
+
+    /**
+     * Applies a function to each input in parallel across the instances of this pool, so that the throughput of bulk
+     * jobs scales with the pool size. Each worker borrows one instance and processes inputs back to back, pulling the
+     * next one as soon as it's done. A failing item doesn't fail the job: its failure is recorded, and the instance is
+     * discarded and replaced for the next items.
+     *
+     * <pre>
+     * List&lt;WasmItemResult&lt;byte[]&gt;&gt; codes = pool.parallelMap(texts, (instance, text) -&gt; render(instance, text));
+     * </pre>
+     *
+     * @param inputs The inputs to process
+     * @param call The function to apply to each input, given the borrowed {@link Instance}
+     * @return The outcome of each input, in the same order as the inputs
+     * @param <I> The type of the inputs
+     * @param <R> The type of the results
+     */
+    public <I, R> List<WasmItemResult<R>> parallelMap(final List<I> inputs, final BiFunction<Instance, I, R> call) {
+        return parallelMap(inputs, call, mapExecutor);
+    }
+
+    /**
+     * Applies a function to each input in parallel across the instances of this pool, running the workers on the
+     * given executor, e.g. a virtual thread per task executor.
+     *
+     * @param inputs The inputs to process
+     * @param call The function to apply to each input, given the borrowed {@link Instance}
+     * @param executor The {@link Executor} running the workers
+     * @return The outcome of each input, in the same order as the inputs
+     * @param <I> The type of the inputs
+     * @param <R> The type of the results
+     * @see #parallelMap(List, BiFunction)
+     */
+    public <I, R> List<WasmItemResult<R>> parallelMap(final List<I> inputs, final BiFunction<Instance, I, R> call,
+            final Executor executor) {
+        final AtomicReferenceArray<WasmItemResult<R>> results = new AtomicReferenceArray<>(inputs.size());
+        final AtomicInteger next = new AtomicInteger();
+        final int workers = Math.min(maxSize, inputs.size());
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[workers];
+        for (int i = 0; i < workers; i++) {
+            futures[i] = CompletableFuture.runAsync(() -> mapItems(inputs, call, next, results), executor);
+        }
+        CompletableFuture.allOf(futures).join();
+        final List<WasmItemResult<R>> list = new ArrayList<>(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            list.add(results.get(i));
+        }
+        return list;
+    }
+
+    /**
+     * Borrows an instance from the pool, waiting for one to become available if all instances are in use.
+     * The caller must give it back through {@link #release(Instance)} or {@link #discard(Instance)}.
+     *
+     * @return An {@link Instance} exclusively owned by the caller until it's released
+     * @throws IllegalStateException if the calling thread is interrupted while waiting
+     */
+    public Instance borrow() {
+        return borrow(null);
+    }
+
+    /**
+     * Borrows the instance associated with an affinity key if it's idle, or any other instance otherwise, waiting for
+     * one to become available if all instances are in use.
+     *
+     * @param affinityKey The key identifying the guest-side state the call benefits from, or {@code null}
+     * @return An {@link Instance} exclusively owned by the caller until it's released
+     * @throws IllegalStateException if the calling thread is interrupted while waiting, or the pool is closed
+     * @throws WasmCapacityExceededException if the maximum number of waiting callers is reached, or no instance
+     *         becomes available within the acquire timeout
+     * @see #borrow()
+     */
+    public Instance borrow(final Object affinityKey) {
+        final Instance instance = tryBorrow(affinityKey);
+        if (instance == null) {
+            throw new IllegalStateException("The instance pool of Wasm module " + moduleKey + " is closed");
+        }
+        return instance;
+    }
+
+    /**
+     * Borrows an instance like {@link #borrow(Object)}, unless the pool is closed, e.g. because its tenant was evicted.
+     *
+     * @return An {@link Instance} exclusively owned by the caller until it's released, or {@code null} if the pool is
+     *         closed
+     */
+    Instance tryBorrow(final Object affinityKey) {
+        if (closed) {
+            return null;
+        }
+        try {
+            // a timed tryAcquire honors the fairness of the semaphore
+            if (!permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                if (maxQueue.isPresent() && permits.getQueueLength() >= maxQueue.get()) {
+                    rejectedCount.incrementAndGet();
+                    throw new WasmCapacityExceededException("All instances of Wasm module " + moduleKey
+                            + " are busy, and " + maxQueue.get() + " callers are already waiting");
+                }
+                if (acquireTimeoutNanos < 0) {
+                    permits.acquire();
+                } else if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                    timeoutCount.incrementAndGet();
+                    throw new WasmCapacityExceededException("No instance of Wasm module " + moduleKey
+                            + " became available within " + Duration.ofNanos(acquireTimeoutNanos));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an instance of Wasm module " + moduleKey, e);
+        }
+        final int slot;
+        lock.lock();
+        try {
+            if (closed) {
+                permits.release();
+                return null;
+            }
+            slot = reserveSlot(affinityKey);
+            if (slots[slot] != null) {
+                return slots[slot];
+            }
+        } finally {
+            lock.unlock();
+        }
+        return create(slot);
+    }
+
+    /**
+     * Returns a borrowed instance to the pool, or retires it if the configured memory or calls threshold is exceeded.
+     *
+     * @param instance The {@link Instance} obtained by {@link #borrow()}
+     */
+    public void release(final Instance instance) {
+        if (maxPages.isPresent() && exceedsMemoryBudget()) {
+            LOG.debug("Instances of Wasm module " + moduleKey + " exceed " + maxPages.get() + " memory pages");
+            discard(instance);
+            return;
+        }
+        if (replacementExecutor != null && shouldRetire(instance)) {
+            retire(instance);
+            return;
+        }
+        park(instance);
+    }
+
+    /**
+     * Drops a borrowed instance, e.g. because a call has failed, so that a new one is created when needed.
+     * An {@link OffHeapMemory} owned by the instance, and the instances of the linked modules it calls, are released.
+     *
+     * @param instance The {@link Instance} obtained by {@link #borrow()}
+     */
+    public void discard(final Instance instance) {
+        LOG.debug("Discarding an instance of Wasm module " + moduleKey);
+        Instance droppedReplacement = null;
+        try {
+            lock.lock();
+            try {
+                final int slot = slotOf(instance);
+                final Instance replacement = replacements[slot];
+                freeSlot(slot);
+                if (replacement != null && closed) {
+                    droppedReplacement = replacement;
+                } else if (replacement != null) {
+                    // the replacement of a retired instance is already built
+                    install(slot, replacement);
+                    idleSlots.offerFirst(slot);
+                }
+            } finally {
+                lock.unlock();
+            }
+            dispose(instance);
+            if (droppedReplacement != null) {
+                dispose(droppedReplacement);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Eagerly creates all the instances of the pool, so that callers don't pay for instantiation.
+     */
+    public void fill() {
+        final List<Instance> borrowed = new ArrayList<>(maxSize);
+        try {
+            for (int i = 0; i < maxSize; i++) {
+                borrowed.add(borrow());
+            }
+        } finally {
+            for (Instance instance : borrowed) {
+                park(instance);
+            }
+        }
+    }
+
+    /**
+     * Returns the maximum number of instances of this pool.
+     *
+     * @return The value configured via {@code quarkus.chicory.modules.<module-key>.pool.max-size}
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the number of instances that are currently idle in the pool.
+     *
+     * @return The number of idle instances
+     */
+    public int getIdleCount() {
+        lock.lock();
+        try {
+            return idleSlots.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of instances that are currently borrowed, or being created.
+     *
+     * @return The number of busy instances
+     */
+    public int getBusyCount() {
+        return maxSize - permits.availablePermits();
+    }
+
+    /**
+     * Returns the estimated number of callers waiting for an instance.
+     *
+     * @return The queue depth of this pool
+     */
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * Returns the number of callers that have been rejected because the maximum number of waiting callers was reached.
+     *
+     * @return The number of rejected callers
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * Returns the number of callers that have been rejected because no instance became available within the acquire
+     * timeout.
+     *
+     * @return The number of timed out callers
+     */
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+
+    /**
+     * Returns the number of instances that have been retired and replaced so far.
+     *
+     * @return The number of retired instances
+     */
+    public int getRetiredCount() {
+        return retired.get();
+    }
+
+    /**
+     * Returns the number of calls with an affinity key that were served by the instance associated with the key.
+     *
+     * @return The number of affinity hits
+     */
+    public long getAffinityHitCount() {
+        return affinityHits.get();
+    }
+
+    /**
+     * Returns the number of calls with an affinity key that fell back to another instance, because the instance
+     * associated with the key was busy or not created yet.
+     *
+     * @return The number of affinity misses
+     */
+    public long getAffinityMissCount() {
+        return affinityMisses.get();
+    }
+
+    /**
+     * Closes this pool, e.g. when its tenant is evicted: the idle instances are dropped, borrowed instances are dropped
+     * when they're returned, and borrowing fails from now on.
+     */
+    void close() {
+        closed = true;
+        clear();
+    }
+
+    /**
+     * Tells whether this pool is closed.
+     *
+     * @return {@code true} if {@link #close()} was called, {@code false} otherwise
+     */
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Drops the idle instances of this pool, releasing their {@link OffHeapMemory}. Borrowed instances are dropped when
+     * they're returned.
+     */
+    void clear() {
+        final List<Instance> dropped = new ArrayList<>();
+        lock.lock();
+        try {
+            generation++;
+            for (Integer slot = idleSlots.pollFirst(); slot != null; slot = idleSlots.pollFirst()) {
+                dropped.add(slots[slot]);
+                freeSlot(slot);
+            }
+        } finally {
+            lock.unlock();
+        }
+        dropped.forEach(this::dispose);
+    }
+
+    private <I, R> void mapItems(final List<I> inputs, final BiFunction<Instance, I, R> call, final AtomicInteger next,
+            final AtomicReferenceArray<WasmItemResult<R>> results) {
+        Instance instance = null;
+        try {
+            for (int i = next.getAndIncrement(); i < inputs.size(); i = next.getAndIncrement()) {
+                try {
+                    if (instance == null) {
+                        instance = borrow();
+                    }
+                    results.set(i, WasmItemResult.success(call.apply(instance, inputs.get(i))));
+                } catch (RuntimeException | Error e) {
+                    results.set(i, WasmItemResult.failure(e));
+                    if (instance != null) {
+                        // the guest state might be inconsistent
+                        final Instance failed = instance;
+                        instance = null;
+                        discard(failed);
+                    }
+                }
+            }
+        } finally {
+            if (instance != null) {
+                release(instance);
+            }
+        }
+    }
+
+    private boolean exceedsMemoryBudget() {
+        long pages = 0;
+        lock.lock();
+        try {
+            for (Instance instance : slots) {
+                if (instance != null && instance.memory() != null) {
+                    pages += instance.memory().pages();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return pages > maxPages.get();
+    }
+
+    private int reserveSlot(final Object affinityKey) {
+        // holding a permit guarantees that at least one slot is not busy
+        if (affinityKey != null) {
+            final int preferred = consistentHash(affinityKey.hashCode(), maxSize);
+            if (!busy[preferred]) {
+                if (slots[preferred] != null) {
+                    affinityHits.incrementAndGet();
+                    idleSlots.remove(preferred);
+                } else {
+                    affinityMisses.incrementAndGet();
+                }
+                busy[preferred] = true;
+                return preferred;
+            }
+            affinityMisses.incrementAndGet();
+        }
+        // the most recently used (and warmest) instance is handed out first
+        final Integer idleSlot = idleSlots.pollFirst();
+        if (idleSlot != null) {
+            busy[idleSlot] = true;
+            return idleSlot;
+        }
+        for (int slot = 0; slot < maxSize; slot++) {
+            if (!busy[slot]) {
+                busy[slot] = true;
+                return slot;
+            }
+        }
+        throw new IllegalStateException("No free slot in the instance pool of Wasm module " + moduleKey);
+    }
+
+    private Instance create(final int slot) {
+        final Instance instance;
+        try {
+            instance = instanceFactory.get();
+        } catch (RuntimeException | Error e) {
+            lock.lock();
+            try {
+                busy[slot] = false;
+            } finally {
+                lock.unlock();
+            }
+            permits.release();
+            throw e;
+        }
+        LOG.debug("Created instance " + created.incrementAndGet() + " for Wasm module " + moduleKey);
+        lock.lock();
+        try {
+            slots[slot] = instance;
+            slotIndexes.put(instance, slot);
+        } finally {
+            lock.unlock();
+        }
+        return instance;
+    }
+
+    private void park(final Instance instance) {
+        Instance retiredInstance = null;
+        Instance droppedReplacement = null;
+        lock.lock();
+        try {
+            final int slot = slotOf(instance);
+            if (closed) {
+                // the instance and its replacement, if any, are not parked in a closed pool
+                retiredInstance = instance;
+                droppedReplacement = replacements[slot];
+                freeSlot(slot);
+            } else {
+                if (replacements[slot] != null) {
+                    // the instance was retired while it was borrowed, and its replacement is ready
+                    retiredInstance = instance;
+                    install(slot, replacements[slot]);
+                }
+                busy[slot] = false;
+                idleSlots.offerFirst(slot);
+            }
+        } finally {
+            lock.unlock();
+        }
+        permits.release();
+        if (retiredInstance != null) {
+            dispose(retiredInstance);
+        }
+        if (droppedReplacement != null) {
+            dispose(droppedReplacement);
+        }
+    }
+
+    private int slotOf(final Instance instance) {
+        final Integer slot = slotIndexes.get(instance);
+        if (slot == null) {
+            throw new IllegalArgumentException("The instance was not borrowed from the pool of Wasm module " + moduleKey);
+        }
+        return slot;
+    }
+
+    private void freeSlot(final int slot) {
+        slotIndexes.remove(slots[slot]);
+        slots[slot] = null;
+        busy[slot] = false;
+        retiring[slot] = false;
+        replacements[slot] = null;
+    }
+
+    private void install(final int slot, final Instance instance) {
+        slotIndexes.remove(slots[slot]);
+        slots[slot] = instance;
+        slotIndexes.put(instance, slot);
+        retiring[slot] = false;
+        replacements[slot] = null;
+    }
+
+    private boolean shouldRetire(final Instance instance) {
+        if (retireAbovePages.isPresent() && instance.memory() != null
+                && instance.memory().pages() > retireAbovePages.get()) {
+            return true;
+        }
+        return retireAfterCalls.isPresent()
+                && callCounts.computeIfAbsent(instance, i -> new AtomicLong()).incrementAndGet() >= retireAfterCalls.get();
+    }
+
+    private void retire(final Instance instance) {
+        final int slot;
+        final int retiredGeneration;
+        final boolean alreadyRetiring;
+        lock.lock();
+        try {
+            slot = slotOf(instance);
+            retiredGeneration = generation;
+            alreadyRetiring = retiring[slot];
+            retiring[slot] = true;
+        } finally {
+            lock.unlock();
+        }
+        // the instance keeps serving callers until its replacement is ready, and the caller's permit is released now
+        park(instance);
+        if (alreadyRetiring) {
+            return;
+        }
+        LOG.debug("Retiring an instance of Wasm module " + moduleKey);
+        retired.incrementAndGet();
+        replacementExecutor.execute(() -> replace(slot, instance, retiredGeneration));
+    }
+
+    private void replace(final int slot, final Instance retiredInstance, final int retiredGeneration) {
+        Instance replacement = null;
+        try {
+            replacement = instanceFactory.get();
+            LOG.debug("Created replacement instance " + created.incrementAndGet() + " for Wasm module " + moduleKey);
+        } catch (RuntimeException | Error e) {
+            LOG.warn("Cannot create a replacement instance for Wasm module " + moduleKey, e);
+        }
+        Instance disposed = replacement;
+        lock.lock();
+        try {
+            if (slots[slot] == retiredInstance) {
+                if (replacement == null || generation != retiredGeneration || closed) {
+                    // the retired instance keeps serving, and is retired again when it's next returned
+                    retiring[slot] = false;
+                } else if (busy[slot]) {
+                    // swapped in when the retired instance is returned
+                    replacements[slot] = replacement;
+                    disposed = null;
+                } else {
+                    install(slot, replacement);
+                    disposed = retiredInstance;
+                }
+            } else if (slots[slot] == null && !busy[slot] && replacement != null && generation == retiredGeneration
+                    && !closed) {
+                // the retired instance was discarded meanwhile
+                install(slot, replacement);
+                idleSlots.offerFirst(slot);
+                disposed = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (disposed != null) {
+            dispose(disposed);
+        }
+    }
+
+    private void dispose(final Instance instance) {
+        callCounts.remove(instance);
+        instanceDisposer.accept(instance);
+    }
+
+    static ThreadFactory threadFactory(final String name, final ClassLoader classLoader) {
+        final AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setContextClassLoader(classLoader);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Maps a key to one of the given number of buckets, moving only a minimal number of keys when the number of
+     * buckets changes (Lamping and Veach, "A Fast, Minimal Memory, Consistent Hash Algorithm").
+     */
+    private static int consistentHash(final int hash, final int buckets) {
+        long key = hash * 0x9E3779B97F4A7C15L;
+        long bucket = -1;
+        long next = 0;
+        while (next < buckets) {
+            bucket = next;
+            key = key * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+}
@@ -0,0 +1,56 @@
+package io.quarkiverse.chicory.runtime.wasm;
+
+/**
+ * The outcome of processing a single item of a {@link WasmInstancePool#parallelMap parallel map}, i.e. either a value
+ * or the failure that occurred while processing the item, so that one failing item doesn't fail the whole job.
+ *
+ * @param <R> The type of the value
+ */
+public final class WasmItemResult<R> {
+    private final R value;
+    private final Throwable failure;
+
+    private WasmItemResult(final R value, final Throwable failure) {
+        this.value = value;
+        this.failure = failure;
+    }
+
+    static <R> WasmItemResult<R> success(final R value) {
+        return new WasmItemResult<>(value, null);
+    }
+
+    static <R> WasmItemResult<R> failure(final Throwable failure) {
+        return new WasmItemResult<>(null, failure);
+    }
+
+    /**
+     * Tells whether processing the item failed.
+     *
+     * @return {@code true} if the item failed, {@code false} otherwise
+     */
+    public boolean isFailure() {
+        return failure != null;
+    }
+
+    /**
+     * Returns the value computed for the item.
+     *
+     * @return The value computed for the item
+     * @throws IllegalStateException if processing the item failed, with the failure as cause
+     */
+    public R get() {
+        if (failure != null) {
+            throw new IllegalStateException("Processing the item failed", failure);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the failure that occurred while processing the item.
+     *
+     * @return The failure, or {@code null} if the item succeeded
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+}
@@ -0,0 +1,85 @@
+package io.quarkiverse.chicory.runtime.wasm;
+
+import java.util.function.Function;
+
+import com.dylibso.chicory.runtime.ByteArrayMemory;
+import com.dylibso.chicory.runtime.Memory;
+import com.dylibso.chicory.runtime.alloc.MemAllocStrategy;
+import com.dylibso.chicory.wasm.types.MemoryLimits;
+
+import io.quarkiverse.chicory.runtime.WasmQuarkusConfig;
+
+/**
+ * A memory factory that applies the configured sizing and growth policy to the linear memory of an instance.
+ * <p>
+ * The guest still observes the memory size declared by the Wasm module, but the backing array is reserved upfront
+ * ({@code memory.initial-pages}) and reallocated in big steps ({@code memory.growth-increment}), so that a guest
+ * repeatedly calling {@code memory.grow} doesn't copy the whole memory each time. The maximum size declared by the
+ * module is capped by {@code memory.max-pages}. When {@code memory.off-heap} is enabled, an {@link OffHeapMemory} is
+ * created instead of a heap-backed one.
+ * </p>
+ */
+public class WasmMemoryFactory implements Function<MemoryLimits, Memory> {
+    private final String moduleKey;
+    private final WasmQuarkusConfig.ModuleConfig.MemoryConfig memoryConfig;
+
+    WasmMemoryFactory(final String moduleKey, final WasmQuarkusConfig.ModuleConfig.MemoryConfig memoryConfig) {
+        this.moduleKey = moduleKey;
+        this.memoryConfig = memoryConfig;
+    }
+
+    @Override
+    public Memory apply(final MemoryLimits declaredLimits) {
+        final MemoryLimits limits = cap(declaredLimits);
+        if (memoryConfig.offHeap()) {
+            return new OffHeapMemory(limits, allocStrategy(limits));
+        }
+        if (memoryConfig.initialPages().isEmpty() && memoryConfig.growthIncrement().isEmpty()) {
+            return new ByteArrayMemory(limits);
+        }
+        return new ByteArrayMemory(limits, allocStrategy(limits));
+    }
+
+    /**
+     * Tells whether any memory sizing or growth option is configured, i.e. whether this factory should replace the
+     * default Chicory one.
+     *
+     * @return {@code true} if at least one option under {@code memory} is configured, {@code false} otherwise
+     */
+    boolean isConfigured() {
+        return memoryConfig.initialPages().isPresent() || memoryConfig.maxPages().isPresent()
+                || memoryConfig.growthIncrement().isPresent() || memoryConfig.offHeap();
+    }
+
+    MemoryLimits cap(final MemoryLimits declaredLimits) {
+        if (memoryConfig.maxPages().isEmpty() || declaredLimits.maximumPages() <= memoryConfig.maxPages().get()) {
+            return declaredLimits;
+        }
+        final int maxPages = memoryConfig.maxPages().get();
+        if (declaredLimits.initialPages() > maxPages) {
+            throw new IllegalStateException("Wasm module " + moduleKey + " declares " + declaredLimits.initialPages()
+                    + " initial memory pages, which exceeds the configured max-pages (" + maxPages + ")");
+        }
+        return new MemoryLimits(declaredLimits.initialPages(), maxPages, declaredLimits.shared());
+    }
+
+    private MemAllocStrategy allocStrategy(final MemoryLimits limits) {
+        final long maxBytes = Math.min((long) limits.maximumPages() * Memory.PAGE_SIZE, Integer.MAX_VALUE);
+        final long reservedBytes = (long) memoryConfig.initialPages().orElse(0) * Memory.PAGE_SIZE;
+        final long incrementBytes = (long) memoryConfig.growthIncrement().orElse(0) * Memory.PAGE_SIZE;
+        return new MemAllocStrategy() {
+            @Override
+            public int initial(final int min) {
+                return (int) Math.max(min, Math.min(reservedBytes, maxBytes));
+            }
+
+            @Override
+            public int next(final int current, final int target) {
+                if (incrementBytes == 0) {
+                    return Math.max(target, (int) Math.min((long) current * 2, maxBytes));
+                }
+                return (int) Math.max(target, Math.min(current + incrementBytes, maxBytes));
+            }
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package io.quarkiverse.chicory.runtime.wasm;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import jakarta.enterprise.util.AnnotationLiteral;
+import jakarta.inject.Qualifier;
+
+/**
+ * Qualifies the injectable {@link WasmInstance} bean of a statically configured Wasm module, by the key of the module
+ * in {@code quarkus.chicory.modules.<module-key>}.
+ * <p>
+ * The {@link WasmQuarkusContext} bean of a module is named after its key, so the {@link WasmInstance} bean uses this
+ * dedicated qualifier rather than a second bean with the same name:
+ *
+ * <pre>
+ * &#64;Inject
+ * &#64;WasmModuleKey("my-module")
+ * WasmInstance wasmInstance;
+ * </pre>
+ */
+@Qualifier
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.FIELD, ElementType.PARAMETER, ElementType.METHOD, ElementType.TYPE })
+public @interface WasmModuleKey {
+
+    /**
+     * The key of the Wasm module.
+     *
+     * @return The module key
+     */
+    String value();
+
+    /**
+     * Supports the programmatic lookup of the {@link WasmInstance} bean of a Wasm module.
+     */
+    final class Literal extends AnnotationLiteral<WasmModuleKey> implements WasmModuleKey {
+        private static final long serialVersionUID = 1L;
+
+        private final String value;
+
+        private Literal(final String value) {
+            this.value = value;
+        }
+
+        /**
+         * Creates the qualifier of the Wasm module with the given key.
+         *
+         * @param value The key of the Wasm module
+         * @return The {@link WasmModuleKey} qualifier
+         */
+        public static Literal of(final String value) {
+            return new Literal(value);
+        }
+
+        @Override
+        public String value() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package io.quarkiverse.chicory.runtime.wasm;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import com.dylibso.chicory.runtime.Instance;
+import com.dylibso.chicory.runtime.Machine;
+import com.dylibso.chicory.wasm.ChicoryException;
+import com.dylibso.chicory.wasm.WasmModule;
+import com.dylibso.chicory.wasm.types.Export;
+import com.dylibso.chicory.wasm.types.ExternalType;
+
+/**
+ * The performance statistics of the instances of a Wasm module built by the extension, which are only collected in dev
+ * mode, for a given execution mode.
+ * <p>
+ * The timings of parsing the module, creating the machine of an instance (i.e. compiling the module, with the runtime
+ * compiler) and building an instance are recorded, along with the latency of the calls to each exported function,
+ * of which the last {@value #SAMPLES} are kept to compute percentiles and call rates, and the memory pages of the
+ * instances after each call.
+ * </p>
+ */
+public final class WasmModuleStats {
+    private static final int SAMPLES = 1024;
+    private static final long RATE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final ExecutionMode executionMode;
+    private final Map<String, ExportStats> exports = new ConcurrentHashMap<>();
+    private final AtomicLong parseNanos = new AtomicLong();
+    private final AtomicLong machineNanos = new AtomicLong();
+    private final AtomicLong instantiateNanos = new AtomicLong();
+    private final AtomicLong instanceCount = new AtomicLong();
+    private final AtomicInteger lastPages = new AtomicInteger();
+    private final AtomicInteger maxPages = new AtomicInteger();
+
+    WasmModuleStats(final ExecutionMode executionMode) {
+        this.executionMode = executionMode;
+    }
+
+    /**
+     * Returns the execution mode of the instances these statistics were collected for.
+     *
+     * @return The {@link ExecutionMode} of the instances
+     */
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /**
+     * Returns the time it took to parse the module.
+     *
+     * @return The parse time in nanoseconds
+     */
+    public long getParseNanos() {
+        return parseNanos.get();
+    }
+
+    /**
+     * Returns the time it took to create the machine of the last instance, which includes compiling the module with the
+     * runtime compiler.
+     *
+     * @return The machine creation time in nanoseconds
+     */
+    public long getMachineNanos() {
+        return machineNanos.get();
+    }
+
+    /**
+     * Returns the time it took to build the last instance, machine creation included.
+     *
+     * @return The instantiation time in nanoseconds
+     */
+    public long getInstantiateNanos() {
+        return instantiateNanos.get();
+    }
+
+    /**
+     * Returns the number of instances built.
+     *
+     * @return The number of instances built
+     */
+    public long getInstanceCount() {
+        return instanceCount.get();
+    }
+
+    /**
+     * Returns the memory pages of the last instance that returned from an exported function.
+     *
+     * @return The number of memory pages
+     */
+    public int getLastPages() {
+        return lastPages.get();
+    }
+
+    /**
+     * Returns the largest number of memory pages observed when an instance returned from an exported function.
+     *
+     * @return The number of memory pages
+     */
+    public int getMaxPages() {
+        return maxPages.get();
+    }
+
+    /**
+     * Returns the statistics of the exported functions that have been called, keyed by export name.
+     *
+     * @return The {@link ExportStats} of each called export
+     */
+    public Map<String, ExportStats> getExports() {
+        return exports;
+    }
+
+    void recordParse(final long nanos) {
+        parseNanos.set(nanos);
+    }
+
+    void recordInstantiate(final long nanos) {
+        instantiateNanos.set(nanos);
+        instanceCount.incrementAndGet();
+    }
+
+    /**
+     * Wraps a machine factory, to record the machine creation time and the calls to exported functions.
+     */
+    Function<Instance, Machine> wrap(final WasmModule wasmModule, final Function<Instance, Machine> machineFactory) {
+        // function ids include the imported functions
+        int importedFunctions = 0;
+        for (int i = 0; i < wasmModule.importSection().importCount(); i++) {
+            if (wasmModule.importSection().getImport(i).importType() == ExternalType.FUNCTION) {
+                importedFunctions++;
+            }
+        }
+        final String[] exportNames = new String[importedFunctions + wasmModule.functionSection().functionCount()];
+        for (int i = 0; i < wasmModule.exportSection().exportCount(); i++) {
+            final Export export = wasmModule.exportSection().getExport(i);
+            if (export.exportType() == ExternalType.FUNCTION) {
+                exportNames[(int) export.index()] = export.name();
+            }
+        }
+        return instance -> {
+            final long start = System.nanoTime();
+            final Machine machine = machineFactory.apply(instance);
+            machineNanos.set(System.nanoTime() - start);
+            return new StatsMachine(instance, machine, exportNames);
+        };
+    }
+
+    private void recordPages(final Instance instance) {
+        if (instance.memory() == null) {
+            return;
+        }
+        final int pages = instance.memory().pages();
+        lastPages.set(pages);
+        maxPages.accumulateAndGet(pages, Math::max);
+    }
+
+    /**
+     * The statistics of the calls to an exported function.
+     */
+    public static final class ExportStats {
+        private final AtomicLong callCount = new AtomicLong();
+        private final long[] latencies = new long[SAMPLES];
+        private final long[] timestamps = new long[SAMPLES];
+        private final ReentrantLock lock = new ReentrantLock();
+        private int next;
+
+        /**
+         * Returns the number of calls.
+         *
+         * @return The number of calls to the export
+         */
+        public long getCallCount() {
+            return callCount.get();
+        }
+
+        /**
+         * Returns the number of calls per second over the last 10 seconds.
+         *
+         * @return The call rate, based on the recent samples
+         */
+        public double getCallRate() {
+            lock.lock();
+            try {
+                final long now = System.nanoTime();
+                int recent = 0;
+                for (int i = 0; i < Math.min(SAMPLES, callCount.get()); i++) {
+                    if (now - timestamps[i] <= RATE_WINDOW_NANOS) {
+                        recent++;
+                    }
+                }
+                return recent / (double) TimeUnit.NANOSECONDS.toSeconds(RATE_WINDOW_NANOS);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Returns a latency percentile of the recent calls.
+         *
+         * @param percentile The percentile, between {@code 0} and {@code 100}
+         * @return The latency in nanoseconds, or {@code 0} if the export hasn't been called
+         */
+        public long getLatencyPercentile(final double percentile) {
+            lock.lock();
+            try {
+                final int count = (int) Math.min(SAMPLES, callCount.get());
+                if (count == 0) {
+                    return 0;
+                }
+                final long[] sorted = Arrays.copyOf(latencies, count);
+                Arrays.sort(sorted);
+                final int index = (int) Math.ceil(percentile / 100 * count) - 1;
+                return sorted[Math.max(0, Math.min(count - 1, index))];
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void record(final long start, final long nanos) {
+            lock.lock();
+            try {
+                latencies[next] = nanos;
+                timestamps[next] = start;
+                next = (next + 1) % SAMPLES;
+                callCount.incrementAndGet();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Times the calls to exported functions, which go through the machine of the instance.
+     */
+    private final class StatsMachine implements Machine {
+        private final Instance instance;
+        private final Machine delegate;
+        private final String[] exportNames;
+
+        private StatsMachine(final Instance instance, final Machine delegate, final String[] exportNames) {
+            this.instance = instance;
+            this.delegate = delegate;
+            this.exportNames = exportNames;
+        }
+
+        @Override
+        public long[] call(final int funcId, final long[] args) throws ChicoryException {
+            final String exportName = funcId < exportNames.length ? exportNames[funcId] : null;
+            if (exportName == null) {
+                return delegate.call(funcId, args);
+            }
+            final long start = System.nanoTime();
+            try {
+                return delegate.call(funcId, args);
+            } finally {
+                exports.computeIfAbsent(exportName, k -> new ExportStats()).record(start, System.nanoTime() - start);
+                recordPages(instance);
+            }
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package io.quarkiverse.chicory.runtime.wasm;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.jboss.logging.Logger;
+
+import com.dylibso.chicory.runtime.Instance;
+import com.dylibso.chicory.runtime.Machine;
+import com.dylibso.chicory.wasm.ChicoryException;
+import com.dylibso.chicory.wasm.WasmModule;
+import com.dylibso.chicory.wasm.types.Export;
+import com.dylibso.chicory.wasm.types.ExternalType;
+import com.dylibso.chicory.wasm.types.NameCustomSection;
+
+import io.quarkiverse.chicory.runtime.WasmQuarkusConfig;
+
+/**
+ * A sampling profiler that attributes the time spent in the instances of a Wasm module to Wasm functions.
+ * <p>
+ * The threads executing an exported function are registered by the machine of each instance built by the extension,
+ * and a daemon thread samples their stacks at the configured interval. The frames of the generated methods, which
+ * are named after the function index, are mapped to the function names of the module's {@code name} custom section,
+ * and counted as collapsed stacks, i.e. {@code export;outer;inner count} lines, which flame graph tools render. Functions
+ * executed by the interpreter don't have frames of their own, so their time is attributed to the closest compiled
+ * caller, or to the export when the whole module is interpreted.
+ * </p>
+ */
+public final class WasmProfiler {
+    private static final Logger LOG = Logger.getLogger(WasmProfiler.class);
+    private static final Pattern FUNCTION_METHOD = Pattern.compile("func_(\\d+)");
+    private static final long OUTPUT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final String moduleKey;
+    private final WasmQuarkusConfig.ModuleConfig.ProfilerConfig profilerConfig;
+    private final Map<Thread, String> activeThreads = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> stacks = new ConcurrentHashMap<>();
+    private final AtomicLong sampleCount = new AtomicLong();
+    private volatile String[] functionNames = new String[0];
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Thread samplerThread;
+
+    WasmProfiler(final String moduleKey, final WasmQuarkusConfig.ModuleConfig.ProfilerConfig profilerConfig) {
+        if (profilerConfig.interval().isNegative() || profilerConfig.interval().isZero()) {
+            throw new IllegalArgumentException("Profiler interval for Wasm module " + moduleKey + " must be positive");
+        }
+        this.moduleKey = moduleKey;
+        this.profilerConfig = profilerConfig;
+    }
+
+    /**
+     * Returns the number of samples taken while an exported function was executing.
+     *
+     * @return The number of samples
+     */
+    public long getSampleCount() {
+        return sampleCount.get();
+    }
+
+    /**
+     * Returns the samples as collapsed stacks, one {@code export;outer;inner count} line per distinct stack, sorted by
+     * stack.
+     *
+     * @return The collapsed stacks
+     */
+    public String getCollapsedStacks() {
+        final StringBuilder result = new StringBuilder();
+        for (Map.Entry<String, LongAdder> stack : new TreeMap<>(stacks).entrySet()) {
+            result.append(stack.getKey()).append(' ').append(stack.getValue().sum()).append('\n');
+        }
+        return result.toString();
+    }
+
+    /**
+     * Drops the samples taken so far.
+     */
+    public void reset() {
+        stacks.clear();
+        sampleCount.set(0);
+    }
+
+    /**
+     * Wraps a machine factory, so that the threads executing exported functions are sampled, and starts sampling.
+     */
+    Function<Instance, Machine> wrap(final WasmModule wasmModule, final Function<Instance, Machine> machineFactory) {
+        int importedFunctions = 0;
+        for (int i = 0; i < wasmModule.importSection().importCount(); i++) {
+            if (wasmModule.importSection().getImport(i).importType() == ExternalType.FUNCTION) {
+                importedFunctions++;
+            }
+        }
+        final String[] names = new String[importedFunctions + wasmModule.functionSection().functionCount()];
+        final NameCustomSection nameSection = wasmModule.nameSection();
+        for (int i = 0; i < names.length; i++) {
+            final String name = nameSection != null ? nameSection.nameOf(i) : null;
+            names[i] = name != null ? name : "func[" + i + "]";
+        }
+        final String[] exportNames = new String[names.length];
+        for (int i = 0; i < wasmModule.exportSection().exportCount(); i++) {
+            final Export export = wasmModule.exportSection().getExport(i);
+            if (export.exportType() == ExternalType.FUNCTION) {
+                exportNames[(int) export.index()] = export.name();
+            }
+        }
+        functionNames = names;
+        startSampling();
+        return instance -> new ProfiledMachine(machineFactory.apply(instance), exportNames);
+    }
+
+    private void startSampling() {
+        lock.lock();
+        try {
+            if (samplerThread != null) {
+                return;
+            }
+            samplerThread = new Thread(this::sample, "chicory-profiler-" + moduleKey);
+            samplerThread.setDaemon(true);
+            samplerThread.start();
+            LOG.info("Sampling Wasm module " + moduleKey + " every " + profilerConfig.interval().toMillis() + " ms");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void sample() {
+        final long intervalNanos = profilerConfig.interval().toNanos();
+        long lastOutput = System.nanoTime();
+        try {
+            while (true) {
+                TimeUnit.NANOSECONDS.sleep(intervalNanos);
+                for (Map.Entry<Thread, String> active : activeThreads.entrySet()) {
+                    record(active.getValue(), active.getKey().getStackTrace());
+                }
+                if (profilerConfig.output().isPresent() && System.nanoTime() - lastOutput >= OUTPUT_INTERVAL_NANOS) {
+                    lastOutput = System.nanoTime();
+                    writeOutput(Path.of(profilerConfig.output().get()));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void record(final String exportName, final StackTraceElement[] frames) {
+        final String[] names = functionNames;
+        final List<String> functions = new ArrayList<>();
+        // stack traces start with the innermost frame
+        for (int i = frames.length - 1; i >= 0; i--) {
+            final Matcher matcher = FUNCTION_METHOD.matcher(frames[i].getMethodName());
+            if (matcher.matches()) {
+                final int function = Integer.parseInt(matcher.group(1));
+                functions.add(function < names.length ? names[function] : "func[" + function + "]");
+            }
+        }
+        final StringBuilder stack = new StringBuilder(exportName);
+        for (String function : functions) {
+            stack.append(';').append(function);
+        }
+        stacks.computeIfAbsent(stack.toString(), k -> new LongAdder()).increment();
+        sampleCount.incrementAndGet();
+    }
+
+    private void writeOutput(final Path output) {
+        try {
+            Files.writeString(output, getCollapsedStacks());
+        } catch (IOException e) {
+            LOG.warn("Cannot write the profile of Wasm module " + moduleKey + " to " + output, e);
+        }
+    }
+
+    /**
+     * Registers the thread executing an exported function for the duration of the call.
+     */
+    private final class ProfiledMachine implements Machine {
+        private final Machine delegate;
+        private final String[] exportNames;
+
+        private ProfiledMachine(final Machine delegate, final String[] exportNames) {
+            this.delegate = delegate;
+            this.exportNames = exportNames;
+        }
+
+        @Override
+        public long[] call(final int funcId, final long[] args) throws ChicoryException {
+            final String exportName = funcId < exportNames.length ? exportNames[funcId] : null;
+            if (exportName == null) {
+                return delegate.call(funcId, args);
+            }
+            final Thread thread = Thread.currentThread();
+            // nested calls, e.g. from host functions, are attributed to the outermost export
+            final String outer = activeThreads.putIfAbsent(thread, exportName);
+            try {
+                return delegate.call(funcId, args);
+            } finally {
+                if (outer == null) {
+                    activeThreads.remove(thread);
+                }
+            }
+        }
+    }
+}
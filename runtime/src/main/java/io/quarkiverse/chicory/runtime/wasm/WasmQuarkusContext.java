@@ -2,18 +2,51 @@ package io.quarkiverse.chicory.runtime.wasm;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.Supplier;
+
+import jakarta.enterprise.inject.literal.NamedLiteral;
 
 import org.jboss.logging.Logger;
 
+import com.dylibso.chicory.compiler.InterpreterFallback;
+import com.dylibso.chicory.runtime.ExportFunction;
+import com.dylibso.chicory.runtime.HostFunction;
+import com.dylibso.chicory.runtime.ImportValues;
 import com.dylibso.chicory.runtime.Instance;
+import com.dylibso.chicory.runtime.InterpreterMachine;
 import com.dylibso.chicory.runtime.Machine;
+import com.dylibso.chicory.runtime.Memory;
+import com.dylibso.chicory.runtime.WasmFunctionHandle;
+import com.dylibso.chicory.wasi.WasiExitException;
+import com.dylibso.chicory.wasi.WasiOptions;
+import com.dylibso.chicory.wasi.WasiPreview1;
 import com.dylibso.chicory.wasm.Parser;
 import com.dylibso.chicory.wasm.WasmModule;
+import com.dylibso.chicory.wasm.types.ExternalType;
+import com.dylibso.chicory.wasm.types.FunctionImport;
+import com.dylibso.chicory.wasm.types.FunctionType;
+import com.dylibso.chicory.wasm.types.Import;
+import com.dylibso.chicory.wasm.types.MemoryLimits;
 
 import io.quarkiverse.chicory.runtime.WasmQuarkusConfig;
 import io.quarkiverse.chicory.runtime.WasmQuarkusUtils;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.InjectableInstance;
 import io.quarkus.runtime.LaunchMode;
 
 /**
@@ -30,16 +63,40 @@ import io.quarkus.runtime.LaunchMode;
  * &#64;Named("my-module")
  * WasmQuarkusContext wasmContext;
  * </pre>
+ * <p>
+ * For statically configured modules, {@link #getInstancePool()} provides a pool of ready-to-use instances that
+ * are managed by the extension. Host imports for pooled instances are obtained from an {@link ImportValues} bean
+ * qualified with the same {@code @Named} value as the module, if one exists, from {@link WasmImport} methods, and
+ * from the exports of the Wasm modules linked via {@code quarkus.chicory.modules.<module-key>.imports}.
  */
 public class WasmQuarkusContext {
     private static final Logger LOG = Logger.getLogger(WasmQuarkusContext.class);
 
+    private final String moduleKey;
     private final String name;
-    private final ExecutionMode executionMode;
+    private volatile ExecutionMode executionMode;
     private final WasmQuarkusConfig.ModuleConfig moduleConfig;
     private final boolean isNativePackageType;
     private final boolean isDynamic;
     private final String projectBaseDir;
+    private final WasmMemoryFactory memoryFactory;
+    private final List<HostFunctionBinding> hostFunctions = new CopyOnWriteArrayList<>();
+    private final List<LinkedImport> linkedImports = new CopyOnWriteArrayList<>();
+    private final Map<String, WasmResultCache> resultCaches = new HashMap<>();
+    private final WasiOutputSink wasiStdout;
+    private final WasiOutputSink wasiStderr;
+    private final WasmProfiler profiler;
+    private final ReentrantLock lock = new ReentrantLock();
+    // the instances of the linked modules that each instance calls, released along with it, guarded by the lock; weak
+    // keys, since instances built by newInstance() are dropped by callers rather than disposed
+    private final Map<Instance, Map<WasmQuarkusContext, Instance>> linkedInstances = new WeakHashMap<>();
+    private volatile Supplier<Instance> instanceFactory;
+    private volatile WasmModuleStats stats;
+    private volatile WasmModuleStats previousStats;
+    private volatile WasmInstancePool instancePool;
+    private volatile WasmTenantPools tenantPools;
+    private volatile boolean warmupPending;
+    private volatile Throwable warmupFailure;
 
     // Client code can't create
     WasmQuarkusContext(final String moduleKey, final WasmQuarkusConfig.ModuleConfig moduleConfig,
@@ -68,11 +125,52 @@ public class WasmQuarkusContext {
             actualExecutionMode = moduleConfig.compiler().executionMode();
             LOG.info("Payload is configured for Wasm module " + moduleKey + ", execution mode is " + actualExecutionMode);
         }
+        this.moduleKey = moduleKey;
         this.name = moduleConfig.name();
         this.executionMode = actualExecutionMode;
         this.moduleConfig = moduleConfig;
         this.isNativePackageType = isNativePackageType;
         this.projectBaseDir = projectBaseDir;
+        this.memoryFactory = new WasmMemoryFactory(moduleKey, moduleConfig.memory());
+        for (Map.Entry<String, WasmQuarkusConfig.ModuleConfig.ExportConfig> export : moduleConfig.exports().entrySet()) {
+            if (export.getValue().pure()) {
+                resultCaches.put(export.getKey(),
+                        new WasmResultCache(moduleKey, export.getKey(), export.getValue().cache()));
+            }
+        }
+        final WasmQuarkusConfig.ModuleConfig.WasiConfig wasiConfig = moduleConfig.wasi();
+        if (wasiConfig.enabled()) {
+            this.wasiStdout = new WasiOutputSink(moduleKey, "stdout", wasiConfig.stdout(), wasiConfig.bufferLines(),
+                    wasiConfig.maxLineLength());
+            this.wasiStderr = new WasiOutputSink(moduleKey, "stderr", wasiConfig.stderr(), wasiConfig.bufferLines(),
+                    wasiConfig.maxLineLength());
+        } else {
+            this.wasiStdout = null;
+            this.wasiStderr = null;
+        }
+        this.profiler = moduleConfig.profiler().enabled() ? new WasmProfiler(moduleKey, moduleConfig.profiler()) : null;
+    }
+
+    /**
+     * Releases the resources of this context that outlive its instances, i.e. the threads logging the WASI standard
+     * output and error, when the application stops, e.g. before a dev mode restart.
+     */
+    void close() {
+        if (wasiStdout != null) {
+            wasiStdout.close();
+        }
+        if (wasiStderr != null) {
+            wasiStderr.close();
+        }
+    }
+
+    /**
+     * Returns the key of this WASM module, which is also the name of its CDI bean.
+     *
+     * @return The {@code <module-key>} of {@code quarkus.chicory.modules.<module-key>}
+     */
+    public String getModuleKey() {
+        return moduleKey;
     }
 
     /**
@@ -100,9 +198,98 @@ public class WasmQuarkusContext {
      * @return A {@link Function} that implements a {@link com.dylibso.chicory.compiler.internal.MachineFactory}
      */
     public Function<Instance, Machine> getMachineFactory() {
+        final Set<Integer> interpretedFunctions = Set.copyOf(
+                moduleConfig.compiler().interpretedFunctions().orElse(List.of()));
         return (LaunchMode.current() == LaunchMode.NORMAL || LaunchMode.current() == LaunchMode.RUN)
-                ? new ProdNativeModeMachineFactoryProvider(isDynamic, this.name, this.executionMode).get()
-                : new DevTestModeMachineFactoryProvider(this.executionMode).get();
+                ? new ProdNativeModeMachineFactoryProvider(isDynamic, this.name, this.executionMode, interpretedFunctions,
+                        moduleConfig.compiler().interpreterFallback()).get()
+                : new DevTestModeMachineFactoryProvider(this.executionMode, interpretedFunctions,
+                        moduleConfig.compiler().interpreterFallback()).get();
+    }
+
+    /**
+     * Returns a machine factory for the instances of the given module, typically a dynamically loaded one, with an
+     * explicit execution mode, and the compiler options configured via
+     * {@code quarkus.chicory.modules.<module-key>.compiler}. With the runtime compiler, the module is compiled once,
+     * rather than once per instance.
+     *
+     * @param wasmModule The module the instances are built from
+     * @param mode The execution mode, or {@code null} to use the execution mode of this context
+     * @return A {@link Function} that creates the {@link Machine} of an instance of the given module
+     */
+    public Function<Instance, Machine> getMachineFactory(final WasmModule wasmModule, final ExecutionMode mode) {
+        return getMachineFactory(wasmModule, mode,
+                Set.copyOf(moduleConfig.compiler().interpretedFunctions().orElse(List.of())),
+                moduleConfig.compiler().interpreterFallback());
+    }
+
+    /**
+     * Returns a machine factory for the instances of the given module, typically a dynamically loaded one, with an
+     * explicit execution mode and compiler options. With the runtime compiler, the module is compiled once, rather
+     * than once per instance. Since code cannot be generated at runtime in a native image, the interpreter is used
+     * instead in native mode.
+     *
+     * @param wasmModule The module the instances are built from
+     * @param mode The execution mode, or {@code null} to use the execution mode of this context
+     * @param interpretedFunctions The indexes of the functions left to the interpreter by the runtime compiler
+     * @param interpreterFallback The action to take when the runtime compiler needs to use the interpreter because a
+     *        function is too big
+     * @return A {@link Function} that creates the {@link Machine} of an instance of the given module
+     */
+    public Function<Instance, Machine> getMachineFactory(final WasmModule wasmModule, final ExecutionMode mode,
+            final Set<Integer> interpretedFunctions, final InterpreterFallback interpreterFallback) {
+        if (resolveExecutionMode(mode) == ExecutionMode.Interpreter) {
+            return InterpreterMachine::new;
+        }
+        return WasmRuntimeCompiler.compile(wasmModule, interpretedFunctions, interpreterFallback);
+    }
+
+    /**
+     * Compiles the given module in the background, on an executor bounded by the number of available processors and
+     * shared by all the modules, so that large dynamically loaded modules compile in parallel without blocking the
+     * caller. The interpreter is used in native mode, as per {@link #getMachineFactory(WasmModule, ExecutionMode)}.
+     *
+     * @param wasmModule The module the instances are built from
+     * @param mode The execution mode, or {@code null} to use the execution mode of this context
+     * @return A {@link CompletableFuture} completed with the {@link Machine} factory of the module
+     */
+    public CompletableFuture<Function<Instance, Machine>> getMachineFactoryAsync(final WasmModule wasmModule,
+            final ExecutionMode mode) {
+        if (resolveExecutionMode(mode) == ExecutionMode.Interpreter) {
+            return CompletableFuture.completedFuture(InterpreterMachine::new);
+        }
+        return WasmRuntimeCompiler.compileAsync(wasmModule,
+                Set.copyOf(moduleConfig.compiler().interpretedFunctions().orElse(List.of())),
+                moduleConfig.compiler().interpreterFallback());
+    }
+
+    private ExecutionMode resolveExecutionMode(final ExecutionMode mode) {
+        final ExecutionMode resolved = mode != null ? mode : executionMode;
+        if (resolved == ExecutionMode.RuntimeCompiler && isNativePackageType) {
+            LOG.warn("The runtime compiler cannot be used in native mode, the interpreter will be used for Wasm module "
+                    + moduleKey);
+            return ExecutionMode.Interpreter;
+        }
+        return resolved;
+    }
+
+    /**
+     * Returns a memory factory that applies the memory sizing and growth policy configured via
+     * {@code quarkus.chicory.modules.<module-key>.memory}, to be used when building instances:
+     *
+     * <pre>
+     * Instance.builder(wasmModule)
+     *         .withMachineFactory(wasmContext.getMachineFactory())
+     *         .withMemoryFactory(wasmContext.getMemoryFactory())
+     *         .build();
+     * </pre>
+     *
+     * Instances of the managed pool already use it.
+     *
+     * @return A {@link Function} that creates the {@link Memory} of an instance, given the limits declared by the module
+     */
+    public Function<MemoryLimits, Memory> getMemoryFactory() {
+        return memoryFactory;
     }
 
     /**
@@ -140,4 +327,591 @@ public class WasmQuarkusContext {
             }
         }
     }
+
+    /**
+     * Returns the pool of instances managed by the extension for this Wasm module, creating it on first access.
+     * The pool size is configured via {@code quarkus.chicory.modules.<module-key>.pool.max-size}.
+     *
+     * @return The {@link WasmInstancePool} of this Wasm module
+     * @throws IllegalStateException if this is a dynamically loaded module, or the module cannot be parsed
+     */
+    public WasmInstancePool getInstancePool() {
+        WasmInstancePool pool = instancePool;
+        if (pool == null) {
+            lock.lock();
+            try {
+                pool = instancePool;
+                if (pool == null) {
+                    pool = instancePool = new WasmInstancePool(moduleKey, moduleConfig.pool(), this::newInstance,
+                            this::dispose);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Returns the isolated instance pools of the tenants of this Wasm module, creating them on first access. The quotas
+     * of each tenant sub-pool are configured via {@code quarkus.chicory.modules.<module-key>.pool.tenant}.
+     *
+     * @return The {@link WasmTenantPools} of this Wasm module
+     * @throws IllegalStateException if this is a dynamically loaded module, or the module cannot be parsed
+     */
+    public WasmTenantPools getTenantPools() {
+        WasmTenantPools pools = tenantPools;
+        if (pools == null) {
+            lock.lock();
+            try {
+                pools = tenantPools;
+                if (pools == null) {
+                    pools = tenantPools = new WasmTenantPools(moduleKey, moduleConfig.pool(), this::newInstance,
+                            this::dispose);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return pools;
+    }
+
+    /**
+     * Builds a new instance of this Wasm module, which is not managed by the extension. The module is parsed once,
+     * and the instance is built with the machine factory, the memory factory and the host imports that are used for
+     * pooled instances.
+     *
+     * @return A new {@link Instance} of this Wasm module
+     * @throws IllegalStateException if this is a dynamically loaded module, or the module cannot be parsed
+     */
+    public Instance newInstance() {
+        return getInstanceFactory().get();
+    }
+
+    /**
+     * Calls an exported function of this Wasm module on a pooled instance, given its marshalled input bytes. When the
+     * export is declared pure via {@code quarkus.chicory.modules.<module-key>.exports.<name>.pure}, results are cached,
+     * and a cache hit returns the stored result without borrowing an instance:
+     *
+     * <pre>
+     * byte[] result = wasmContext.execute("evalPolicy", input, (instance, bytes) -> {
+     *     // write the input to the guest memory, call the export and read the result
+     * });
+     * </pre>
+     *
+     * @param exportName The name of the exported function
+     * @param input The marshalled input bytes, which identify the call for caching purposes
+     * @param call The function that calls the export on the given instance, and returns the marshalled result
+     * @return The result of the call, possibly cached
+     * @throws IllegalStateException if this is a dynamically loaded module, or the module cannot be parsed
+     */
+    public byte[] execute(final String exportName, final byte[] input, final BiFunction<Instance, byte[], byte[]> call) {
+        final WasmResultCache resultCache = resultCaches.get(exportName);
+        if (resultCache == null) {
+            return getInstancePool().execute(instance -> call.apply(instance, input));
+        }
+        return resultCache.get(input, bytes -> getInstancePool().execute(instance -> call.apply(instance, bytes)));
+    }
+
+    /**
+     * Runs a batch of inputs through an exported function on a single pooled instance, so that instance checkout,
+     * marshalling and guest memory allocation are paid once for the whole batch. The inputs are written into one
+     * contiguous guest memory region, allocated through the exports configured via
+     * {@code quarkus.chicory.modules.<module-key>.abi}, and the export is called back to back for each input with the
+     * pointer and length of the shared input, if any, followed by the pointer and length of the input:
+     *
+     * <pre>
+     * long[] results = wasmContext.executeBatch("evalPolicy", policy, manifests);
+     * </pre>
+     *
+     * When {@code quarkus.chicory.modules.<module-key>.exports.<name>.batch-export} is configured, the whole batch is
+     * processed by a single call of that export instead.
+     *
+     * @param exportName The name of the exported function
+     * @param shared The input passed to every call, e.g. a policy, or {@code null}
+     * @param inputs The inputs of the batch
+     * @return The first result of the call for each input, in the same order as the inputs
+     * @throws IllegalStateException if this is a dynamically loaded module, or guest memory cannot be allocated
+     */
+    public long[] executeBatch(final String exportName, final byte[] shared, final List<byte[]> inputs) {
+        if (inputs.isEmpty()) {
+            return new long[0];
+        }
+        final WasmQuarkusConfig.ModuleConfig.ExportConfig exportConfig = moduleConfig.exports().get(exportName);
+        final Optional<String> batchExport = exportConfig == null ? Optional.empty() : exportConfig.batchExport();
+        return getInstancePool().execute(
+                instance -> WasmBatch.execute(instance, moduleConfig.abi(), exportName, batchExport, shared, inputs));
+    }
+
+    /**
+     * Feeds a stream through an exported function on a single pooled instance, in fixed-size chunks, following the
+     * init/update/finish export convention configured via
+     * {@code quarkus.chicory.modules.<module-key>.exports.<name>.stream}. Output chunks are written to the output
+     * stream as soon as the guest produces them, so that memory use stays bounded by the chunk size:
+     *
+     * <pre>
+     * StreamingOutput body = output -> wasmContext.stream("transform", request.getInputStream(), output);
+     * </pre>
+     *
+     * @param exportName The name of the exported function, used to derive the default names of the stream exports
+     * @param input The stream to read the input from
+     * @param output The stream to write the output to
+     * @throws IOException if reading the input or writing the output fails
+     * @throws IllegalStateException if this is a dynamically loaded module, or guest memory cannot be allocated
+     */
+    public void stream(final String exportName, final InputStream input, final OutputStream output) throws IOException {
+        final Optional<WasmQuarkusConfig.ModuleConfig.ExportConfig.StreamConfig> streamConfig = Optional
+                .ofNullable(moduleConfig.exports().get(exportName))
+                .map(WasmQuarkusConfig.ModuleConfig.ExportConfig::stream);
+        try {
+            getInstancePool().execute(instance -> {
+                try {
+                    WasmStream.process(instance, moduleConfig.abi(), exportName, streamConfig, input, output);
+                    return null;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Returns the result cache of an exported function declared pure, e.g. to cache the results of calls on instances
+     * that are not managed by the extension.
+     *
+     * @param exportName The name of the exported function
+     * @return An {@link Optional} storing the {@link WasmResultCache} of the export, or an empty one if the export is
+     *         not declared pure
+     */
+    public Optional<WasmResultCache> getResultCache(final String exportName) {
+        return Optional.ofNullable(resultCaches.get(exportName));
+    }
+
+    /**
+     * Returns the sink receiving the WASI standard output of the instances built by the extension.
+     *
+     * @return The {@link WasiOutputSink} of the standard output, or an empty {@link Optional} if WASI isn't enabled
+     *         via {@code quarkus.chicory.modules.<module-key>.wasi.enabled}
+     */
+    public Optional<WasiOutputSink> getWasiStdout() {
+        return Optional.ofNullable(wasiStdout);
+    }
+
+    /**
+     * Returns the sink receiving the WASI standard error of the instances built by the extension.
+     *
+     * @return The {@link WasiOutputSink} of the standard error, or an empty {@link Optional} if WASI isn't enabled
+     *         via {@code quarkus.chicory.modules.<module-key>.wasi.enabled}
+     */
+    public Optional<WasiOutputSink> getWasiStderr() {
+        return Optional.ofNullable(wasiStderr);
+    }
+
+    /**
+     * Returns the sampling profiler of the instances built by the extension, which attributes the time they spend to
+     * Wasm functions.
+     *
+     * @return The {@link WasmProfiler} of this Wasm module, or an empty {@link Optional} if it isn't enabled via
+     *         {@code quarkus.chicory.modules.<module-key>.profiler.enabled}
+     */
+    public Optional<WasmProfiler> getProfiler() {
+        return Optional.ofNullable(profiler);
+    }
+
+    /**
+     * Returns the performance statistics of the instances built by the extension with the current execution mode, which
+     * are only collected in dev mode.
+     *
+     * @return The {@link WasmModuleStats} of the current execution mode, or an empty {@link Optional} if no instance has
+     *         been built yet, or the application isn't running in dev mode
+     */
+    public Optional<WasmModuleStats> getStats() {
+        return Optional.ofNullable(stats);
+    }
+
+    /**
+     * Returns the performance statistics collected with the execution mode in use before the last
+     * {@link #switchExecutionMode(ExecutionMode) switch}, so that both can be compared.
+     *
+     * @return The {@link WasmModuleStats} of the previous execution mode, or an empty {@link Optional} if the execution
+     *         mode hasn't been switched
+     */
+    public Optional<WasmModuleStats> getPreviousStats() {
+        return Optional.ofNullable(previousStats);
+    }
+
+    /**
+     * Switches the execution mode of the instances built by the extension from now on, and drops the idle pooled
+     * instances, so that they're built again with the new execution mode. Borrowed instances keep their execution mode
+     * until they're returned to the pool.
+     *
+     * @param newExecutionMode The execution mode of the instances built from now on
+     * @throws IllegalStateException if the application isn't running in dev mode
+     */
+    public void switchExecutionMode(final ExecutionMode newExecutionMode) {
+        if (LaunchMode.current() != LaunchMode.DEVELOPMENT) {
+            throw new IllegalStateException("The execution mode of Wasm module " + moduleKey
+                    + " can only be switched in dev mode");
+        }
+        lock.lock();
+        try {
+            if (newExecutionMode == executionMode) {
+                return;
+            }
+            LOG.info("Switching the execution mode of Wasm module " + moduleKey + " from " + executionMode + " to "
+                    + newExecutionMode);
+            executionMode = newExecutionMode;
+            previousStats = stats;
+            stats = null;
+            instanceFactory = null;
+        } finally {
+            lock.unlock();
+        }
+        if (instancePool != null) {
+            instancePool.clear();
+        }
+    }
+
+    private Supplier<Instance> getInstanceFactory() {
+        Supplier<Instance> factory = instanceFactory;
+        if (factory == null) {
+            lock.lock();
+            try {
+                factory = instanceFactory;
+                if (factory == null) {
+                    factory = instanceFactory = createInstanceFactory();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return factory;
+    }
+
+    /**
+     * Tells whether the configured warm-up of this Wasm module has completed successfully. Modules with no
+     * warm-up configured are always warmed up.
+     *
+     * @return {@code true} if no warm-up is pending or failed, {@code false} otherwise
+     */
+    public boolean isWarmedUp() {
+        return !warmupPending && warmupFailure == null;
+    }
+
+    /**
+     * Returns the error that made the configured warm-up of this Wasm module fail, if any.
+     *
+     * @return An {@link Optional} storing the warm-up failure, or an empty one
+     */
+    public Optional<Throwable> getWarmupFailure() {
+        return Optional.ofNullable(warmupFailure);
+    }
+
+    void startWarmup() {
+        if (moduleConfig.warmup().export().isEmpty()) {
+            return;
+        }
+        if (isDynamic) {
+            LOG.warn("Warm-up is configured for dynamically loaded Wasm module " + moduleKey + ", and it will be ignored");
+            return;
+        }
+        warmupPending = true;
+        final Thread warmupThread = new Thread(new WasmWarmup(this, moduleConfig.warmup()), "chicory-warmup-" + moduleKey);
+        warmupThread.setContextClassLoader(Thread.currentThread().getContextClassLoader());
+        warmupThread.setDaemon(true);
+        warmupThread.start();
+    }
+
+    void warmupCompleted(final Throwable failure) {
+        warmupFailure = failure;
+        warmupPending = false;
+    }
+
+    private Supplier<Instance> createInstanceFactory() {
+        if (isDynamic) {
+            throw new IllegalStateException("No payload is configured for Wasm module " + moduleKey
+                    + ", instances of dynamically loaded modules cannot be managed by the extension");
+        }
+        // statistics are only collected in dev mode, for the current execution mode
+        final WasmModuleStats instanceStats = LaunchMode.current() == LaunchMode.DEVELOPMENT
+                ? new WasmModuleStats(executionMode)
+                : null;
+        final long parseStart = System.nanoTime();
+        final WasmModule wasmModule;
+        try {
+            wasmModule = getWasmModule();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot parse Wasm module " + moduleKey, e);
+        }
+        Function<Instance, Machine> wrappedMachineFactory = getMachineFactory();
+        if (profiler != null) {
+            wrappedMachineFactory = profiler.wrap(wasmModule, wrappedMachineFactory);
+        }
+        if (instanceStats != null) {
+            wrappedMachineFactory = instanceStats.wrap(wasmModule, wrappedMachineFactory);
+        }
+        final Function<Instance, Machine> machineFactory = wrappedMachineFactory;
+        if (instanceStats != null) {
+            instanceStats.recordParse(System.nanoTime() - parseStart);
+            stats = instanceStats;
+        }
+        final ImportValues importValues = lookupImportValues();
+        final List<LinkedFunction> linkedFunctions = resolveLinkedFunctions(wasmModule);
+        final WasmQuarkusConfig.ModuleConfig.WasiConfig wasiConfig = moduleConfig.wasi();
+        final WasiFileSystem wasiFileSystem = wasiConfig.enabled() && hasFilesystem(wasiConfig.filesystem())
+                ? WasiFileSystem.build(moduleKey, wasiConfig.filesystem(), Thread.currentThread().getContextClassLoader())
+                : null;
+        return () -> {
+            final Map<WasmQuarkusContext, Instance> providers = new HashMap<>();
+            final Instance instance;
+            try {
+                // the provider instances created before a failing one are released too
+                final ImportValues instanceImportValues = linkedFunctions.isEmpty() ? importValues
+                        : link(importValues, linkedFunctions, providers);
+                instance = buildInstance(wasmModule, machineFactory, instanceImportValues, wasiConfig, wasiFileSystem,
+                        instanceStats);
+            } catch (RuntimeException | Error e) {
+                providers.forEach(WasmQuarkusContext::dispose);
+                throw e;
+            }
+            if (!providers.isEmpty()) {
+                lock.lock();
+                try {
+                    linkedInstances.put(instance, providers);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return instance;
+        };
+    }
+
+    private Instance buildInstance(final WasmModule wasmModule, final Function<Instance, Machine> machineFactory,
+            final ImportValues importValues, final WasmQuarkusConfig.ModuleConfig.WasiConfig wasiConfig,
+            final WasiFileSystem wasiFileSystem, final WasmModuleStats instanceStats) {
+        ImportValues instanceImportValues = importValues;
+        if (wasiConfig.enabled()) {
+            instanceImportValues = withWasi(instanceImportValues, wasiConfig, wasiFileSystem);
+        }
+        final Instance.Builder builder = Instance.builder(wasmModule)
+                .withMachineFactory(machineFactory)
+                .withImportValues(instanceImportValues)
+                // with WASI, _start is called below so that a zero exit code is tolerated
+                .withStart(!wasiConfig.enabled());
+        if (memoryFactory.isConfigured()) {
+            builder.withMemoryFactory(memoryFactory);
+        }
+        final long instantiateStart = System.nanoTime();
+        final Instance instance = builder.build();
+        if (instanceStats != null) {
+            instanceStats.recordInstantiate(System.nanoTime() - instantiateStart);
+        }
+        if (wasiConfig.enabled() && wasiConfig.runStart() && hasExport(wasmModule, "_start")) {
+            try {
+                instance.export("_start").apply();
+            } catch (WasiExitException e) {
+                if (e.exitCode() != 0) {
+                    throw new IllegalStateException("The _start function of Wasm module " + moduleKey
+                            + " exited with code " + e.exitCode(), e);
+                }
+            }
+        }
+        return instance;
+    }
+
+    private ImportValues withWasi(final ImportValues importValues,
+            final WasmQuarkusConfig.ModuleConfig.WasiConfig wasiConfig, final WasiFileSystem wasiFileSystem) {
+        // each instance gets its own WASI state, writing to the shared, bounded sinks of the module
+        final WasiOptions.Builder options = WasiOptions.builder()
+                .withStdout(wasiStdout.newStream())
+                .withStderr(wasiStderr.newStream());
+        wasiConfig.args().ifPresent(options::withArguments);
+        for (Map.Entry<String, String> env : wasiConfig.env().entrySet()) {
+            options.withEnvironment(env.getKey(), env.getValue());
+        }
+        for (Map.Entry<String, String> preopen : wasiConfig.preopens().entrySet()) {
+            options.withDirectory(preopen.getKey(), Path.of(preopen.getValue()));
+        }
+        if (wasiFileSystem != null) {
+            // the snapshot is shared by all the instances, while the scratch directory is private to this one
+            options.withDirectory(wasiConfig.filesystem().mount(), wasiFileSystem.getRoot());
+            wasiConfig.filesystem().scratch()
+                    .ifPresent(scratch -> options.withDirectory(scratch, wasiFileSystem.newScratch()));
+        }
+        final WasiPreview1 wasi = WasiPreview1.builder().withOptions(options.build()).build();
+        return ImportValues.builder()
+                .addFunction(importValues.functions())
+                .addFunction(wasi.toHostFunctions())
+                .addGlobal(importValues.globals())
+                .addMemory(importValues.memories())
+                .addTable(importValues.tables())
+                .build();
+    }
+
+    private static boolean hasFilesystem(
+            final WasmQuarkusConfig.ModuleConfig.WasiConfig.FilesystemConfig filesystemConfig) {
+        return filesystemConfig.resources().isPresent() || filesystemConfig.directory().isPresent()
+                || filesystemConfig.scratch().isPresent();
+    }
+
+    private static boolean hasExport(final WasmModule wasmModule, final String exportName) {
+        for (int i = 0; i < wasmModule.exportSection().exportCount(); i++) {
+            if (wasmModule.exportSection().getExport(i).name().equals(exportName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Releases the resources held by an instance built by {@link #newInstance()} that is not used anymore, i.e. its
+     * {@link OffHeapMemory} and the instances of the linked modules it calls.
+     */
+    void dispose(final Instance instance) {
+        final Map<WasmQuarkusContext, Instance> providers;
+        lock.lock();
+        try {
+            providers = linkedInstances.remove(instance);
+        } finally {
+            lock.unlock();
+        }
+        if (providers != null) {
+            providers.forEach(WasmQuarkusContext::dispose);
+        }
+        if (instance.memory() instanceof OffHeapMemory) {
+            ((OffHeapMemory) instance.memory()).release();
+        }
+    }
+
+    void addHostFunction(final String importModule, final String importName, final FunctionType type,
+            final Supplier<WasmFunctionHandle> handleFactory) {
+        hostFunctions.add(new HostFunctionBinding(importModule, importName, type, handleFactory));
+    }
+
+    void addLinkedImport(final String importModule, final String importName, final String providerKey) {
+        linkedImports.add(new LinkedImport(importModule, importName, providerKey));
+    }
+
+    private List<LinkedFunction> resolveLinkedFunctions(final WasmModule wasmModule) {
+        final List<LinkedFunction> result = new ArrayList<>(linkedImports.size());
+        for (LinkedImport linkedImport : linkedImports) {
+            FunctionType type = null;
+            for (int i = 0; i < wasmModule.importSection().importCount(); i++) {
+                final Import wasmImport = wasmModule.importSection().getImport(i);
+                if (wasmImport.importType() == ExternalType.FUNCTION
+                        && wasmImport.module().equals(linkedImport.importModule)
+                        && wasmImport.name().equals(linkedImport.importName)) {
+                    type = wasmModule.typeSection().getType(((FunctionImport) wasmImport).typeIndex());
+                    break;
+                }
+            }
+            if (type == null) {
+                throw new IllegalStateException("Wasm module " + moduleKey + " doesn't import "
+                        + linkedImport.importModule + "." + linkedImport.importName);
+            }
+            final WasmQuarkusContext provider = Arc.container()
+                    .select(WasmQuarkusContext.class, NamedLiteral.of(linkedImport.providerKey))
+                    .get();
+            result.add(new LinkedFunction(linkedImport, type, provider));
+        }
+        return result;
+    }
+
+    private static ImportValues link(final ImportValues importValues, final List<LinkedFunction> linkedFunctions,
+            final Map<WasmQuarkusContext, Instance> providers) {
+        // each importing instance calls dedicated instances of the exporting modules, since instances aren't thread
+        // safe, and their exports are resolved once. Chicory machines can't call the bytecode generated for another
+        // module, so each linked import is still a host function, whose generic dispatch is the cost of a cross-module
+        // call: the arguments and results are boxed in long arrays, and the callee is entered through its machine
+        final ImportValues.Builder builder = ImportValues.builder()
+                .addFunction(importValues.functions())
+                .addGlobal(importValues.globals())
+                .addMemory(importValues.memories())
+                .addTable(importValues.tables());
+        for (LinkedFunction linkedFunction : linkedFunctions) {
+            final Instance provider = providers.computeIfAbsent(linkedFunction.provider,
+                    WasmQuarkusContext::newInstance);
+            final ExportFunction export = provider.export(linkedFunction.linkedImport.importName);
+            builder.addFunction(new HostFunction(linkedFunction.linkedImport.importModule,
+                    linkedFunction.linkedImport.importName, linkedFunction.type, (instance, args) -> export.apply(args)));
+        }
+        return builder.build();
+    }
+
+    private ImportValues lookupImportValues() {
+        final InjectableInstance<ImportValues> importValues = Arc.container()
+                .select(ImportValues.class, NamedLiteral.of(moduleKey));
+        ImportValues result = ImportValues.empty();
+        if (importValues.isResolvable()) {
+            LOG.debug("Using the ImportValues bean named " + moduleKey + " for pooled instances");
+            result = importValues.get();
+        }
+        if (hostFunctions.isEmpty()) {
+            return result;
+        }
+        final ImportValues.Builder builder = ImportValues.builder()
+                .addFunction(result.functions())
+                .addGlobal(result.globals())
+                .addMemory(result.memories())
+                .addTable(result.tables());
+        for (HostFunctionBinding hostFunction : hostFunctions) {
+            LOG.debug("Binding @WasmImport " + hostFunction.importModule + "." + hostFunction.importName
+                    + " for Wasm module " + moduleKey);
+            builder.addFunction(new HostFunction(hostFunction.importModule, hostFunction.importName, hostFunction.type,
+                    hostFunction.handleFactory.get()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * A function imported by this Wasm module, implemented by another configured Wasm module.
+     */
+    private static final class LinkedImport {
+        private final String importModule;
+        private final String importName;
+        private final String providerKey;
+
+        private LinkedImport(final String importModule, final String importName, final String providerKey) {
+            this.importModule = importModule;
+            this.importName = importName;
+            this.providerKey = providerKey;
+        }
+    }
+
+    /**
+     * A {@link LinkedImport} resolved against the parsed Wasm module and the context of the exporting module.
+     */
+    private static final class LinkedFunction {
+        private final LinkedImport linkedImport;
+        private final FunctionType type;
+        private final WasmQuarkusContext provider;
+
+        private LinkedFunction(final LinkedImport linkedImport, final FunctionType type,
+                final WasmQuarkusContext provider) {
+            this.linkedImport = linkedImport;
+            this.type = type;
+            this.provider = provider;
+        }
+    }
+
+    /**
+     * A function imported by this Wasm module, implemented by a {@link WasmImport} method.
+     */
+    private static final class HostFunctionBinding {
+        private final String importModule;
+        private final String importName;
+        private final FunctionType type;
+        // the generated factory creates the generated handle directly, which calls the annotated method directly
+        private final Supplier<WasmFunctionHandle> handleFactory;
+
+        private HostFunctionBinding(final String importModule, final String importName, final FunctionType type,
+                final Supplier<WasmFunctionHandle> handleFactory) {
+            this.importModule = importModule;
+            this.importName = importName;
+            this.type = type;
+            this.handleFactory = handleFactory;
+        }
+    }
 }
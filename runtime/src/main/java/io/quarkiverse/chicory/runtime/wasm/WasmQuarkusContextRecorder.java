@@ -1,9 +1,21 @@
 package io.quarkiverse.chicory.runtime.wasm;
 
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import jakarta.enterprise.inject.literal.NamedLiteral;
+
 import org.jboss.logging.Logger;
 
+import com.dylibso.chicory.runtime.WasmFunctionHandle;
+import com.dylibso.chicory.wasm.types.FunctionType;
+
 import io.quarkiverse.chicory.runtime.WasmQuarkusConfig;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ClientProxy;
 import io.quarkus.runtime.RuntimeValue;
+import io.quarkus.runtime.ShutdownContext;
 import io.quarkus.runtime.annotations.Recorder;
 
 /**
@@ -20,13 +32,79 @@ public class WasmQuarkusContextRecorder {
      *
      * @param key The configuration key of a given Wasm module
      * @param config The application configuration, storing all the configured Wasm modules.
+     * @param shutdownContext The shutdown context, which closes the created {@link WasmQuarkusContext} when the
+     *        application stops
      * @return A {@link RuntimeValue} referencing the configured {@link WasmQuarkusContext}.
      */
     public RuntimeValue<?> createContext(final String key, final WasmQuarkusConfig config, final boolean isNativePackageType,
-            final String projectBaseDir) {
+            final String projectBaseDir, final ShutdownContext shutdownContext) {
         WasmQuarkusConfig.ModuleConfig moduleConfig = config.modules().get(key);
         LOG.info("A configured Wasm module " + key + " will be created");
         WasmQuarkusContext wasmQuarkusContext = new WasmQuarkusContext(key, moduleConfig, isNativePackageType, projectBaseDir);
+        shutdownContext.addShutdownTask(wasmQuarkusContext::close);
         return new RuntimeValue<>(wasmQuarkusContext);
     }
+
+    /**
+     * Starts the configured warm-up of a Wasm module in the background. The module is reported as not ready until
+     * the warm-up completes.
+     *
+     * @param key The configuration key of a given Wasm module
+     */
+    public void startWarmup(final String key) {
+        lookupContext(key).startWarmup();
+    }
+
+    /**
+     * Creates a supplier of {@link WasmInstance} beans bound to a configured Wasm module.
+     *
+     * @param key The configuration key of a given Wasm module
+     * @param config The application configuration, storing all the configured Wasm modules.
+     * @return A {@link Supplier} creating {@link WasmInstance} beans with the configured {@link InstanceScope}
+     */
+    public Supplier<WasmInstance> createInstanceBean(final String key, final WasmQuarkusConfig config) {
+        final InstanceScope scope = config.modules().get(key).instance().scope();
+        return () -> new WasmInstance(lookupContext(key), scope);
+    }
+
+    /**
+     * Binds a function imported by a configured Wasm module to the code generated for a {@link WasmImport} method.
+     *
+     * @param context The {@link RuntimeValue} referencing the {@link WasmQuarkusContext} of the importing module
+     * @param importModule The name of the module the function is imported from
+     * @param importName The name of the imported function
+     * @param params The text format names of the function parameter types
+     * @param results The text format names of the function result types
+     * @param handleFactory The {@link RuntimeValue} referencing the generated factory of the generated
+     *        {@link WasmFunctionHandle} class, which is created without reflection
+     */
+    public void addHostFunction(final RuntimeValue<?> context, final String importModule, final String importName,
+            final List<String> params, final List<String> results,
+            final RuntimeValue<Supplier<WasmFunctionHandle>> handleFactory) {
+        final FunctionType type = FunctionType.of(
+                params.stream().map(WasmValues::valType).collect(Collectors.toList()),
+                results.stream().map(WasmValues::valType).collect(Collectors.toList()));
+        ((WasmQuarkusContext) context.getValue()).addHostFunction(importModule, importName, type, handleFactory.getValue());
+    }
+
+    /**
+     * Links a function imported by a configured Wasm module to the function with the same name exported by another
+     * configured Wasm module.
+     *
+     * @param context The {@link RuntimeValue} referencing the {@link WasmQuarkusContext} of the importing module
+     * @param importModule The name of the module the function is imported from
+     * @param importName The name of the imported function
+     * @param providerKey The key of the configured Wasm module that exports the function
+     */
+    public void addLinkedImport(final RuntimeValue<?> context, final String importModule, final String importName,
+            final String providerKey) {
+        ((WasmQuarkusContext) context.getValue()).addLinkedImport(importModule, importName, providerKey);
+    }
+
+    private static WasmQuarkusContext lookupContext(final String key) {
+        final WasmQuarkusContext wasmQuarkusContext = Arc.container()
+                .select(WasmQuarkusContext.class, NamedLiteral.of(key))
+                .get();
+        return ClientProxy.unwrap(wasmQuarkusContext);
+    }
 }
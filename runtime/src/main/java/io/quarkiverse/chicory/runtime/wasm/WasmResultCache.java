@@ -0,0 +1,226 @@
+package io.quarkiverse.chicory.runtime.wasm;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.jboss.logging.Logger;
+
+import io.quarkiverse.chicory.runtime.WasmQuarkusConfig;
+
+/**
+ * A bounded cache of the results of a pure exported function, keyed on the marshalled input bytes.
+ * <p>
+ * The cache is created for each export declared pure via {@code quarkus.chicory.modules.<module-key>.exports.<name>.pure}.
+ * It's bounded by the number of results ({@code cache.max-size}) and optionally by the total size of inputs and results
+ * ({@code cache.max-weight}), evicting the least recently used entries first, and entries can expire
+ * ({@code cache.ttl}).
+ * </p>
+ * <p>
+ * Results are computed outside the cache lock, so that slow guest executions don't block hits. Concurrent misses for
+ * the same input compute the result once: the first caller calls the guest, and the others wait for its result.
+ * Every caller gets its own copy of the result, which it can modify without affecting the cache.
+ * </p>
+ */
+public class WasmResultCache {
+    private static final Logger LOG = Logger.getLogger(WasmResultCache.class);
+
+    private final String moduleKey;
+    private final String exportName;
+    private final int maxSize;
+    private final long maxWeight;
+    private final long ttlNanos;
+    private final LinkedHashMap<ByteBuffer, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // the results being computed, which the concurrent misses for the same input wait for
+    private final Map<ByteBuffer, CompletableFuture<byte[]>> computations = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final ReentrantLock lock = new ReentrantLock();
+    private long weight;
+
+    WasmResultCache(final String moduleKey, final String exportName,
+            final WasmQuarkusConfig.ModuleConfig.ExportConfig.CacheConfig cacheConfig) {
+        if (cacheConfig.maxSize() < 1) {
+            throw new IllegalArgumentException("Cache max-size for export " + exportName + " of Wasm module " + moduleKey
+                    + " must be positive");
+        }
+        this.moduleKey = moduleKey;
+        this.exportName = exportName;
+        this.maxSize = cacheConfig.maxSize();
+        this.maxWeight = cacheConfig.maxWeight().orElse(Long.MAX_VALUE);
+        this.ttlNanos = cacheConfig.ttl().map(Duration::toNanos).orElse(0L);
+    }
+
+    /**
+     * Returns the cached result for the given input, or computes and caches it.
+     *
+     * @param input The marshalled input bytes, which are copied when the result is cached
+     * @param compute The function computing the result on a cache miss, e.g. by calling the guest. It's called once
+     *        for concurrent misses with the same input.
+     * @return A copy of the cached or computed result
+     */
+    public byte[] get(final byte[] input, final Function<byte[], byte[]> compute) {
+        byte[] cached = lookup(ByteBuffer.wrap(input));
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached.clone();
+        }
+        final ByteBuffer key = ByteBuffer.wrap(input.clone());
+        final CompletableFuture<byte[]> computation = new CompletableFuture<>();
+        final CompletableFuture<byte[]> pending = computations.putIfAbsent(key, computation);
+        if (pending != null) {
+            hits.incrementAndGet();
+            final byte[] result = await(pending);
+            return result == null ? null : result.clone();
+        }
+        try {
+            // the result may have been cached by a computation that ended since the lookup
+            cached = lookup(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                computation.complete(cached);
+                return cached.clone();
+            }
+            misses.incrementAndGet();
+            final byte[] result = compute.apply(input);
+            final byte[] shared = result == null ? null : result.clone();
+            if (shared != null) {
+                put(key, shared);
+            }
+            computation.complete(shared);
+            return result;
+        } catch (RuntimeException | Error e) {
+            computation.completeExceptionally(e);
+            throw e;
+        } finally {
+            computations.remove(key, computation);
+        }
+    }
+
+    /**
+     * Removes all the cached results.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            weight = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of calls that returned a cached result.
+     *
+     * @return The number of cache hits
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of calls that computed their result.
+     *
+     * @return The number of cache misses
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of cached results.
+     *
+     * @return The number of entries in the cache
+     */
+    public int getSize() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private byte[] lookup(final ByteBuffer key) {
+        lock.lock();
+        try {
+            final Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (ttlNanos == 0 || System.nanoTime() - entry.createdAt < ttlNanos) {
+                return entry.result;
+            }
+            remove(key);
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static byte[] await(final CompletableFuture<byte[]> computation) {
+        try {
+            return computation.join();
+        } catch (CompletionException e) {
+            // the failure of the caller computing the result
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void put(final ByteBuffer key, final byte[] result) {
+        final long entryWeight = (long) key.capacity() + result.length;
+        if (entryWeight > maxWeight) {
+            LOG.debug("Not caching a result of export " + exportName + " of Wasm module " + moduleKey + " weighing "
+                    + entryWeight + " bytes, which exceeds the cache max-weight");
+            return;
+        }
+        lock.lock();
+        try {
+            remove(key);
+            entries.put(key, new Entry(result, entryWeight, System.nanoTime()));
+            weight += entryWeight;
+            // the iteration order of an access ordered map starts with the least recently used entry
+            final Iterator<Map.Entry<ByteBuffer, Entry>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxSize || weight > maxWeight) {
+                weight -= eldest.next().getValue().weight;
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remove(final ByteBuffer key) {
+        final Entry removed = entries.remove(key);
+        if (removed != null) {
+            weight -= removed.weight;
+        }
+    }
+
+    private static final class Entry {
+        private final byte[] result;
+        private final long weight;
+        private final long createdAt;
+
+        private Entry(final byte[] result, final long weight, final long createdAt) {
+            this.result = result;
+            this.weight = weight;
+            this.createdAt = createdAt;
+        }
+    }
+}
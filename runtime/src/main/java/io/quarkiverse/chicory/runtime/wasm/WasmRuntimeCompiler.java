@@ -0,0 +1,117 @@
+package io.quarkiverse.chicory.runtime.wasm;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import com.dylibso.chicory.compiler.InterpreterFallback;
+import com.dylibso.chicory.compiler.MachineFactoryCompiler;
+import com.dylibso.chicory.runtime.Instance;
+import com.dylibso.chicory.runtime.Machine;
+import com.dylibso.chicory.wasm.WasmModule;
+
+/**
+ * Compiles Wasm modules to JVM bytecode at runtime, applying the compiler options, i.e. the functions left to the
+ * interpreter and the interpreter fallback.
+ * <p>
+ * Modules compiled asynchronously share a bounded executor, with one thread per available processor, so that several
+ * large dynamically loaded modules compile in parallel, without starving the application.
+ * </p>
+ */
+final class WasmRuntimeCompiler {
+    private static final ThreadPoolExecutor EXECUTOR = newExecutor();
+
+    private WasmRuntimeCompiler() {
+    }
+
+    /**
+     * Compiles the module once, and returns a machine factory for its instances.
+     */
+    static Function<Instance, Machine> compile(final WasmModule wasmModule, final Set<Integer> interpretedFunctions,
+            final InterpreterFallback interpreterFallback) {
+        return MachineFactoryCompiler.builder(wasmModule)
+                .withInterpretedFunctions(interpretedFunctions)
+                .withInterpreterFallback(interpreterFallback)
+                .compile();
+    }
+
+    /**
+     * Compiles the module on the shared compiler executor.
+     */
+    static CompletableFuture<Function<Instance, Machine>> compileAsync(final WasmModule wasmModule,
+            final Set<Integer> interpretedFunctions, final InterpreterFallback interpreterFallback) {
+        return CompletableFuture.supplyAsync(() -> compile(wasmModule, interpretedFunctions, interpreterFallback),
+                EXECUTOR);
+    }
+
+    /**
+     * Returns a machine factory that compiles the module of the first instance of each module, for callers that don't
+     * provide the module upfront. The instances of a module share its compiled machine factory, which is compiled once,
+     * and dropped along with the module.
+     */
+    static Function<Instance, Machine> perInstance(final Set<Integer> interpretedFunctions,
+            final InterpreterFallback interpreterFallback) {
+        // the compilations of the modules, guarded by the lock, which isn't held while compiling; weak keys, since
+        // dynamically loaded modules are dropped by callers
+        final Map<WasmModule, CompletableFuture<Function<Instance, Machine>>> compilations = new WeakHashMap<>();
+        final ReentrantLock lock = new ReentrantLock();
+        return instance -> {
+            final CompletableFuture<Function<Instance, Machine>> compilation = new CompletableFuture<>();
+            final CompletableFuture<Function<Instance, Machine>> pending;
+            lock.lock();
+            try {
+                pending = compilations.putIfAbsent(instance.module(), compilation);
+            } finally {
+                lock.unlock();
+            }
+            if (pending != null) {
+                return await(pending).apply(instance);
+            }
+            try {
+                compilation.complete(compile(instance.module(), interpretedFunctions, interpreterFallback));
+            } catch (RuntimeException | Error e) {
+                // the next instance compiles the module again
+                lock.lock();
+                try {
+                    compilations.remove(instance.module(), compilation);
+                } finally {
+                    lock.unlock();
+                }
+                compilation.completeExceptionally(e);
+                throw e;
+            }
+            return compilation.join().apply(instance);
+        };
+    }
+
+    private static Function<Instance, Machine> await(final CompletableFuture<Function<Instance, Machine>> compilation) {
+        try {
+            return compilation.join();
+        } catch (CompletionException e) {
+            // the failure of the instance compiling the module
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static ThreadPoolExecutor newExecutor() {
+        final int threads = Runtime.getRuntime().availableProcessors();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                WasmInstancePool.threadFactory("chicory-compiler", WasmRuntimeCompiler.class.getClassLoader()));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,86 @@
+package io.quarkiverse.chicory.runtime.wasm;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Optional;
+
+import com.dylibso.chicory.runtime.ExportFunction;
+import com.dylibso.chicory.runtime.Instance;
+import com.dylibso.chicory.runtime.Memory;
+
+import io.quarkiverse.chicory.runtime.WasmQuarkusConfig;
+import io.quarkiverse.chicory.runtime.WasmQuarkusConfig.ModuleConfig.ExportConfig.StreamConfig;
+
+/**
+ * Feeds a stream through an exported function on a single instance, in fixed-size chunks.
+ * <p>
+ * An input buffer and an output buffer of {@code chunk-size} bytes are allocated once in guest memory. The stream
+ * handle returned by the init export is passed to each call of the update export, which processes an input chunk and
+ * writes at most {@code chunk-size} output bytes; when the output buffer is full, the update export is called again
+ * with an empty input chunk to drain the pending output. Once the input is exhausted, the finish export is called until
+ * it writes no more output. Each output chunk is written to the output stream as soon as it's produced, so that
+ * memory use stays bounded by the chunk size, whatever the size of the stream.
+ * </p>
+ */
+final class WasmStream {
+    // the default of quarkus.chicory.modules.<module-key>.exports.<name>.stream.chunk-size, for exports not configured
+    private static final int DEFAULT_CHUNK_SIZE = 65536;
+
+    private WasmStream() {
+    }
+
+    static void process(final Instance instance, final WasmQuarkusConfig.ModuleConfig.AbiConfig abiConfig,
+            final String exportName, final Optional<StreamConfig> streamConfig,
+            final InputStream input, final OutputStream output) throws IOException {
+        final int chunkSize = streamConfig.map(StreamConfig::chunkSize).orElse(DEFAULT_CHUNK_SIZE);
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Stream chunk-size for export " + exportName + " must be positive");
+        }
+        final ExportFunction init = instance.export(streamConfig.flatMap(StreamConfig::init).orElse(exportName + "_init"));
+        final ExportFunction update = instance
+                .export(streamConfig.flatMap(StreamConfig::update).orElse(exportName + "_update"));
+        final ExportFunction finish = instance
+                .export(streamConfig.flatMap(StreamConfig::finish).orElse(exportName + "_finish"));
+        final ExportFunction alloc = instance.export(abiConfig.alloc());
+        final ExportFunction free = instance.export(abiConfig.free());
+        final Memory memory = instance.memory();
+
+        final int inPtr = (int) alloc.apply(chunkSize)[0];
+        final int outPtr = (int) alloc.apply(chunkSize)[0];
+        if (inPtr == 0 || outPtr == 0) {
+            throw new IllegalStateException("Cannot allocate guest memory to stream through export " + exportName);
+        }
+        try {
+            final long[] initResult = init.apply();
+            final long handle = initResult == null || initResult.length == 0 ? 0 : initResult[0];
+            final byte[] chunk = new byte[chunkSize];
+            int read;
+            while ((read = input.readNBytes(chunk, 0, chunkSize)) > 0) {
+                memory.write(inPtr, chunk, 0, read);
+                int written = (int) update.apply(handle, inPtr, read, outPtr, chunkSize)[0];
+                emit(memory, outPtr, written, output);
+                // a full output buffer may leave pending output in the guest
+                while (written == chunkSize) {
+                    written = (int) update.apply(handle, inPtr, 0, outPtr, chunkSize)[0];
+                    emit(memory, outPtr, written, output);
+                }
+            }
+            int written;
+            while ((written = (int) finish.apply(handle, outPtr, chunkSize)[0]) > 0) {
+                emit(memory, outPtr, written, output);
+            }
+            output.flush();
+        } finally {
+            free.apply(inPtr);
+            free.apply(outPtr);
+        }
+    }
+
+    private static void emit(final Memory memory, final int outPtr, final int written, final OutputStream output)
+            throws IOException {
+        if (written > 0) {
+            output.write(memory.readBytes(outPtr, written));
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package io.quarkiverse.chicory.runtime.wasm;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.jboss.logging.Logger;
+
+import com.dylibso.chicory.runtime.Instance;
+
+import io.quarkiverse.chicory.runtime.WasmQuarkusConfig;
+
+/**
+ * The isolated instance pools of the tenants of a Wasm module, so that a noisy tenant can't consume every instance.
+ * <p>
+ * A {@link WasmInstancePool} is created for each tenant on first use, with its own quotas configured via
+ * {@code quarkus.chicory.modules.<module-key>.pool.tenant}: the maximum number of instances, the memory budget of
+ * all of its instances and the maximum number of waiting callers. The sub-pool of a tenant that made no call within
+ * {@code pool.tenant.idle-timeout} is evicted, and its instances are reclaimed. An evicted sub-pool is closed, and
+ * {@link #execute(String, Function)} transparently retries on the new sub-pool of the tenant.
+ * </p>
+ *
+ * <pre>
+ * long[] result = wasmContext.getTenantPools().execute(tenantId, instance -> instance.export("operation").apply(41, 1));
+ * </pre>
+ */
+public class WasmTenantPools {
+    private static final Logger LOG = Logger.getLogger(WasmTenantPools.class);
+
+    private final String moduleKey;
+    private final WasmQuarkusConfig.ModuleConfig.PoolConfig poolConfig;
+    private final Supplier<Instance> instanceFactory;
+    private final Consumer<Instance> instanceDisposer;
+    private final long idleTimeoutNanos;
+    private final Map<String, TenantPool> pools = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService evictionExecutor;
+
+    WasmTenantPools(final String moduleKey, final WasmQuarkusConfig.ModuleConfig.PoolConfig poolConfig,
+            final Supplier<Instance> instanceFactory, final Consumer<Instance> instanceDisposer) {
+        this.moduleKey = moduleKey;
+        this.poolConfig = poolConfig;
+        this.instanceFactory = instanceFactory;
+        this.instanceDisposer = instanceDisposer;
+        this.idleTimeoutNanos = poolConfig.tenant().idleTimeout().toNanos();
+        this.evictionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "chicory-tenants-" + moduleKey);
+            thread.setDaemon(true);
+            return thread;
+        });
+        final long period = Math.max(idleTimeoutNanos / 2, TimeUnit.SECONDS.toNanos(1));
+        evictionExecutor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Applies the given function to an instance borrowed from the sub-pool of a tenant, and returns it to the sub-pool
+     * afterward. If the sub-pool is evicted between its lookup and the borrowing, the instance is borrowed from the new
+     * sub-pool of the tenant instead.
+     *
+     * @param tenantId The identifier of the tenant
+     * @param call The function to apply
+     * @return The result of the function
+     * @see WasmInstancePool#execute(Function)
+     */
+    public <T> T execute(final String tenantId, final Function<Instance, T> call) {
+        while (true) {
+            final WasmInstancePool pool = get(tenantId);
+            final Instance instance = pool.tryBorrow(null);
+            if (instance != null) {
+                return pool.executeBorrowed(instance, call);
+            }
+        }
+    }
+
+    /**
+     * Returns the sub-pool of a tenant, creating it on first use. The sub-pool is closed if it's evicted, so callers
+     * should not keep it beyond the idle timeout, and should prefer {@link #execute(String, Function)}.
+     *
+     * @param tenantId The identifier of the tenant
+     * @return The {@link WasmInstancePool} of the tenant
+     */
+    public WasmInstancePool get(final String tenantId) {
+        // only creating the sub-pool runs under the lock of the map entry, it doesn't create any instance
+        final TenantPool tenantPool = pools.computeIfAbsent(tenantId, this::newTenantPool);
+        tenantPool.lastUsed = System.nanoTime();
+        return tenantPool.pool;
+    }
+
+    /**
+     * Returns the number of tenants that currently have a sub-pool.
+     *
+     * @return The number of tenant sub-pools
+     */
+    public int getTenantCount() {
+        return pools.size();
+    }
+
+    private TenantPool newTenantPool(final String tenantId) {
+        LOG.debug("Creating the instance pool of tenant " + tenantId + " for Wasm module " + moduleKey);
+        final WasmQuarkusConfig.ModuleConfig.PoolConfig.TenantPoolConfig tenantConfig = poolConfig.tenant();
+        return new TenantPool(new WasmInstancePool(moduleKey + "/" + tenantId, tenantConfig.maxSize(),
+                tenantConfig.maxQueue(), tenantConfig.maxPages(), poolConfig, instanceFactory, instanceDisposer));
+    }
+
+    private void evictIdle() {
+        for (Map.Entry<String, TenantPool> entry : pools.entrySet()) {
+            final TenantPool tenantPool = entry.getValue();
+            if (System.nanoTime() - tenantPool.lastUsed <= idleTimeoutNanos || tenantPool.pool.getBusyCount() > 0) {
+                continue;
+            }
+            // only evicts the sub-pool that was checked, not a new sub-pool of the same tenant
+            if (!pools.remove(entry.getKey(), tenantPool)) {
+                continue;
+            }
+            LOG.debug("Evicting the idle instance pool of tenant " + entry.getKey() + " for Wasm module " + moduleKey);
+            // outside of any lock of the map, as it disposes instances; borrowing from the sub-pool fails from now on,
+            // so that a caller that looked it up just before its removal retries on the new sub-pool of the tenant
+            tenantPool.pool.close();
+        }
+    }
+
+    private static final class TenantPool {
+        private final WasmInstancePool pool;
+        private volatile long lastUsed;
+
+        private TenantPool(final WasmInstancePool pool) {
+            this.pool = pool;
+        }
+    }
+}
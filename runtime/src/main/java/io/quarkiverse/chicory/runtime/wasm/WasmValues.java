@@ -0,0 +1,71 @@
+package io.quarkiverse.chicory.runtime.wasm;
+
+import com.dylibso.chicory.wasm.types.ValType;
+
+/**
+ * Conversions between the {@code long} representation of Wasm values used by Chicory and Java primitive types, used by
+ * the code generated for {@link WasmImport} methods.
+ */
+public final class WasmValues {
+    private static final long[] EMPTY = new long[0];
+
+    private WasmValues() {
+    }
+
+    public static int toInt(final long value) {
+        return (int) value;
+    }
+
+    public static long toLong(final long value) {
+        return value;
+    }
+
+    public static float toFloat(final long value) {
+        return Float.intBitsToFloat((int) value);
+    }
+
+    public static double toDouble(final long value) {
+        return Double.longBitsToDouble(value);
+    }
+
+    public static long[] empty() {
+        return EMPTY;
+    }
+
+    public static long[] of(final int value) {
+        return new long[] { value };
+    }
+
+    public static long[] of(final long value) {
+        return new long[] { value };
+    }
+
+    public static long[] of(final float value) {
+        return new long[] { Float.floatToRawIntBits(value) };
+    }
+
+    public static long[] of(final double value) {
+        return new long[] { Double.doubleToRawLongBits(value) };
+    }
+
+    /**
+     * Returns the Wasm value type identified by its text format name.
+     *
+     * @param name One of {@code i32}, {@code i64}, {@code f32} or {@code f64}
+     * @return The related {@link ValType}
+     */
+    public static ValType valType(final String name) {
+        switch (name) {
+            case "i32":
+                return ValType.I32;
+            case "i64":
+                return ValType.I64;
+            case "f32":
+                return ValType.F32;
+            case "f64":
+                return ValType.F64;
+            default:
+                throw new IllegalArgumentException("Unsupported Wasm value type: " + name);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package io.quarkiverse.chicory.runtime.wasm;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jboss.logging.Logger;
+
+import io.quarkiverse.chicory.runtime.WasmQuarkusConfig;
+
+/**
+ * Runs the configured warm-up calls of a Wasm module against its managed {@link WasmInstancePool}.
+ * <p>
+ * Build-time compiled machines are plain JVM bytecode that the JIT compiler hasn't seen yet when the application
+ * starts, so the configured exported function is called repeatedly before the module is reported as ready.
+ * </p>
+ */
+class WasmWarmup implements Runnable {
+    private static final Logger LOG = Logger.getLogger(WasmWarmup.class);
+
+    private final WasmQuarkusContext context;
+    private final WasmQuarkusConfig.ModuleConfig.WarmupConfig warmupConfig;
+
+    WasmWarmup(final WasmQuarkusContext context, final WasmQuarkusConfig.ModuleConfig.WarmupConfig warmupConfig) {
+        this.context = context;
+        this.warmupConfig = warmupConfig;
+    }
+
+    @Override
+    public void run() {
+        final String export = warmupConfig.export().orElseThrow();
+        try {
+            final List<long[]> argumentSets = argumentSets();
+            final WasmInstancePool pool = context.getInstancePool();
+            final long start = System.nanoTime();
+            pool.fill();
+            for (int i = 0; i < warmupConfig.iterations(); i++) {
+                final long[] args = argumentSets.get(i % argumentSets.size());
+                pool.execute(instance -> instance.export(export).apply(args));
+            }
+            LOG.info("Wasm module " + context.getName() + " warmed up by " + warmupConfig.iterations() + " calls to "
+                    + export + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            context.warmupCompleted(null);
+        } catch (RuntimeException | IOException e) {
+            LOG.error("Warm-up of Wasm module " + context.getName() + " failed", e);
+            context.warmupCompleted(e);
+        }
+    }
+
+    private List<long[]> argumentSets() throws IOException {
+        final List<long[]> result = new ArrayList<>();
+        if (warmupConfig.inputFile().isPresent()) {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(openInputFile(warmupConfig.inputFile().get()), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty() && !line.startsWith("#")) {
+                        result.add(Arrays.stream(line.split(","))
+                                .map(String::trim)
+                                .mapToLong(Long::parseLong)
+                                .toArray());
+                    }
+                }
+            }
+            if (result.isEmpty()) {
+                throw new IllegalStateException("Warm-up input file " + warmupConfig.inputFile().get() + " is empty");
+            }
+        } else {
+            result.add(warmupConfig.args()
+                    .map(args -> args.stream().mapToLong(Long::longValue).toArray())
+                    .orElse(new long[0]));
+        }
+        return result;
+    }
+
+    private static InputStream openInputFile(final String inputFile) throws IOException {
+        final InputStream is = Thread.currentThread().getContextClassLoader().getResourceAsStream(inputFile);
+        if (is != null) {
+            return is;
+        }
+        return Files.newInputStream(Path.of(inputFile));
+    }
+}